@@ -23,8 +23,11 @@
 package dslabs.framework.testing;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import dslabs.framework.Address;
+import dslabs.framework.Message;
 import dslabs.framework.testing.search.SearchSettings;
 import java.util.stream.Collectors;
 import org.junit.Test;
@@ -62,4 +65,36 @@ public class SettingsTest {
         s.invariants().stream().map(StatePredicate::name).sorted().collect(Collectors.toList()),
         s2.invariants().stream().map(StatePredicate::name).sorted().collect(Collectors.toList()));
   }
+
+  private static boolean delivers(SearchSettings s, Address from, Address to) {
+    return s.shouldDeliver(new MessageEnvelope(from, to, new Message() {}));
+  }
+
+  @Test
+  public void networkRulesTakeEffectImmediately() {
+    SearchSettings s = new SearchSettings();
+    assertTrue(delivers(s, a, b));
+
+    s.networkActive(false);
+    assertFalse(delivers(s, a, b));
+    assertTrue(delivers(s, a, a));
+
+    s.nodeActive(a, true);
+    assertTrue(delivers(s, a, b));
+    assertTrue(delivers(s, c, a));
+    assertFalse(delivers(s, b, c));
+
+    // Links take priority over senders and receivers
+    s.linkActive(a, b, false);
+    assertFalse(delivers(s, a, b));
+    assertTrue(delivers(s, b, a));
+
+    s.partition(b, c);
+    assertTrue(delivers(s, b, c));
+    assertFalse(delivers(s, a, b));
+
+    s.reconnect();
+    assertTrue(delivers(s, a, b));
+    assertTrue(delivers(s, b, c));
+  }
 }
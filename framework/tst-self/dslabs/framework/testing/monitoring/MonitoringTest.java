@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.monitoring;
+
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.Address;
+import dslabs.framework.Message;
+import dslabs.framework.Node;
+import dslabs.framework.testing.LocalAddress;
+import dslabs.framework.testing.NodeGenerator;
+import dslabs.framework.testing.Workload;
+import dslabs.framework.testing.search.Search;
+import dslabs.framework.testing.search.SearchSettings;
+import dslabs.framework.testing.search.SearchState;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MonitoringTest {
+  static final Address sender = new LocalAddress("sender"), receiver = new LocalAddress("receiver");
+
+  static final NodeGenerator gen =
+      NodeGenerator.builder()
+          .serverSupplier(address -> address.equals(sender) ? new Sender() : new Receiver())
+          .clientSupplier(() -> null)
+          .workloadSupplier((Workload) null)
+          .build();
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static SearchState initialState() {
+    SearchState s = new SearchState(gen);
+    s.addServer(sender);
+    s.addServer(receiver);
+    return s;
+  }
+
+  @Test
+  public void searchMXBeanUnregisteredAfterSearch() throws Exception {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(3);
+    Search.bfs(initialState(), settings);
+
+    assertTrue(
+        ManagementFactory.getPlatformMBeanServer()
+            .queryNames(new ObjectName("dslabs:type=Search,*"), null)
+            .isEmpty());
+  }
+
+  @Test
+  public void searchMXBeanUnregisteredAfterFailedSearch() throws Exception {
+    final Path checkpoint = folder.newFile("corrupt.ckpt").toPath();
+    Files.writeString(checkpoint, "not a checkpoint");
+
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(3).checkpointFile(checkpoint.toString()).resumeFromCheckpoint(true);
+    assertThrows(IllegalArgumentException.class, () -> Search.bfs(initialState(), settings));
+
+    assertTrue(
+        ManagementFactory.getPlatformMBeanServer()
+            .queryNames(new ObjectName("dslabs:type=Search,*"), null)
+            .isEmpty());
+  }
+
+  @Test
+  public void searchEmitsFlightRecorderEvents() throws Exception {
+    final Path file = folder.getRoot().toPath().resolve("search.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("dslabs.MessageDelivery");
+      recording.enable("dslabs.StateExpansion");
+      recording.start();
+
+      final SearchSettings settings = new SearchSettings();
+      settings.maxDepth(3);
+      Search.bfs(initialState(), settings);
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    assertTrue(
+        events.stream()
+            .anyMatch(
+                e ->
+                    e.getEventType().getName().equals("dslabs.MessageDelivery")
+                        && e.getString("messageType").equals(Note.class.getName())
+                        && e.getString("context").equals("search")));
+    assertTrue(
+        events.stream().anyMatch(e -> e.getEventType().getName().equals("dslabs.StateExpansion")));
+  }
+}
+
+@Data
+class Note implements Message {}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Sender extends Node {
+  Sender() {
+    super(MonitoringTest.sender);
+  }
+
+  @Override
+  public void init() {
+    send(new Note(), MonitoringTest.receiver);
+  }
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Receiver extends Node {
+  private int notes = 0;
+
+  Receiver() {
+    super(MonitoringTest.receiver);
+  }
+
+  @Override
+  public void init() {}
+
+  void handleNote(Note note, Address sender) {
+    notes++;
+  }
+}
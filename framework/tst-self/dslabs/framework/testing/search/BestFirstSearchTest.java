@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.stepper;
+import static dslabs.framework.testing.search.SearchTestNodes.stepperAt;
+import static dslabs.framework.testing.search.SearchTestNodes.stepperState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import dslabs.framework.testing.StatePredicate;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BestFirstSearchTest {
+  private static final int TARGET = 12;
+
+  private static final StatePredicate REACHED_TARGET =
+      statePredicate(
+          "Climber reached target", s -> ((Climber) s.server(climber)).height() >= TARGET);
+
+  private SearchState initialState;
+
+  @Before
+  public void setup() {
+    initialState = climberState();
+  }
+
+  private static int distance(SearchState s) {
+    return TARGET - ((Climber) s.server(climber)).height();
+  }
+
+  @Test(timeout = 30000)
+  public void heuristicGuidesSearchToDeepGoal() {
+    // Breadth-first search would need to explore every combination of distracting events first
+    final SearchSettings settings = new SearchSettings();
+    settings.addGoal(REACHED_TARGET).maxTimeSecs(20);
+
+    final SearchResults results =
+        Search.bestFirst(initialState, settings, BestFirstSearchTest::distance);
+    assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+    final SearchState goal = results.goalMatchingState();
+    assertNotNull(goal);
+    assertEquals(0, distance(goal));
+    assertEquals(TARGET, goal.depth());
+  }
+
+  @Test(timeout = 30000)
+  public void constantHeuristicExhaustsSpaceLikeBFS() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(3).maxTimeSecs(20);
+
+    final SearchResults results = Search.bestFirst(initialState, settings, s -> 0);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+  }
+
+  @Test(timeout = 30000)
+  public void reexploresStatesReachedOnShorterPath() {
+    final SearchSettings settings = new SearchSettings();
+    settings
+        .addGoal(stepperAt(Stepper.POSITIONS - 1))
+        .maxDepth(Stepper.POSITIONS - 2)
+        .maxTimeSecs(20);
+
+    // Going along the chain first reaches the end of the shortcut on a longer path
+    final SearchResults results =
+        Search.bestFirst(
+            stepperState(0),
+            settings,
+            s -> ((Stepper) s.server(stepper)).position() == Stepper.SHORTCUT ? 1 : 0);
+    assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+    assertEquals(Stepper.POSITIONS - 2, results.goalMatchingState().depth());
+  }
+
+  @Test(timeout = 30000)
+  public void throwingHeuristicDoesNotStopSearch() {
+    final SearchSettings settings = new SearchSettings();
+    settings.addGoal(REACHED_TARGET).maxTimeSecs(20);
+
+    final SearchResults results =
+        Search.bestFirst(
+            initialState,
+            settings,
+            s -> {
+              if (s.depth() == 1) {
+                throw new IllegalStateException();
+              }
+              return distance(s);
+            });
+    assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BitstateSetTest {
+  @Test
+  public void sizedInMegabytes() {
+    assertEquals(8L * 1024 * 1024, new BitstateSet(1).numBits());
+    assertEquals(16L * 8 * 1024 * 1024, new BitstateSet(20).numBits());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsEmptyArray() {
+    new BitstateSet(0);
+  }
+
+  @Test
+  public void addedFingerprintsArePresent() {
+    final BitstateSet bits = new BitstateSet(1);
+    assertEquals(0.0, bits.omissionProbability(), 0.0);
+
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(bits.add(Fingerprints.mix(i)));
+    }
+    for (int i = 0; i < 10_000; i++) {
+      assertFalse(bits.add(Fingerprints.mix(i)));
+    }
+    assertEquals(10_000, bits.size());
+
+    assertTrue(bits.falsePositiveRate() > 0 && bits.falsePositiveRate() < 1e-6);
+    final double p = bits.omissionProbability();
+    assertTrue(p > 0 && p < 1e-3);
+  }
+
+  @Test
+  public void falsePositiveRateTracksFalsePositives() {
+    final BitstateSet bits = new BitstateSet(1);
+    final int n = 2_000_000;
+    for (int i = 0; i < n; i++) {
+      bits.add(Fingerprints.mix(i));
+    }
+    final double p = bits.falsePositiveRate();
+    assertTrue(p > 0.05 && p < 0.5);
+
+    // Fingerprints never added should be omitted at roughly the estimated rate
+    int omitted = 0;
+    final int trials = 100_000;
+    for (int i = 0; i < trials; i++) {
+      if (!bits.add(Fingerprints.mix(n + i))) {
+        omitted++;
+      }
+    }
+    assertEquals(p, (double) omitted / trials, p / 4);
+  }
+
+  @Test
+  public void expectedOmissionsTrackOmittedFingerprints() {
+    final BitstateSet bits = new BitstateSet(1);
+    final int n = 2_000_000;
+    for (int i = 0; i < n; i++) {
+      bits.add(Fingerprints.mix(i));
+    }
+
+    // The fingerprints are distinct, so every one not added was omitted
+    final long omitted = n - bits.size();
+    assertTrue(omitted > 1000);
+    assertEquals(omitted, bits.expectedOmissions(), omitted / 10.0);
+    assertEquals(1.0, bits.omissionProbability(), 1e-9);
+  }
+}
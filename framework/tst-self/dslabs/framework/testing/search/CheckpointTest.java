@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.gen;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private SearchState initialState;
+  private SearchSettings settings;
+  private File checkpoint;
+
+  @Before
+  public void setup() throws IOException {
+    initialState = new SearchState(gen);
+    initialState.addServer(a);
+    initialState.addServer(b);
+
+    checkpoint = new File(folder.getRoot(), "search.ckpt");
+    settings = new SearchSettings();
+    settings.singleThreaded(true).outputFreqSecs(-1);
+    settings.checkpointFile(checkpoint.getPath());
+  }
+
+  @Test
+  public void resumesFromFrontier() {
+    // Save a checkpoint before every state is explored
+    settings.checkpointFreqSecs(0);
+    final SearchResults original = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, original.endCondition());
+    assertTrue(checkpoint.exists());
+
+    // The last checkpoint was saved just before the exceptional state was found
+    settings.checkpointFreqSecs(-1).resumeFromCheckpoint(true);
+    final SearchResults resumed = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, resumed.endCondition());
+    assertEquals(2, resumed.exceptionalState().depth());
+    assertEquals(
+        Lists.newArrayList(original.exceptionalState().trace()),
+        Lists.newArrayList(resumed.exceptionalState().trace()));
+  }
+
+  @Test
+  public void resumesExhaustedSearch() {
+    settings.maxDepth(1).checkpointFreqSecs(-1);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, Search.bfs(initialState, settings).endCondition());
+    assertTrue(checkpoint.exists());
+
+    settings.resumeFromCheckpoint(true);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, Search.bfs(initialState, settings).endCondition());
+  }
+
+  @Test
+  public void unsupportedSearchesRunWithoutCheckpoints() {
+    settings.maxDepth(3).checkpointFreqSecs(0);
+    assertEquals(
+        EndCondition.EXCEPTION_THROWN,
+        Search.bestFirst(initialState, settings, s -> 0).endCondition());
+    assertEquals(
+        EndCondition.EXCEPTION_THROWN,
+        Search.iterativeDeepening(initialState, settings).endCondition());
+
+    settings.maxDepth(1);
+    assertEquals(
+        EndCondition.SPACE_EXHAUSTED,
+        Search.iterativeDeepening(initialState, settings).endCondition());
+    assertFalse(checkpoint.exists());
+    assertArrayEquals(new String[0], folder.getRoot().list());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsDifferentInitialState() {
+    settings.maxDepth(1);
+    Search.bfs(initialState, settings);
+
+    final SearchState other = new SearchState(gen);
+    other.addServer(a);
+    settings.resumeFromCheckpoint(true);
+    Search.bfs(other, settings);
+  }
+}
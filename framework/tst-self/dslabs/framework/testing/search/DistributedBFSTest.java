@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.exceptionState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import com.google.common.collect.Iterables;
+import dslabs.framework.testing.search.DistributedBFS.Connection;
+import dslabs.framework.testing.search.DistributedBFS.StartLevel;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DistributedBFSTest {
+  private SearchState initialState;
+  private SearchSettings settings;
+
+  @Before
+  public void setup() {
+    initialState = exceptionState();
+
+    settings = new SearchSettings();
+    settings.distributedWorkers(2).outputFreqSecs(-1);
+  }
+
+  @Test
+  public void findsShallowestException() {
+    SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    assertNotNull(results.exceptionalState());
+    assertEquals(2, results.exceptionalState().depth());
+
+    // The state was replayed locally, so its whole trace is available
+    assertEquals(3, Iterables.size(results.exceptionalState().trace()));
+    assertEquals(initialState, Iterables.getFirst(results.exceptionalState().trace(), null));
+  }
+
+  @Test
+  public void exhaustsDepthLimitedSpace() {
+    settings.maxDepth(1);
+    SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+  }
+
+  @Test
+  public void findsShallowestInvariantViolation() {
+    settings.addInvariant(
+        statePredicate("Climber is low", s -> ((Climber) s.server(climber)).height() < 3));
+    SearchResults results = Search.bfs(climberState(), settings);
+    assertEquals(EndCondition.INVARIANT_VIOLATED, results.endCondition());
+    assertNotNull(results.invariantViolatingState());
+    assertEquals(3, results.invariantViolatingState().depth());
+    assertEquals(4, Iterables.size(results.invariantViolatingState().trace()));
+  }
+
+  @Test(timeout = 30000)
+  public void rejectsConnectionsWithoutToken() throws Exception {
+    final byte[] token = new byte[32];
+    Arrays.fill(token, (byte) 1);
+    try (ServerSocket server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress())) {
+      final CompletableFuture<Connection> accepted =
+          CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  return Connection.accept(server, token);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+
+      try (Socket impostor = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+        impostor.getOutputStream().write(new byte[token.length]);
+        // Closed without being sent anything
+        assertEquals(-1, impostor.getInputStream().read());
+      }
+      assertFalse(accepted.isDone());
+
+      try (Connection client = Connection.connect(server.getLocalPort(), token);
+          Connection connection = accepted.get()) {
+        client.send(new StartLevel());
+        assertEquals(new StartLevel(), connection.receive());
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import dslabs.framework.testing.Event;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+public class EventBufferTest {
+  @Test
+  public void holdsSameEventsAsCollection() {
+    final SearchState s = climberState();
+    try (EventBuffer events = EventBuffer.acquire()) {
+      s.events(null, events);
+
+      final List<Event> buffered = new ArrayList<>();
+      for (int i = 0; i < events.size(); i++) {
+        buffered.add(events.get(i));
+      }
+      assertEquals(new ArrayList<>(s.events(null)), buffered);
+    }
+  }
+
+  @Test
+  public void bufferReusedOnlyOnceClosed() {
+    final EventBuffer first;
+    try (EventBuffer events = EventBuffer.acquire()) {
+      first = events;
+      try (EventBuffer nested = EventBuffer.acquire()) {
+        assertNotSame(events, nested);
+      }
+    }
+    try (EventBuffer events = EventBuffer.acquire()) {
+      assertSame(first, events);
+      assertEquals(0, events.size());
+    }
+  }
+
+  @Test
+  public void shuffleIsPermutation() {
+    final SearchState s = climberState();
+    try (EventBuffer events = EventBuffer.acquire()) {
+      s.events(null, events);
+      events.shuffle(new SplittableRandom(42));
+
+      final List<Event> shuffled = new ArrayList<>();
+      for (int i = 0; i < events.size(); i++) {
+        shuffled.add(events.get(i));
+      }
+      assertEquals(new HashSet<>(s.events(null)), new HashSet<>(shuffled));
+      assertEquals(s.events(null).size(), shuffled.size());
+    }
+  }
+}
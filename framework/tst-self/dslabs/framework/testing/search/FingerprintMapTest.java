@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dslabs.framework.testing.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FingerprintMapTest {
+  private FingerprintMap fm;
+
+  @Before
+  public void setUp() {
+    fm = new FingerprintMap();
+  }
+
+  @Test
+  public void putAndGet() {
+    assertEquals(-1, fm.get(42, -1));
+    fm.put(42, 7);
+    assertEquals(7, fm.get(42, -1));
+    fm.put(42, 9);
+    assertEquals(9, fm.get(42, -1));
+    assertEquals(1, fm.size());
+  }
+
+  @Test
+  public void zeroIsAFingerprint() {
+    assertEquals(-1, fm.get(0, -1));
+    fm.put(0, 3);
+    assertEquals(3, fm.get(0, -1));
+    assertEquals(1, fm.size());
+  }
+
+  @Test
+  public void lowerOnlyDecreases() {
+    assertTrue(fm.lower(42, 5));
+    assertFalse(fm.lower(42, 5));
+    assertFalse(fm.lower(42, 6));
+    assertTrue(fm.lower(42, 2));
+    assertEquals(2, fm.get(42, -1));
+  }
+
+  @Test
+  public void manyFingerprints() {
+    Random rand = new Random(0);
+    Map<Long, Long> expected = new HashMap<>();
+    for (int i = 0; i < 200_000; i++) {
+      long f = Fingerprints.mix(rand.nextInt(100_000));
+      long v = rand.nextLong();
+      expected.put(f, v);
+      fm.put(f, v);
+    }
+    assertEquals(expected.size(), fm.size());
+    for (Map.Entry<Long, Long> e : expected.entrySet()) {
+      assertEquals((long) e.getValue(), fm.get(e.getKey(), 0));
+    }
+  }
+}
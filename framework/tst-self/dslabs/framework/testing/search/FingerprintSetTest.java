@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FingerprintSetTest {
+  private FingerprintSet fs;
+
+  @Before
+  public void setUp() {
+    fs = new FingerprintSet();
+  }
+
+  @Test
+  public void addAndContains() {
+    assertFalse(fs.contains(42));
+    assertTrue(fs.add(42));
+    assertTrue(fs.contains(42));
+    assertFalse(fs.add(42));
+    assertEquals(1, fs.size());
+  }
+
+  @Test
+  public void zeroIsAFingerprint() {
+    assertFalse(fs.contains(0));
+    assertTrue(fs.add(0));
+    assertTrue(fs.contains(0));
+    assertFalse(fs.add(0));
+    assertEquals(1, fs.size());
+  }
+
+  @Test
+  public void manyFingerprints() {
+    Random rand = new Random(0);
+    Set<Long> added = new HashSet<>();
+    for (int i = 0; i < 200_000; i++) {
+      long f = Fingerprints.mix(rand.nextInt(100_000));
+      assertEquals(added.add(f), fs.add(f));
+    }
+    assertEquals(added.size(), fs.size());
+    for (long f : added) {
+      assertTrue(fs.contains(f));
+    }
+  }
+
+  @Test
+  public void concurrentAdds() throws InterruptedException {
+    final int numThreads = 8, perThread = 50_000;
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      // Every thread adds the same fingerprints; each one should only be new once
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int i = 0; i < perThread; i++) {
+                  fs.add(Fingerprints.mix(i));
+                }
+              });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(perThread, fs.size());
+  }
+}
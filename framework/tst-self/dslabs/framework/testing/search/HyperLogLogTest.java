@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dslabs.framework.testing.search;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+  @Test
+  public void emptySketchEstimatesZero() {
+    assertEquals(0, new HyperLogLog().estimate(), 0);
+  }
+
+  @Test
+  public void smallCountsAreAccurate() {
+    final HyperLogLog sketch = new HyperLogLog();
+    for (int i = 0; i < 100; i++) {
+      sketch.add(i);
+      sketch.add(i);
+    }
+    assertEquals(100, sketch.estimate(), 2);
+  }
+
+  @Test
+  public void largeCountsAreApproximate() {
+    final HyperLogLog sketch = new HyperLogLog();
+    final int n = 1_000_000;
+    for (int i = 0; i < n; i++) {
+      sketch.add(i);
+    }
+    for (int i = 0; i < n; i += 2) {
+      sketch.add(i);
+    }
+    assertEquals(n, sketch.estimate(), n * 0.05);
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.distractor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.Node;
+import dslabs.framework.testing.StatePredicate;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalPredicatesTest {
+  private static final AtomicInteger evaluations = new AtomicInteger();
+
+  private static final StatePredicate DISTRACTOR_PRESENT =
+      statePredicate(
+          "Distractor present",
+          s -> {
+            evaluations.incrementAndGet();
+            return s.server(distractor) != null;
+          });
+
+  private SearchState initialState;
+
+  @Before
+  public void setup() {
+    evaluations.set(0);
+    initialState = climberState();
+  }
+
+  @Test
+  public void undeclaredPredicateEvaluatedOnEveryState() {
+    final SearchSettings settings = new SearchSettings();
+    settings.addInvariant(DISTRACTOR_PRESENT).maxDepth(3).singleThreaded(true);
+
+    final SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+    assertTrue(evaluations.get() > 1);
+  }
+
+  @Test
+  public void predicateNotReadingSteppedNodeIsReused() {
+    // Every event is delivered to the climber, so the invariant only needs evaluating once
+    final SearchSettings settings = new SearchSettings();
+    settings
+        .addInvariant(DISTRACTOR_PRESENT.readsOnly(distractor))
+        .maxDepth(3)
+        .singleThreaded(true);
+
+    final SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+    assertEquals(1, evaluations.get());
+  }
+
+  @Test
+  public void predicateReadingSteppedNodeIsEvaluated() {
+    final SearchSettings settings = new SearchSettings();
+    settings
+        .addGoal(
+            statePredicate("Climbed twice", s -> ((Climber) s.server(climber)).height() >= 2)
+                .readsOnly(climber))
+        .maxDepth(3)
+        .singleThreaded(true);
+
+    final SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+    assertEquals(2, results.goalMatchingState().depth());
+  }
+
+  @Test
+  public void combinedPredicatesReadBothParts() {
+    final Node climberNode = new Climber();
+    final StatePredicate readsDistractor = DISTRACTOR_PRESENT.readsOnly(distractor);
+    final StatePredicate readsClimbers = DISTRACTOR_PRESENT.readsOnlyNodesOfType(Climber.class);
+
+    assertTrue(DISTRACTOR_PRESENT.reads(climber, climberNode));
+    assertFalse(readsDistractor.reads(climber, climberNode));
+    assertFalse(readsDistractor.negate().reads(climber, climberNode));
+    assertTrue(readsClimbers.reads(climber, climberNode));
+    assertTrue(readsDistractor.and(readsClimbers).reads(climber, climberNode));
+    assertTrue(readsDistractor.or(DISTRACTOR_PRESENT).reads(climber, climberNode));
+    assertFalse(readsDistractor.implies(readsDistractor).reads(climber, climberNode));
+  }
+}
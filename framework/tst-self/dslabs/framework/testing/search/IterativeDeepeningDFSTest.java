@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.exceptionState;
+import static dslabs.framework.testing.search.SearchTestNodes.stepper;
+import static dslabs.framework.testing.search.SearchTestNodes.stepperAt;
+import static dslabs.framework.testing.search.SearchTestNodes.stepperState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import dslabs.framework.testing.search.SearchSettings.VisitedStates;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+
+public class IterativeDeepeningDFSTest {
+  @Test(timeout = 30000)
+  public void findsShortestExceptionTrace() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxTimeSecs(20);
+
+    final SearchResults results = Search.iterativeDeepening(exceptionState(), settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    final SearchState s = results.exceptionalState();
+    assertNotNull(s);
+    assertEquals(2, s.depth());
+  }
+
+  @Test(timeout = 30000)
+  public void findsShallowestGoal() {
+    for (VisitedStates visitedStates : VisitedStates.values()) {
+      final SearchSettings settings = new SearchSettings();
+      settings
+          .addGoal(
+              statePredicate("Climber climbed", s -> ((Climber) s.server(climber)).height() >= 4))
+          .visitedStates(visitedStates)
+          .maxTimeSecs(20);
+
+      final SearchResults results = Search.iterativeDeepening(climberState(), settings);
+      assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+      assertEquals(4, results.goalMatchingState().depth());
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void exhaustsDepthLimitedSpace() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(5).maxTimeSecs(20);
+
+    final SearchResults results = Search.iterativeDeepening(climberState(), settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+  }
+
+  @Test(timeout = 30000)
+  public void exhaustsCyclicSpace() {
+    // Every state has a self-loop, and the chain loops back to the initial state
+    for (int shortcut = 0; shortcut < 2; shortcut++) {
+      for (VisitedStates visitedStates : VisitedStates.values()) {
+        final Set<Integer> positions = ConcurrentHashMap.newKeySet();
+        final SearchSettings settings = new SearchSettings();
+        settings
+            .addInvariant(
+                statePredicate(
+                    "Records positions",
+                    s -> {
+                      positions.add(((Stepper) s.server(stepper)).position());
+                      return true;
+                    }))
+            .visitedStates(visitedStates)
+            .maxTimeSecs(20);
+
+        final SearchResults results = Search.iterativeDeepening(stepperState(shortcut), settings);
+        assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+        // Every position on the chain, plus the middle of the shortcut
+        assertEquals(Stepper.POSITIONS + 1, positions.size());
+      }
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void exhaustsDepthLimitedCyclicSpace() {
+    for (int shortcut = 0; shortcut < 2; shortcut++) {
+      final SearchSettings settings = new SearchSettings();
+      settings.maxDepth(3).maxTimeSecs(20);
+
+      final SearchResults results = Search.iterativeDeepening(stepperState(shortcut), settings);
+      assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void findsGoalWithinDepthLimitInCyclicSpace() {
+    for (int shortcut = 0; shortcut < 2; shortcut++) {
+      final SearchSettings settings = new SearchSettings();
+      settings
+          .addGoal(stepperAt(Stepper.POSITIONS - 1))
+          .maxDepth(Stepper.POSITIONS - 2)
+          .maxTimeSecs(20);
+
+      final SearchResults results = Search.iterativeDeepening(stepperState(shortcut), settings);
+      assertEquals(EndCondition.GOAL_FOUND, results.endCondition());
+      assertEquals(Stepper.POSITIONS - 2, results.goalMatchingState().depth());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.gen;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.Lists;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelBFSTest {
+  private SearchState initialState;
+  private SearchSettings settings;
+
+  @Before
+  public void setup() {
+    initialState = new SearchState(gen);
+    initialState.addServer(a);
+    initialState.addServer(b);
+
+    settings = new SearchSettings();
+    settings.workStealingBFS(true).numThreads(4).outputFreqSecs(-1);
+  }
+
+  @Test
+  public void findsShallowestException() {
+    for (int i = 0; i < 20; i++) {
+      SearchResults results = Search.bfs(initialState, settings);
+      assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+      assertNotNull(results.exceptionalState());
+      assertEquals(2, results.exceptionalState().depth());
+    }
+  }
+
+  @Test
+  public void usesWorkStealingEngine() {
+    assertEquals("level-synchronous breadth-first", Search.bfs(initialState, settings).strategy());
+  }
+
+  @Test
+  public void spillingFallsBackToDefaultEngine() {
+    settings.frontierSpillThreshold(1);
+    SearchResults results = Search.bfs(initialState, settings);
+    assertEquals("breadth-first", results.strategy());
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    assertEquals(2, results.exceptionalState().depth());
+  }
+
+  @Test
+  public void exhaustsDepthLimitedSpace() {
+    settings.maxDepth(1);
+    SearchResults results = Search.bfs(initialState, settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+  }
+
+  @Test
+  public void replayTracesReportsFullTrace() {
+    settings.replayTraces(true);
+    for (boolean workStealing : new boolean[] {true, false}) {
+      settings.workStealingBFS(workStealing);
+      final SearchState end = Search.bfs(initialState, settings).exceptionalState();
+      assertNotNull(end);
+
+      final List<SearchState> trace = Lists.newArrayList(end.trace());
+      assertEquals(3, trace.size());
+      assertEquals(initialState, trace.get(0));
+      assertSame(end, trace.get(2));
+
+      // Stepping the trace's events from the initial state reproduces it
+      SearchState replayed = initialState;
+      for (SearchState s : trace.subList(1, trace.size())) {
+        replayed = replayed.stepEvent(s.previousEvent(), null, true);
+        assertEquals(s, replayed);
+      }
+      assertNotNull(replayed.thrownException());
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.exceptionState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import org.junit.Test;
+
+public class PortfolioTest {
+  @Test(timeout = 30000)
+  public void portfolioFindsException() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxTimeSecs(20);
+
+    final SearchResults results = Search.portfolio(exceptionState(), settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    assertNotNull(results.exceptionalState());
+    assertNotNull(results.strategy());
+  }
+
+  @Test(timeout = 30000)
+  public void exhaustedSpaceCancelsRandomSearch() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(3).maxTimeSecs(20);
+
+    final long start = System.currentTimeMillis();
+    final SearchResults results = Search.portfolio(climberState(), settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+    assertEquals("breadth-first", results.strategy());
+
+    // The random search would otherwise run until the time limit
+    assertTrue(System.currentTimeMillis() - start < 15000);
+  }
+
+  @Test
+  public void strategyRecordedForSingleSearch() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(2);
+    assertEquals("breadth-first", Search.bfs(climberState(), settings).strategy());
+  }
+}
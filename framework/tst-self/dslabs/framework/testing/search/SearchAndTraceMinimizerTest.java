@@ -22,6 +22,12 @@
 
 package dslabs.framework.testing.search;
 
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.distractor;
+import static dslabs.framework.testing.search.SearchTestNodes.exceptionState;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -29,22 +35,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import dslabs.framework.Address;
 import dslabs.framework.Message;
-import dslabs.framework.Node;
-import dslabs.framework.testing.LocalAddress;
 import dslabs.framework.testing.MessageEnvelope;
-import dslabs.framework.testing.NodeGenerator;
 import dslabs.framework.testing.StatePredicate;
 import dslabs.framework.testing.StatePredicate.PredicateResult;
-import dslabs.framework.testing.Workload;
 import dslabs.framework.testing.search.SearchResults.EndCondition;
 import java.util.logging.Handler;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
 import lombok.extern.java.Log;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.tuple.Pair;
@@ -54,22 +52,11 @@ import org.junit.Test;
 
 @Log
 public class SearchAndTraceMinimizerTest {
-  static final Address a = new LocalAddress("a"), b = new LocalAddress("b");
-
-  static final NodeGenerator gen =
-      NodeGenerator.builder()
-          .serverSupplier(address -> address.equals(a) ? new A() : new B())
-          .clientSupplier(() -> null)
-          .workloadSupplier((Workload) null)
-          .build();
-
   private SearchState initSearchState;
 
   @Before
   public void setupSearchTest() {
-    initSearchState = new SearchState(gen);
-    initSearchState.addServer(a);
-    initSearchState.addServer(b);
+    initSearchState = exceptionState();
   }
 
   @After
@@ -170,6 +157,34 @@ public class SearchAndTraceMinimizerTest {
     assertEquals(2, minimized.depth());
   }
 
+  @Test
+  public void testMinimizeLongTraceInParallel() {
+    SearchState s = climberState();
+
+    // Three climbs hidden among many distractions
+    for (int i = 0; i < 60; i++) {
+      final Message m = i % 20 == 19 ? new Climb() : new Distraction(i % 4);
+      s = s.stepMessage(new MessageEnvelope(distractor, climber, m), null, false);
+      assertNotNull(s);
+    }
+    assertEquals(60, s.depth());
+
+    final StatePredicate lowClimber =
+        StatePredicate.statePredicate(
+            "Climber is low", st -> ((Climber) st.server(climber)).height() < 3);
+    final PredicateResult r = lowClimber.test(s);
+    assertEquals(false, r.value());
+
+    final SearchState sequential = TraceMinimizer.minimizeTrace(s, r, 1);
+    final SearchState parallel = TraceMinimizer.minimizeTrace(s, r, 4);
+    assertEquals(3, sequential.depth());
+    assertEquals(3, parallel.depth());
+    assertEquals(sequential, parallel);
+    for (SearchState st = parallel; st.previous() != null; st = st.previous()) {
+      assertEquals(new Climb(), ((MessageEnvelope) st.previousEvent()).message());
+    }
+  }
+
   private final MessageEnvelope[] trace =
       new MessageEnvelope[] {
         new MessageEnvelope(a, b, new Foo()),
@@ -427,52 +442,6 @@ public class SearchAndTraceMinimizerTest {
   }
 }
 
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
-class A extends Node {
-  protected A() {
-    super(SearchAndTraceMinimizerTest.a);
-  }
-
-  @Override
-  public void init() {
-    send(new Foo(), SearchAndTraceMinimizerTest.b);
-    send(new Foo(), SearchAndTraceMinimizerTest.b);
-  }
-
-  void handleFoo(Foo foo, Address sender) {
-    throw new RuntimeException();
-  }
-
-  boolean foo = false;
-
-  void handleBar(Bar bar, Address sender) {
-    foo = true;
-  }
-}
-
-@EqualsAndHashCode(callSuper = true)
-@ToString(callSuper = true)
-class B extends Node {
-  protected B() {
-    super(SearchAndTraceMinimizerTest.b);
-  }
-
-  @Override
-  public void init() {}
-
-  void handleFoo(Foo foo, Address sender) {
-    send(foo, sender);
-    send(new Bar(), sender);
-  }
-}
-
-@Data
-class Foo implements Message {}
-
-@Data
-class Bar implements Message {}
-
 class ReplaySearch extends Search {
   private SearchState initialState;
   private final MessageEnvelope[] trace;
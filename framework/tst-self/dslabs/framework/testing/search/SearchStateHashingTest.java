@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.counterState;
+import static dslabs.framework.testing.search.SearchTestNodes.exceptionState;
+import static dslabs.framework.testing.search.SearchTestNodes.x;
+import static dslabs.framework.testing.search.SearchTestNodes.y;
+import static dslabs.framework.testing.search.SearchTestNodes.z;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import dslabs.framework.Address;
+import dslabs.framework.Node;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import dslabs.framework.testing.search.SearchSettings.VisitedStates;
+import dslabs.framework.testing.utils.Cloning;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchStateHashingTest {
+  private SearchState initialState;
+
+  @Before
+  public void setup() {
+    initialState = counterState();
+  }
+
+  private static SearchState ping(SearchState s, Address from, Address to) {
+    return s.stepMessage(new MessageEnvelope(from, to, new Ping()), null, true);
+  }
+
+  /** A deserialized copy has no predecessor, so its hashes are computed from scratch. */
+  private static void assertHashedLikeCopy(SearchState s) {
+    final SearchState copy = Cloning.deserialize(Cloning.serialize(s));
+    assertEquals(copy, s);
+    assertEquals(copy.hashCode(), s.hashCode());
+    assertEquals(copy.fingerprint(), s.fingerprint());
+    assertEquals(copy.wrapped(), s.wrapped());
+    assertEquals(copy.wrapped().hashCode(), s.wrapped().hashCode());
+  }
+
+  @Test
+  public void incrementalHashesMatch() {
+    int unused = initialState.hashCode();
+    SearchState s = initialState;
+    final Address[] order = {x, y, z, x, x, z};
+    for (int i = 0; i < order.length; i++) {
+      s = ping(s, order[(i + 1) % order.length], order[i]);
+      assertHashedLikeCopy(s);
+    }
+  }
+
+  @Test
+  public void modificationsInvalidateHashes() {
+    SearchState s = ping(ping(initialState, x, y), y, z);
+    final int hashCode = s.hashCode();
+    final long fingerprint = s.fingerprint();
+
+    s.dropPendingMessages();
+    assertHashedLikeCopy(s);
+    assertEquals(hashCode, s.hashCode());
+    assertNotEquals(fingerprint, s.fingerprint());
+
+    s = ping(s, z, x);
+    assertHashedLikeCopy(s);
+
+    s.undropMessages();
+    assertHashedLikeCopy(s);
+  }
+
+  @Test
+  public void internedNodesAreShared() {
+    final Interner<Node> interner = Interners.newWeakInterner();
+
+    SearchState s1 = ping(initialState, x, y);
+    s1.internSteppedNode(interner);
+    s1 = ping(s1, x, z);
+    s1.internSteppedNode(interner);
+
+    SearchState s2 = ping(initialState, x, z);
+    s2.internSteppedNode(interner);
+    int unused = s2.hashCode();
+    s2 = ping(s2, x, y);
+    assertNotSame(s1.server(y), s2.server(y));
+
+    s2.internSteppedNode(interner);
+    assertSame(s1.server(y), s2.server(y));
+    assertSame(s1.server(z), s2.server(z));
+    assertEquals(s1, s2);
+    assertHashedLikeCopy(s2);
+  }
+
+  @Test
+  public void internedNodesDoNotKeepStatesReachable() throws InterruptedException {
+    final Interner<Node> interner = Interners.newStrongInterner();
+
+    SearchState first = ping(initialState, x, y);
+    first.internSteppedNode(interner);
+    final WeakReference<SearchState> firstRef = new WeakReference<>(first);
+
+    // The node first stepped becomes canonical, and is substituted into this state
+    final SearchState second = ping(initialState, x, y);
+    second.internSteppedNode(interner);
+    assertSame(first.server(y), second.server(y));
+
+    first = null;
+    awaitCollected(List.of(firstRef));
+  }
+
+  @Test
+  public void fingerprintedSearchChecksSameStates() {
+    final SearchSettings exact = new SearchSettings().maxDepth(3);
+    final Set<SearchState> exactStates = checkedStates(exact);
+    final SearchResults exactResults = Search.bfs(climberState(), exact);
+
+    final SearchSettings fingerprinted =
+        new SearchSettings().maxDepth(3).visitedStates(VisitedStates.FINGERPRINT);
+    final Set<SearchState> fingerprintedStates = checkedStates(fingerprinted);
+    final SearchResults fingerprintedResults = Search.bfs(climberState(), fingerprinted);
+
+    assertEquals(EndCondition.SPACE_EXHAUSTED, exactResults.endCondition());
+    assertEquals(EndCondition.SPACE_EXHAUSTED, fingerprintedResults.endCondition());
+    assertEquals(exactStates, fingerprintedStates);
+    assertEquals(0, exactResults.omissionProbability(), 0);
+    assertTrue(fingerprintedResults.omissionProbability() > 0);
+    assertTrue(fingerprintedResults.omissionProbability() < 1e-6);
+  }
+
+  @Test
+  public void fingerprintedSearchFindsSameException() {
+    final SearchResults exactResults = Search.bfs(exceptionState(), new SearchSettings());
+    final SearchResults fingerprintedResults =
+        Search.bfs(exceptionState(), new SearchSettings().visitedStates(VisitedStates.FINGERPRINT));
+
+    assertEquals(EndCondition.EXCEPTION_THROWN, exactResults.endCondition());
+    assertEquals(EndCondition.EXCEPTION_THROWN, fingerprintedResults.endCondition());
+    assertEquals(
+        exactResults.exceptionalState().depth(), fingerprintedResults.exceptionalState().depth());
+  }
+
+  @Test
+  public void internedSearchChecksSameStates() {
+    final SearchSettings plain = new SearchSettings().maxDepth(4);
+    final Set<SearchState> plainStates = checkedStates(plain);
+    final SearchResults plainResults = Search.bfs(climberState(), plain);
+
+    for (boolean workStealing : new boolean[] {true, false}) {
+      final SearchSettings interned =
+          new SearchSettings().maxDepth(4).internNodes(true).workStealingBFS(workStealing);
+      final Set<SearchState> internedStates = checkedStates(interned);
+      final SearchResults internedResults = Search.bfs(climberState(), interned);
+
+      assertEquals(EndCondition.SPACE_EXHAUSTED, plainResults.endCondition());
+      assertEquals(plainResults.endCondition(), internedResults.endCondition());
+      assertEquals(plainStates.size(), internedStates.size());
+      assertEquals(plainStates, internedStates);
+    }
+  }
+
+  @Test
+  public void releasedPredecessorsAreCollected() throws InterruptedException {
+    final List<WeakReference<SearchState>> released = new ArrayList<>();
+    SearchState s = initialState;
+    for (int i = 0; i < 40; i++) {
+      // Both nodes take turns stepping, so each state shares a node with its predecessors
+      final SearchState next = i % 2 == 0 ? ping(s, x, y) : ping(s, y, x);
+      next.releasePrevious();
+      if (i > 0) {
+        released.add(new WeakReference<>(s));
+      }
+      s = next;
+    }
+    assertEquals(40, s.depth());
+
+    awaitCollected(released);
+    // The history still replays
+    assertEquals(s, s.history().replay());
+  }
+
+  private static void awaitCollected(List<WeakReference<SearchState>> states)
+      throws InterruptedException {
+    for (int i = 0; i < 50 && states.stream().anyMatch(r -> r.get() != null); i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    for (WeakReference<SearchState> r : states) {
+      assertNull(r.get());
+    }
+  }
+
+  private static Set<SearchState> checkedStates(SearchSettings settings) {
+    final Set<SearchState> checked = ConcurrentHashMap.newKeySet();
+    settings.addInvariant(
+        statePredicate(
+            "Records checked states",
+            s -> {
+              checked.add((SearchState) s);
+              return true;
+            }));
+    return checked;
+  }
+}
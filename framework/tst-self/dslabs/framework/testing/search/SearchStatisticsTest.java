@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.testing.search.SearchStatistics.DepthStatistics;
+import java.util.List;
+import org.junit.Test;
+
+public class SearchStatisticsTest {
+  @Test
+  public void bfsRecordsPerDepthCounters() throws Exception {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(3).singleThreaded(true);
+
+    final SearchStatistics statistics = Search.bfs(climberState(), settings).statistics();
+    final List<DepthStatistics> depths = statistics.depths();
+
+    // The initial state has five messages in its network; delivering any two in either order
+    // reaches the same state
+    assertEquals(0, depths.get(0).depth());
+    assertEquals(1, depths.get(0).expanded());
+    assertEquals(1, depths.get(1).depth());
+    assertEquals(5, depths.get(1).generated());
+    assertEquals(0, depths.get(1).duplicates());
+    assertEquals(5, depths.get(1).expanded());
+    assertEquals(5.0, depths.get(1).branchingFactor(depths.get(0)), 0);
+    assertEquals(25, depths.get(2).generated());
+    assertEquals(10, depths.get(2).duplicates());
+    assertEquals(0.4, depths.get(2).duplicateRate(), 1e-9);
+
+    assertTrue(statistics.cloningSecs() > 0);
+    assertTrue(statistics.handlerSecs() > 0);
+    assertTrue(statistics.hashingSecs() > 0);
+    assertFalse(statistics.frontier().isEmpty());
+
+    final String json = statistics.toJson();
+    assertTrue(json.contains("\"branchingFactor\""));
+    assertTrue(json.contains("\"duplicateRate\""));
+  }
+}
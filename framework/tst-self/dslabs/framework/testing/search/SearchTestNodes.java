@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+
+import dslabs.framework.Address;
+import dslabs.framework.Message;
+import dslabs.framework.Node;
+import dslabs.framework.testing.LocalAddress;
+import dslabs.framework.testing.NodeGenerator;
+import dslabs.framework.testing.StatePredicate;
+import dslabs.framework.testing.Workload;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/** Nodes and initial states shared by the search tests. */
+final class SearchTestNodes {
+  private SearchTestNodes() {}
+
+  static final Address a = new LocalAddress("a"), b = new LocalAddress("b");
+
+  static final NodeGenerator gen =
+      NodeGenerator.builder()
+          .serverSupplier(address -> address.equals(a) ? new A() : new B())
+          .clientSupplier(() -> null)
+          .workloadSupplier((Workload) null)
+          .build();
+
+  /** Nodes a and b, before any messages are delivered; delivering a Foo to a throws. */
+  static SearchState exceptionState() {
+    SearchState s = new SearchState(gen);
+    s.addServer(a);
+    s.addServer(b);
+    return s;
+  }
+
+  static final Address climber = new LocalAddress("climber"),
+      distractor = new LocalAddress("distractor");
+
+  private static final NodeGenerator climberGen =
+      NodeGenerator.builder()
+          .serverSupplier(address -> address.equals(climber) ? new Climber() : new Distractor())
+          .clientSupplier(() -> null)
+          .workloadSupplier((Workload) null)
+          .build();
+
+  /** The climber and distractor, before any messages are delivered. */
+  static SearchState climberState() {
+    SearchState s = new SearchState(climberGen);
+    s.addServer(climber);
+    s.addServer(distractor);
+    return s;
+  }
+
+  static final Address stepper = new LocalAddress("stepper");
+
+  /**
+   * A cyclic chain of positions, with a shortcut from the start. One of the two steps moves along
+   * the chain, the other only takes the shortcut. Which one is the shortcut determines the order in
+   * which searches try the two ways out of the start.
+   */
+  static SearchState stepperState(int shortcut) {
+    final NodeGenerator gen =
+        NodeGenerator.builder()
+            .serverSupplier(address -> new Stepper(shortcut))
+            .clientSupplier(() -> null)
+            .workloadSupplier((Workload) null)
+            .build();
+    SearchState s = new SearchState(gen);
+    s.addServer(stepper);
+    return s;
+  }
+
+  static StatePredicate stepperAt(int position) {
+    return statePredicate(
+        "Stepper at " + position, s -> ((Stepper) s.server(stepper)).position() == position);
+  }
+
+  static final Address x = new LocalAddress("x"),
+      y = new LocalAddress("y"),
+      z = new LocalAddress("z");
+
+  private static final NodeGenerator counterGen =
+      NodeGenerator.builder()
+          .serverSupplier(Counter::new)
+          .clientSupplier(() -> null)
+          .workloadSupplier((Workload) null)
+          .build();
+
+  /** Counters x, y, and z, before any pings are delivered. */
+  static SearchState counterState() {
+    SearchState s = new SearchState(counterGen);
+    s.addServer(x);
+    s.addServer(y);
+    s.addServer(z);
+    return s;
+  }
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class A extends Node {
+  protected A() {
+    super(SearchTestNodes.a);
+  }
+
+  @Override
+  public void init() {
+    send(new Foo(), SearchTestNodes.b);
+    send(new Foo(), SearchTestNodes.b);
+  }
+
+  void handleFoo(Foo foo, Address sender) {
+    throw new RuntimeException();
+  }
+
+  boolean foo = false;
+
+  void handleBar(Bar bar, Address sender) {
+    foo = true;
+  }
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class B extends Node {
+  protected B() {
+    super(SearchTestNodes.b);
+  }
+
+  @Override
+  public void init() {}
+
+  void handleFoo(Foo foo, Address sender) {
+    send(foo, sender);
+    send(new Bar(), sender);
+  }
+}
+
+@Data
+class Foo implements Message {}
+
+@Data
+class Bar implements Message {}
+
+@Data
+class Climb implements Message {}
+
+@Data
+class Distraction implements Message {
+  private final int id;
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Climber extends Node {
+  private int height = 0;
+  private final int[] distractions = new int[4];
+
+  Climber() {
+    super(SearchTestNodes.climber);
+  }
+
+  @Override
+  public void init() {}
+
+  int height() {
+    return height;
+  }
+
+  void handleClimb(Climb m, Address sender) {
+    height++;
+  }
+
+  void handleDistraction(Distraction m, Address sender) {
+    distractions[m.id()]++;
+  }
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Distractor extends Node {
+  Distractor() {
+    super(SearchTestNodes.distractor);
+  }
+
+  @Override
+  public void init() {
+    send(new Climb(), SearchTestNodes.climber);
+    for (int i = 0; i < 4; i++) {
+      send(new Distraction(i), SearchTestNodes.climber);
+    }
+  }
+}
+
+@Data
+class Step implements Message {
+  private final int id;
+}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Stepper extends Node {
+  static final int POSITIONS = 8;
+  static final int SHORTCUT = -1;
+
+  private final int shortcut;
+  private int position = 0;
+
+  Stepper(int shortcut) {
+    super(SearchTestNodes.stepper);
+    this.shortcut = shortcut;
+  }
+
+  @Override
+  public void init() {
+    send(new Step(0), SearchTestNodes.stepper);
+    send(new Step(1), SearchTestNodes.stepper);
+  }
+
+  int position() {
+    return position;
+  }
+
+  void handleStep(Step m, Address sender) {
+    if (m.id() != shortcut) {
+      if (position != SHORTCUT) {
+        position = (position + 1) % POSITIONS;
+      }
+    } else if (position == 0) {
+      position = SHORTCUT;
+    } else if (position == SHORTCUT) {
+      position = 3;
+    }
+  }
+}
+
+@Data
+class Ping implements Message {}
+
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+class Counter extends Node {
+  private int pings = 0;
+
+  Counter(Address address) {
+    super(address);
+  }
+
+  @Override
+  public void init() {}
+
+  void handlePing(Ping ping, Address sender) {
+    pings++;
+    send(new Pong(), sender);
+  }
+}
+
+@Data
+class Pong implements Message {}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.StatePredicate.statePredicate;
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.climber;
+import static dslabs.framework.testing.search.SearchTestNodes.climberState;
+import static dslabs.framework.testing.search.SearchTestNodes.gen;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.StatePredicate;
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import dslabs.framework.testing.search.SleepSets.Discovery;
+import dslabs.framework.testing.search.SleepSets.Expansion;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SleepSetsTest {
+  private final Event toA = new MessageEnvelope(b, a, new Foo()),
+      toB = new MessageEnvelope(a, b, new Foo());
+
+  private SearchState state;
+  private SleepSets sleepSets;
+
+  @Before
+  public void setup() {
+    state = new SearchState(gen);
+    state.addServer(a);
+    state.addServer(b);
+    sleepSets = new SleepSets(DiscoveredStates.create(new SearchSettings()));
+  }
+
+  @Test
+  public void sleepingEventsAreSkipped() {
+    assertEquals(Discovery.NEW, sleepSets.discover(state, Set.of(toA)));
+    Expansion expansion = sleepSets.expand(state);
+    assertFalse(expansion.shouldExplore(toA));
+    assertTrue(expansion.shouldExplore(toB));
+
+    // Only independent events are inherited by successors
+    expansion.explored(toB);
+    assertEquals(Set.of(toA), expansion.successorSleepSet(new MessageEnvelope(a, b, new Bar())));
+    assertEquals(Set.of(toB), expansion.successorSleepSet(new MessageEnvelope(b, a, new Bar())));
+  }
+
+  @Test
+  public void sleepSetsIntersectBeforeExpansion() {
+    assertEquals(Discovery.NEW, sleepSets.discover(state, Set.of(toA, toB)));
+    assertEquals(Discovery.DUPLICATE, sleepSets.discover(state.clone(), Set.of(toA)));
+
+    Expansion expansion = sleepSets.expand(state);
+    assertFalse(expansion.shouldExplore(toA));
+    assertTrue(expansion.shouldExplore(toB));
+  }
+
+  @Test
+  public void skippedEventsAreReexplored() {
+    assertEquals(Discovery.NEW, sleepSets.discover(state, Set.of(toA, toB)));
+    sleepSets.expand(state);
+
+    assertEquals(Discovery.REEXPLORE, sleepSets.discover(state.clone(), Set.of(toA)));
+    // Already queued for re-expansion
+    assertEquals(Discovery.DUPLICATE, sleepSets.discover(state.clone(), Set.of()));
+
+    Expansion expansion = sleepSets.expand(state);
+    assertTrue(expansion.shouldExplore(toA));
+    assertTrue(expansion.shouldExplore(toB));
+    assertFalse(expansion.shouldExplore(new MessageEnvelope(a, b, new Bar())));
+
+    assertEquals(Discovery.DUPLICATE, sleepSets.discover(state.clone(), Set.of()));
+  }
+
+  @Test
+  public void reducedSearchFindsSameException() {
+    final SearchResults plain = Search.bfs(state, new SearchSettings());
+    final SearchResults reduced =
+        Search.bfs(state, new SearchSettings().partialOrderReduction(true));
+    assertEquals(EndCondition.EXCEPTION_THROWN, plain.endCondition());
+    assertEquals(plain.endCondition(), reduced.endCondition());
+    assertEquals(plain.exceptionalState().depth(), reduced.exceptionalState().depth());
+  }
+
+  @Test
+  public void reducedSearchFindsSameViolation() {
+    final SearchState climbing = climberState();
+    final StatePredicate low =
+        statePredicate("Climber is low", s -> ((Climber) s.server(climber)).height() < 2);
+
+    final SearchResults plain = Search.bfs(climbing, new SearchSettings().addInvariant(low));
+    final SearchResults reduced =
+        Search.bfs(climbing, new SearchSettings().addInvariant(low).partialOrderReduction(true));
+    assertEquals(EndCondition.INVARIANT_VIOLATED, plain.endCondition());
+    assertEquals(plain.endCondition(), reduced.endCondition());
+    assertEquals(2, plain.invariantViolatingState().depth());
+    assertEquals(2, reduced.invariantViolatingState().depth());
+  }
+
+  @Test
+  public void reducedSearchChecksSameStates() {
+    final SearchSettings settings = new SearchSettings().maxDepth(4);
+    final Set<SearchState> plain = checkedStates(settings),
+        reduced = checkedStates(settings.clone().partialOrderReduction(true));
+    assertEquals(126, plain.size());
+    assertEquals(plain, reduced);
+  }
+
+  private static Set<SearchState> checkedStates(SearchSettings settings) {
+    final Set<SearchState> checked = ConcurrentHashMap.newKeySet();
+    settings.addInvariant(
+        statePredicate(
+            "Records checked states",
+            s -> {
+              checked.add((SearchState) s);
+              return true;
+            }));
+    final SearchResults results = Search.bfs(climberState(), settings);
+    assertEquals(EndCondition.SPACE_EXHAUSTED, results.endCondition());
+    return checked;
+  }
+}
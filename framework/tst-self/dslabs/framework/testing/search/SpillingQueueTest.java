@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.gen;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+import dslabs.framework.testing.MessageEnvelope;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SpillingQueueTest {
+  private static List<SearchState> chain(int length) {
+    SearchState s = new SearchState(gen);
+    s.addServer(a);
+    s.addServer(b);
+
+    List<SearchState> states = new ArrayList<>();
+    states.add(s);
+    for (int i = 1; i < length; i++) {
+      s = s.stepMessage(new MessageEnvelope(a, b, new Foo()), null, false);
+      states.add(s);
+    }
+    return states;
+  }
+
+  @Test
+  public void fifoAcrossSpills() {
+    final List<SearchState> states = chain(50);
+    final SpillingQueue queue = new SpillingQueue(4);
+
+    for (SearchState s : states.subList(0, 30)) {
+      queue.add(s);
+    }
+    assertTrue(queue.numSpilled() > 0);
+    assertEquals(30, queue.size());
+
+    // Interleave polls and offers
+    for (int i = 0; i < 10; i++) {
+      assertEquals(states.get(i), queue.poll());
+      queue.add(states.get(30 + i));
+    }
+    for (int i = 40; i < 50; i++) {
+      queue.add(states.get(i));
+    }
+
+    for (int i = 10; i < 50; i++) {
+      final SearchState expected = states.get(i);
+      final SearchState actual = queue.poll();
+      assertEquals(expected, actual);
+      assertEquals(expected.depth(), actual.depth());
+      assertEquals(expected.previousEvent(), actual.previousEvent());
+      assertEquals(expected.newMessages(), actual.newMessages());
+      assertSame(expected.previous(), actual.previous());
+    }
+
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+    queue.close();
+  }
+
+  @Test
+  public void restoredStatesCanBeStepped() {
+    final List<SearchState> states = chain(3);
+    final SpillingQueue queue = new SpillingQueue(0);
+    queue.addAll(states);
+    assertEquals(3, queue.numSpilled());
+
+    // The initial state has no predecessor and is kept in memory as-is
+    assertSame(states.get(0), queue.poll());
+
+    final MessageEnvelope foo = new MessageEnvelope(a, b, new Foo());
+    for (int i = 1; i < 3; i++) {
+      final SearchState restored = queue.poll();
+      assertEquals(
+          states.get(i).stepMessage(foo, null, false), restored.stepMessage(foo, null, false));
+    }
+    queue.close();
+  }
+
+  @Test
+  public void releasedStatesReplayTheirTraces() {
+    final List<SearchState> states = chain(5);
+    for (SearchState s : states) {
+      s.releasePrevious();
+    }
+    assertNull(states.get(4).retainedPrevious());
+    assertEquals(states.get(3), states.get(4).previous());
+    assertNotSame(states.get(3), states.get(4).previous());
+
+    final SpillingQueue queue = new SpillingQueue(0);
+    queue.addAll(states);
+    for (int i = 0; i < 4; i++) {
+      queue.poll();
+    }
+
+    final SearchState restored = queue.poll();
+    assertEquals(states.get(4), restored);
+    assertEquals(Lists.newArrayList(states), Lists.newArrayList(restored.trace()));
+    queue.close();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.a;
+import static dslabs.framework.testing.search.SearchTestNodes.b;
+import static dslabs.framework.testing.search.SearchTestNodes.gen;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.testing.search.SearchResults.EndCondition;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SwarmDFSTest {
+  private SearchState initialState;
+
+  @Before
+  public void setup() {
+    initialState = new SearchState(gen);
+    initialState.addServer(a);
+    initialState.addServer(b);
+  }
+
+  @Test(timeout = 30000)
+  public void swarmFindsExceptionAndReportsPopulation() {
+    final SearchSettings settings = new SearchSettings();
+    settings.swarmPopulations(8).maxDepth(10).maxTimeSecs(20);
+
+    final SearchResults results = Search.dfs(initialState, settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    final SearchState s = results.exceptionalState();
+    assertNotNull(s);
+    assertEquals(2, s.depth());
+
+    assertFalse(results.swarmFindings().isEmpty());
+    for (String finding : results.swarmFindings()) {
+      assertTrue(finding.startsWith("population "));
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void uniformSearchReportsNoPopulations() {
+    final SearchSettings settings = new SearchSettings();
+    settings.maxDepth(10).maxTimeSecs(20);
+
+    final SearchResults results = Search.dfs(initialState, settings);
+    assertEquals(EndCondition.EXCEPTION_THROWN, results.endCondition());
+    assertTrue(results.swarmFindings().isEmpty());
+  }
+}
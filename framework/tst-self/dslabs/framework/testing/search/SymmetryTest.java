@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchTestNodes.counterState;
+import static dslabs.framework.testing.search.SearchTestNodes.x;
+import static dslabs.framework.testing.search.SearchTestNodes.y;
+import static dslabs.framework.testing.search.SearchTestNodes.z;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import dslabs.framework.Address;
+import dslabs.framework.testing.MessageEnvelope;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SymmetryTest {
+  private SearchState initialState;
+
+  @Before
+  public void setup() {
+    initialState = counterState();
+  }
+
+  private SearchState ping(SearchState s, Address from, Address to) {
+    return s.stepMessage(new MessageEnvelope(from, to, new Ping()), null, true);
+  }
+
+  @Test
+  public void permutedStatesShareRepresentative() {
+    final Symmetry symmetry = new Symmetry(List.of(List.of(x, y)));
+
+    // Addresses inside the nodes and in the network are permuted too
+    final SearchState s1 = ping(initialState, z, x), s2 = ping(initialState, z, y);
+    assertNotEquals(s1, s2);
+    assertEquals(symmetry.canonicalize(s1), symmetry.canonicalize(s2));
+    assertEquals(symmetry.canonicalize(s1).fingerprint(), symmetry.canonicalize(s2).fingerprint());
+
+    final SearchState s3 = ping(initialState, y, x);
+    assertNotEquals(symmetry.canonicalize(s1), symmetry.canonicalize(s3));
+  }
+
+  @Test
+  public void onlyDeclaredAddressesArePermuted() {
+    final Symmetry symmetry = new Symmetry(List.of(List.of(x, y)));
+    assertNotEquals(
+        symmetry.canonicalize(ping(initialState, x, z)),
+        symmetry.canonicalize(ping(initialState, x, y)));
+  }
+
+  @Test
+  public void discoveredStatesUseSymmetry() {
+    final SearchSettings settings = new SearchSettings().addSymmetryGroup(x, y, z);
+    final DiscoveredStates discovered = DiscoveredStates.create(settings);
+
+    assertTrue(discovered.add(ping(initialState, x, y)));
+    assertFalse(discovered.add(ping(initialState, z, x)));
+    assertFalse(discovered.add(ping(initialState, y, z)));
+    assertTrue(discovered.add(ping(ping(initialState, y, z), y, z)));
+    assertEquals(2, discovered.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void overlappingGroupsRejected() {
+    new Symmetry(List.of(List.of(x, y), List.of(y, z)));
+  }
+}
@@ -173,4 +173,52 @@ public class TimerQueueTest {
       }
     }
   }
+
+  @Test
+  public void copiesAreIndependent() {
+    tq.add(te(1, 1));
+    final TimerQueue copy = new TimerQueue(tq);
+    assertEquals(tq, copy);
+
+    copy.add(te(2, 3));
+    tq.remove(te(1, 1));
+
+    assertFalse(tq.iterator().hasNext());
+    assertTrue(copy.isDeliverable(te(1, 1)));
+    assertFalse(copy.isDeliverable(te(2, 3)));
+    assertNotEquals(tq, copy);
+  }
+
+  @Test
+  public void removeByIndexUpdatesDeliverability() {
+    tq.add(te(1, 2));
+    tq.add(te(2, 1));
+    tq.add(te(3, 2));
+    assertDeliverable(te(1, 2), te(2, 1));
+    assertNotDeliverable(te(3, 2));
+
+    final int index = tq.indexOf(te(2, 1));
+    assertEquals(1, index);
+    assertTrue(tq.isDeliverable(index));
+    tq.remove(index);
+
+    assertEquals(-1, tq.indexOf(te(2, 1)));
+    assertDeliverable(te(1, 2));
+    assertNotDeliverable(te(3, 2));
+  }
+
+  @Test
+  public void cachedHashMatchesRecomputed() {
+    for (int i = 0; i < 10; i++) {
+      tq.add(te(i, i % 3 + 1));
+      final int cached = tq.hashCode();
+
+      final TimerQueue fresh = new TimerQueue();
+      for (TimerEnvelope t : tq) {
+        fresh.add(t);
+      }
+      assertEquals(fresh.hashCode(), cached);
+      assertEquals(fresh, tq);
+    }
+  }
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import dslabs.framework.Address;
+import dslabs.framework.Message;
+import dslabs.framework.Node;
+import dslabs.framework.Timer;
+import dslabs.framework.testing.LocalAddress;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.NodeGenerator;
+import dslabs.framework.testing.TimerEnvelope;
+import dslabs.framework.testing.Workload;
+import dslabs.framework.testing.search.SearchSettings;
+import dslabs.framework.testing.search.SearchState;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.Test;
+
+public class GeneratedClonerTest {
+  @Data
+  @AllArgsConstructor
+  private static class Example implements Serializable {
+    private final String name;
+    private final int count;
+    private final long[] values;
+    private final List<String> strings;
+    private final Map<ExampleKey, Integer> hashed;
+    private final TreeMap<String, ExampleKey> sorted;
+  }
+
+  private record ExampleKey(String key, int version) implements Serializable {}
+
+  @Data
+  private static class Cached implements Serializable {
+    private final String value;
+    @EqualsAndHashCode.Exclude private transient Object cache;
+  }
+
+  private static class TransientPrimitive implements Serializable {
+    private transient int cache;
+  }
+
+  private static class Link implements Serializable {
+    private Link next;
+    private BigInteger label;
+  }
+
+  private static class Views implements Serializable {
+    private List<String> backing;
+    private List<String> view;
+  }
+
+  private static final Address a = new LocalAddress("a"), b = new LocalAddress("b");
+
+  private record Ping(int count) implements Message {}
+
+  private record PingTimer() implements Timer {}
+
+  @EqualsAndHashCode(callSuper = true)
+  @ToString(callSuper = true)
+  static class Pinger extends Node {
+    private final List<Address> peers;
+    private final Map<Address, Integer> received = new HashMap<>();
+    private int timeouts = 0;
+
+    Pinger(Address address) {
+      super(address);
+      peers = Set.of(a, b).stream().filter(p -> !p.equals(address)).toList();
+    }
+
+    @Override
+    public void init() {
+      broadcast(new Ping(0), peers);
+      set(new PingTimer(), 10);
+    }
+
+    void handlePing(Ping m, Address sender) {
+      received.merge(sender, m.count(), Math::max);
+      if (m.count() < 2) {
+        send(new Ping(m.count() + 1), sender);
+      }
+    }
+
+    void onPingTimer(PingTimer t) {
+      timeouts++;
+      set(t, 10);
+    }
+  }
+
+  private static Example example() {
+    final Map<ExampleKey, Integer> hashed = new HashMap<>();
+    hashed.put(new ExampleKey("foo", 1), 1);
+    hashed.put(new ExampleKey("bar", 2), 2);
+    final TreeMap<String, ExampleKey> sorted = new TreeMap<>();
+    sorted.put("b", new ExampleKey("b", 2));
+    sorted.put("a", new ExampleKey("a", 1));
+    return new Example(
+        "example", 3, new long[] {1, 2, 3}, new ArrayList<>(List.of("x", "y")), hashed, sorted);
+  }
+
+  @Test
+  public void clonesEqualObjects() {
+    final Example original = example();
+    final Example clone = GeneratedCloner.deepClone(original);
+
+    assertEquals(original, clone);
+    assertNotSame(original, clone);
+    assertNotSame(original.values(), clone.values());
+    assertNotSame(original.strings(), clone.strings());
+    assertNotSame(original.hashed(), clone.hashed());
+    assertNotSame(original.sorted().get("a"), clone.sorted().get("a"));
+    assertEquals(2, (int) clone.hashed().get(new ExampleKey("bar", 2)));
+    assertEquals("a", clone.sorted().firstKey());
+
+    // Immutable objects are shared rather than copied
+    assertSame(original.name(), clone.name());
+  }
+
+  @Test
+  public void clearsTransientFields() {
+    final Cached original = new Cached("foo");
+    original.cache(new Object());
+
+    final Cached clone = GeneratedCloner.deepClone(original);
+    assertEquals(original, clone);
+    assertNull(clone.cache());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void transientPrimitiveUnsupported() {
+    GeneratedCloner.deepClone(new TransientPrimitive());
+  }
+
+  @Test
+  public void preservesAliasingAndCycles() {
+    final Link a = new Link(), b = new Link();
+    a.next = b;
+    b.next = a;
+    a.label = BigInteger.TEN;
+
+    final Link clone = GeneratedCloner.deepClone(a);
+    assertNotSame(a, clone);
+    assertNotSame(b, clone.next);
+    assertSame(clone, clone.next.next);
+    assertSame(a.label, clone.label);
+
+    final Object[] aliased = {a, a};
+    final Object[] aliasedClone = GeneratedCloner.deepClone(aliased);
+    assertNotSame(a, aliasedClone[0]);
+    assertSame(aliasedClone[0], aliasedClone[1]);
+  }
+
+  @Test
+  public void cloningUsesGeneratedClonersWhenEnabled() {
+    final boolean generatedCloners = GlobalSettings.generatedCloners();
+    GlobalSettings.generatedCloners(true);
+    try {
+      final Example original = example();
+      assertEquals(original, Cloning.clone(original));
+
+      // Unsupported classes fall back to the other strategies
+      final TransientPrimitive clone = Cloning.clone(new TransientPrimitive());
+      assertEquals(0, clone.cache);
+    } finally {
+      GlobalSettings.generatedCloners(generatedCloners);
+    }
+  }
+
+  @Test
+  public void clonesImmutableCollections() {
+    final List<Object> originals =
+        List.of(
+            List.of(),
+            List.of(new ExampleKey("foo", 1)),
+            List.of(new ExampleKey("foo", 1), new ExampleKey("bar", 2), new ExampleKey("baz", 3)),
+            Arrays.asList(new ExampleKey("foo", 1), null).stream().toList(),
+            Set.of(new ExampleKey("foo", 1)),
+            Set.of(new ExampleKey("foo", 1), new ExampleKey("bar", 2), new ExampleKey("baz", 3)),
+            Map.of(new ExampleKey("foo", 1), new ExampleKey("bar", 2)),
+            Map.of("foo", new ExampleKey("foo", 1), "bar", new ExampleKey("bar", 2)));
+    final List<Object> clones = GeneratedCloner.deepClone(originals);
+    assertEquals(originals, clones);
+    assertNotSame(((List<?>) originals.get(1)).get(0), ((List<?>) clones.get(1)).get(0));
+    assertNotSame(
+        ((Map<?, ?>) originals.get(7)).get("foo"), ((Map<?, ?>) clones.get(7)).get("foo"));
+
+    // Empty collections are stateless and shared
+    assertSame(Collections.emptyList(), GeneratedCloner.deepClone(Collections.emptyList()));
+  }
+
+  @Test
+  public void clonesUnmodifiableViews() {
+    final Views original = new Views();
+    original.backing = new ArrayList<>(List.of("foo"));
+    original.view = Collections.unmodifiableList(original.backing);
+
+    final Views clone = GeneratedCloner.deepClone(original);
+    assertEquals(original.view, clone.view);
+    assertNotSame(original.view, clone.view);
+
+    // The cloned view wraps the cloned backing list
+    clone.backing.add("bar");
+    assertEquals(List.of("foo", "bar"), clone.view);
+    assertEquals(List.of("foo"), original.view);
+  }
+
+  private static void assertClonedLikeSerialization(Node node) {
+    final Node serialized = Cloning.deserialize(Cloning.serialize(node));
+    final Node generated = GeneratedCloner.deepClone(node);
+    assertNotSame(node, generated);
+    assertEquals(serialized, generated);
+    assertEquals(serialized.hashCode(), generated.hashCode());
+  }
+
+  @Test
+  public void clonesNodesLikeSerialization() {
+    final Address client = new LocalAddress("client");
+    final SearchState initial =
+        new SearchState(
+            NodeGenerator.builder()
+                .serverSupplier(Pinger::new)
+                .clientSupplier(ClientExample::new)
+                .workloadSupplier(Workload.builder().commands(new CommandExample("c")).build())
+                .build());
+    initial.addServer(a);
+    initial.addServer(b);
+    initial.addClientWorker(client);
+
+    // Search states themselves are never cloned, but the nodes in them are on every step
+    final SearchSettings settings = new SearchSettings();
+    List<SearchState> level = List.of(initial);
+    for (int depth = 0; depth < 4; depth++) {
+      final List<SearchState> next = new ArrayList<>();
+      for (SearchState s : level) {
+        assertClonedLikeSerialization(s.server(a));
+        assertClonedLikeSerialization(s.server(b));
+        assertClonedLikeSerialization(s.clientWorker(client));
+
+        for (MessageEnvelope m : s.network()) {
+          next.add(s.stepMessage(m, settings, true));
+        }
+        for (Address address : List.of(a, b)) {
+          for (TimerEnvelope t : s.timers(address)) {
+            if (s.canStepTimer(t)) {
+              next.add(s.stepTimer(t, settings, true));
+            }
+          }
+        }
+      }
+      level = next;
+    }
+  }
+}
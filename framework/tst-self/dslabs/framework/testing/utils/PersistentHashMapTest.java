@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+  /** Forces hash collisions. */
+  private record BadHash(int value) implements Serializable {
+    @Override
+    public int hashCode() {
+      return value % 7;
+    }
+  }
+
+  @Test
+  public void matchesHashMapAcrossCopies() {
+    final Random random = new Random(0);
+    final List<PersistentHashMap<Object, Integer>> maps = new ArrayList<>();
+    final List<Map<Object, Integer>> expected = new ArrayList<>();
+    maps.add(new PersistentHashMap<>());
+    expected.add(new HashMap<>());
+
+    for (int op = 0; op < 50000; op++) {
+      final int i = random.nextInt(maps.size());
+      final PersistentHashMap<Object, Integer> map = maps.get(i);
+      final Map<Object, Integer> e = expected.get(i);
+      final Object key =
+          random.nextBoolean() ? random.nextInt(500) : new BadHash(random.nextInt(50));
+
+      switch (random.nextInt(8)) {
+        case 0, 1, 2 -> {
+          final int value = random.nextInt();
+          assertEquals(e.put(key, value), map.put(key, value));
+        }
+        case 3, 4 -> assertEquals(e.remove(key), map.remove(key));
+        case 5 -> {
+          if (maps.size() < 32) {
+            maps.add(map.copy());
+            expected.add(new HashMap<>(e));
+          }
+        }
+        default -> {
+          assertEquals(e.get(key), map.get(key));
+          assertEquals(e.containsKey(key), map.containsKey(key));
+        }
+      }
+    }
+
+    for (int i = 0; i < maps.size(); i++) {
+      assertEquals(expected.get(i), maps.get(i));
+      assertEquals(maps.get(i), expected.get(i));
+      assertEquals(expected.get(i).hashCode(), maps.get(i).hashCode());
+      assertEquals(expected.get(i).size(), maps.get(i).entrySet().stream().count());
+    }
+  }
+
+  @Test
+  public void copiesAreIndependent() {
+    final PersistentHashSet<Integer> set = new PersistentHashSet<>(List.of(1, 2, 3));
+    final PersistentHashSet<Integer> copy = set.copy();
+    copy.add(4);
+    set.remove(1);
+
+    assertEquals(Set.of(2, 3), set);
+    assertEquals(Set.of(1, 2, 3, 4), copy);
+    assertFalse(set.contains(4));
+    assertTrue(copy.contains(1));
+  }
+
+  @Test
+  public void serializationRebuildsMap() {
+    final PersistentHashMap<Object, Integer> map = new PersistentHashMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+      map.put(new BadHash(i), -i);
+    }
+    final Map<Object, Integer> read = Cloning.deserialize(Cloning.serialize(map));
+    assertEquals(map, read);
+    assertEquals(PersistentHashMap.class, read.getClass());
+  }
+}
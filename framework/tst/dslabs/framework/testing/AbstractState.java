@@ -31,8 +31,8 @@ import dslabs.framework.Command;
 import dslabs.framework.Node;
 import dslabs.framework.Result;
 import dslabs.framework.testing.utils.Cloning;
+import dslabs.framework.testing.utils.PersistentHashMap;
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -48,9 +48,9 @@ import lombok.extern.java.Log;
 @ToString(exclude = {"gen"})
 @Log
 public abstract class AbstractState implements Serializable {
-  private final Map<Address, Node> servers;
-  private final Map<Address, ClientWorker> clientWorkers;
-  private final Map<Address, Node> clients;
+  private final PersistentHashMap<Address, Node> servers;
+  private final PersistentHashMap<Address, ClientWorker> clientWorkers;
+  private final PersistentHashMap<Address, Node> clients;
 
   protected final transient NodeGenerator gen;
 
@@ -82,9 +82,9 @@ public abstract class AbstractState implements Serializable {
       }
     }
 
-    this.servers = nodeGenerator.servers(servers);
-    this.clientWorkers = nodeGenerator.clientWorkers(clientWorkers);
-    this.clients = nodeGenerator.clients(clients);
+    this.servers = new PersistentHashMap<>(nodeGenerator.servers(servers));
+    this.clientWorkers = new PersistentHashMap<>(nodeGenerator.clientWorkers(clientWorkers));
+    this.clients = new PersistentHashMap<>(nodeGenerator.clients(clients));
     this.gen = nodeGenerator;
 
     // Setup the nodes
@@ -94,10 +94,19 @@ public abstract class AbstractState implements Serializable {
   }
 
   protected AbstractState(AbstractState source, Address addressToClone) {
-    servers = new HashMap<>(source.servers);
-    clientWorkers = new HashMap<>(source.clientWorkers);
-    clients = new HashMap<>(source.clients);
-    gen = source.gen;
+    this(source, addressToClone, source.gen);
+  }
+
+  /**
+   * Like {@link #AbstractState(AbstractState, Address)}, but uses the given {@link NodeGenerator}
+   * instead of the source's. Used when the source was deserialized and therefore has none.
+   */
+  protected AbstractState(
+      AbstractState source, Address addressToClone, NodeGenerator nodeGenerator) {
+    servers = source.servers.copy();
+    clientWorkers = source.clientWorkers.copy();
+    clients = source.clients.copy();
+    gen = nodeGenerator;
 
     if (addressToClone == null) {
       return;
@@ -197,6 +206,23 @@ public abstract class AbstractState implements Serializable {
         || clients.containsKey(address);
   }
 
+  /**
+   * Replaces the node at the given address with an equal instance, for instance one shared with
+   * other states. Does not configure the new instance; it must not be modified by this state
+   * without first being cloned.
+   */
+  protected synchronized void substituteNode(Address address, Node equalNode) {
+    if (servers.containsKey(address)) {
+      servers.put(address, equalNode);
+    } else if (clientWorkers.containsKey(address)) {
+      clientWorkers.put(address, (ClientWorker) equalNode);
+    } else if (clients.containsKey(address)) {
+      clients.put(address, equalNode);
+    } else {
+      LOG.severe("Given address not found");
+    }
+  }
+
   public synchronized void removeNode(Address address) throws InterruptedException {
     servers.remove(address);
     clientWorkers.remove(address);
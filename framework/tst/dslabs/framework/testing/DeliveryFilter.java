@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing;
+
+import dslabs.framework.Address;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * The network rules of a {@link TestSettings} (which links, senders, and receivers are active),
+ * compiled into a table indexed by the root addresses the rules mention. All other addresses share
+ * a single index. Looking up whether a message should be delivered takes two hash lookups and an
+ * array read, and does not allocate.
+ *
+ * <p>Immutable. Compiled for a particular version of the settings' rules, and must be compiled
+ * again once they change.
+ */
+final class DeliveryFilter {
+  private final long version;
+  private final Map<Address, Integer> indices;
+  private final int stride;
+  private final boolean[] active;
+
+  private DeliveryFilter(
+      long version, Map<Address, Integer> indices, int stride, boolean[] active) {
+    this.version = version;
+    this.indices = indices;
+    this.stride = stride;
+    this.active = active;
+  }
+
+  static DeliveryFilter compile(
+      long version,
+      Map<Pair<Address, Address>, Boolean> linkActive,
+      Map<Address, Boolean> senderActive,
+      Map<Address, Boolean> receiverActive,
+      boolean networkActive) {
+    // Take copies, so the table is built from a single view of each rule set
+    final Map<Pair<Address, Address>, Boolean> links = new HashMap<>(linkActive);
+    final Map<Address, Boolean> senders = new HashMap<>(senderActive);
+    final Map<Address, Boolean> receivers = new HashMap<>(receiverActive);
+
+    final Set<Address> mentioned = new HashSet<>(senders.keySet());
+    mentioned.addAll(receivers.keySet());
+    for (Pair<Address, Address> link : links.keySet()) {
+      mentioned.add(link.getLeft());
+      mentioned.add(link.getRight());
+    }
+
+    // The last index stands for every address not mentioned by any rule
+    final List<Address> addresses = new ArrayList<>(mentioned);
+    addresses.add(null);
+    final int stride = addresses.size();
+
+    final Map<Address, Integer> indices = new HashMap<>();
+    for (int i = 0; i < stride - 1; i++) {
+      indices.put(addresses.get(i), i);
+    }
+
+    // Same priority order as TestSettings.shouldDeliver: link, sender, receiver, network
+    final boolean[] active = new boolean[stride * stride];
+    for (int i = 0; i < stride; i++) {
+      final Address from = addresses.get(i);
+      for (int j = 0; j < stride; j++) {
+        final Address to = addresses.get(j);
+        Boolean b = (from != null && to != null) ? links.get(new ImmutablePair<>(from, to)) : null;
+        if (b == null && from != null) {
+          b = senders.get(from);
+        }
+        if (b == null && to != null) {
+          b = receivers.get(to);
+        }
+        active[i * stride + j] = b != null ? b : networkActive;
+      }
+    }
+
+    return new DeliveryFilter(version, indices, stride, active);
+  }
+
+  /** The version of the settings' rules this filter was compiled from. */
+  long version() {
+    return version;
+  }
+
+  /**
+   * Whether messages from one root address to another should be delivered according to the rules.
+   * Does not consider whether the addresses are the same.
+   */
+  boolean shouldDeliver(Address from, Address to) {
+    final Integer i = indices.get(from), j = indices.get(to);
+    return active[(i != null ? i : stride - 1) * stride + (j != null ? j : stride - 1)];
+  }
+}
@@ -22,9 +22,11 @@
 
 package dslabs.framework.testing;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import dslabs.framework.Address;
 import dslabs.framework.Message;
+import dslabs.framework.Node;
 import dslabs.framework.Result;
 import dslabs.framework.testing.utils.SerializableFunction;
 import dslabs.framework.testing.utils.SerializablePredicate;
@@ -51,41 +53,45 @@ public class StatePredicate implements Serializable {
 
   public static final StatePredicate RESULTS_OK =
       statePredicateWithMessage(
-          "Clients got expected results",
-          s -> {
-            for (ClientWorker c : s.clientWorkers()) {
-              if (!c.resultsOk()) {
-                Pair<Result, Result> p = c.expectedAndReceived();
-                if (p == null) {
-                  return new ImmutablePair<>(
-                      false, String.format("%s got an unexpected result", c.address()));
-                } else {
-                  return new ImmutablePair<>(
-                      false,
-                      String.format(
-                          "%s got %s, expected %s", c.address(), p.getRight(), p.getLeft()));
+              "Clients got expected results",
+              s -> {
+                for (ClientWorker c : s.clientWorkers()) {
+                  if (!c.resultsOk()) {
+                    Pair<Result, Result> p = c.expectedAndReceived();
+                    if (p == null) {
+                      return new ImmutablePair<>(
+                          false, String.format("%s got an unexpected result", c.address()));
+                    } else {
+                      return new ImmutablePair<>(
+                          false,
+                          String.format(
+                              "%s got %s, expected %s", c.address(), p.getRight(), p.getLeft()));
+                    }
+                  }
                 }
-              }
-            }
-            return TRUE_NO_MESSAGE;
-          });
+                return TRUE_NO_MESSAGE;
+              })
+          .readsOnlyNodesOfType(ClientWorker.class);
 
   public static final StatePredicate NONE_DECIDED =
       resultPredicate("No results returned", rs -> rs.size() <= 0, Quantifier.ALL);
 
   public static final StatePredicate CLIENTS_DONE =
-      statePredicate("All clients' workloads finished", AbstractState::clientWorkersDone);
+      statePredicate("All clients' workloads finished", AbstractState::clientWorkersDone)
+          .readsOnlyNodesOfType(ClientWorker.class);
 
   public static StatePredicate clientDone(Address clientWorkerAddress) {
     return statePredicate(
-        String.format("%s's workload finished", clientWorkerAddress),
-        s -> s.clientWorker(clientWorkerAddress).done());
+            String.format("%s's workload finished", clientWorkerAddress),
+            s -> s.clientWorker(clientWorkerAddress).done())
+        .readsOnly(clientWorkerAddress);
   }
 
   public static StatePredicate clientHasResults(Address clientWorkerAddress, int numResults) {
     return statePredicate(
-        String.format("%s received %s results", clientWorkerAddress, numResults),
-        s -> s.clientWorker(clientWorkerAddress).results().size() == numResults);
+            String.format("%s received %s results", clientWorkerAddress, numResults),
+            s -> s.clientWorker(clientWorkerAddress).results().size() == numResults)
+        .readsOnly(clientWorkerAddress);
   }
 
   public static final StatePredicate ALL_RESULTS_SAME =
@@ -160,6 +166,14 @@ public class StatePredicate implements Serializable {
   @Getter private final String name;
   @NonNull private final SerializableFunction<AbstractState, Pair<Boolean, String>> predicate;
 
+  /**
+   * The root addresses and types of the nodes this predicate reads, or {@code null} if it may read
+   * any part of the state. See {@link #readsOnly(Address...)}.
+   */
+  private ImmutableSet<Address> readAddresses = null;
+
+  private ImmutableSet<Class<? extends Node>> readTypes = null;
+
   private static <T> SerializableFunction<T, Pair<Boolean, String>> addNullMessage(
       String name, SerializablePredicate<T> predicate) {
     return t -> new ImmutablePair<>(predicate.test(t), null);
@@ -179,7 +193,8 @@ public class StatePredicate implements Serializable {
   public static StatePredicate resultsPredicateWithMessage(
       String name,
       SerializableFunction<Collection<List<Result>>, Pair<Boolean, String>> predicate) {
-    return statePredicateWithMessage(name, s -> predicate.apply(s.results().values()));
+    return statePredicateWithMessage(name, s -> predicate.apply(s.results().values()))
+        .readsOnlyNodesOfType(ClientWorker.class);
   }
 
   public static StatePredicate resultsPredicate(
@@ -240,7 +255,8 @@ public class StatePredicate implements Serializable {
       Address clientWorkerAddress,
       SerializableFunction<List<Result>, Pair<Boolean, String>> predicate) {
     return statePredicateWithMessage(
-        name, s -> predicate.apply(s.clientWorker(clientWorkerAddress).results()));
+            name, s -> predicate.apply(s.clientWorker(clientWorkerAddress).results()))
+        .readsOnly(clientWorkerAddress);
   }
 
   public static StatePredicate resultPredicate(
@@ -379,6 +395,98 @@ public class StatePredicate implements Serializable {
     return null;
   }
 
+  /**
+   * Declares that this predicate only reads the nodes with the given root addresses (in addition to
+   * any already declared). A predicate that declares what it reads must not depend on any other
+   * part of the state, including the network and timers. Searches use the declaration to avoid
+   * re-evaluating the predicate on a state whose only changed node it does not read, since its
+   * value must then be the same as on the previous state.
+   *
+   * @param addresses the addresses of the nodes read; sub-addresses are taken to mean their root
+   * @return a copy of this predicate with the declaration
+   */
+  public final StatePredicate readsOnly(Address... addresses) {
+    final StatePredicate p = copy();
+    final ImmutableSet.Builder<Address> builder = ImmutableSet.builder();
+    if (readAddresses != null) {
+      builder.addAll(readAddresses);
+    }
+    for (Address a : addresses) {
+      builder.add(a.rootAddress());
+    }
+    p.readAddresses = builder.build();
+    if (p.readTypes == null) {
+      p.readTypes = ImmutableSet.of();
+    }
+    return p;
+  }
+
+  /**
+   * Declares that this predicate only reads nodes of the given types (in addition to any already
+   * declared). See {@link #readsOnly(Address...)}.
+   *
+   * @param types the types of the nodes read
+   * @return a copy of this predicate with the declaration
+   */
+  @SafeVarargs
+  public final StatePredicate readsOnlyNodesOfType(Class<? extends Node>... types) {
+    final StatePredicate p = copy();
+    final ImmutableSet.Builder<Class<? extends Node>> builder = ImmutableSet.builder();
+    if (readTypes != null) {
+      builder.addAll(readTypes);
+    }
+    builder.add(types);
+    p.readTypes = builder.build();
+    if (p.readAddresses == null) {
+      p.readAddresses = ImmutableSet.of();
+    }
+    return p;
+  }
+
+  /**
+   * Whether this predicate might read the given node.
+   *
+   * @param rootAddress the root address of the node
+   * @param node the node
+   * @return {@code false} only if the predicate was declared not to read the node
+   */
+  public final boolean reads(Address rootAddress, Node node) {
+    if (readAddresses == null) {
+      return true;
+    }
+    if (readAddresses.contains(rootAddress)) {
+      return true;
+    }
+    for (Class<? extends Node> type : readTypes) {
+      if (type.isInstance(node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private StatePredicate copy() {
+    final StatePredicate p = new StatePredicate(name, predicate);
+    p.readAddresses = readAddresses;
+    p.readTypes = readTypes;
+    return p;
+  }
+
+  /** Gives a predicate combining this one and other the union of what they read. */
+  private StatePredicate readingBoth(StatePredicate other, StatePredicate combined) {
+    if (readAddresses == null || other.readAddresses == null) {
+      return combined;
+    }
+    combined.readAddresses =
+        ImmutableSet.<Address>builder().addAll(readAddresses).addAll(other.readAddresses).build();
+    combined.readTypes =
+        ImmutableSet.<Class<? extends Node>>builder()
+            .addAll(readTypes)
+            .addAll(other.readTypes)
+            .build();
+    return combined;
+  }
+
   public StatePredicate negate() {
     String newName;
     if (name.startsWith("¬(") && name.endsWith(")")) {
@@ -386,49 +494,62 @@ public class StatePredicate implements Serializable {
     } else {
       newName = String.format("¬(%s)", name);
     }
-    return statePredicateWithMessage(
-        newName,
-        s -> {
-          Pair<Boolean, String> ret = predicate.apply(s);
-          return new ImmutablePair<>(!ret.getLeft(), ret.getRight());
-        });
+    final StatePredicate negated =
+        statePredicateWithMessage(
+            newName,
+            s -> {
+              Pair<Boolean, String> ret = predicate.apply(s);
+              return new ImmutablePair<>(!ret.getLeft(), ret.getRight());
+            });
+    negated.readAddresses = readAddresses;
+    negated.readTypes = readTypes;
+    return negated;
   }
 
   public StatePredicate and(@NonNull StatePredicate other) {
-    return statePredicateWithMessage(
-        String.format("(%s) ∧ (%s)", this.name, other.name),
-        s -> {
-          Pair<Boolean, String> ret1 = predicate.apply(s);
-          Pair<Boolean, String> ret2;
-          if (!ret1.getLeft()) {
-            return ret1;
-          } else if (!(ret2 = other.predicate.apply(s)).getLeft()) {
-            return ret2;
-          } else {
-            return Pair.of(true, String.format("(%s) and (%s)", ret1.getRight(), ret2.getRight()));
-          }
-        });
+    return readingBoth(
+        other,
+        statePredicateWithMessage(
+            String.format("(%s) ∧ (%s)", this.name, other.name),
+            s -> {
+              Pair<Boolean, String> ret1 = predicate.apply(s);
+              Pair<Boolean, String> ret2;
+              if (!ret1.getLeft()) {
+                return ret1;
+              } else if (!(ret2 = other.predicate.apply(s)).getLeft()) {
+                return ret2;
+              } else {
+                return Pair.of(
+                    true, String.format("(%s) and (%s)", ret1.getRight(), ret2.getRight()));
+              }
+            }));
   }
 
   public StatePredicate or(@NonNull StatePredicate other) {
-    return statePredicateWithMessage(
-        String.format("(%s) ∨ (%s)", this.name, other.name),
-        s -> {
-          Pair<Boolean, String> ret1 = predicate.apply(s);
-          Pair<Boolean, String> ret2;
-          if (ret1.getLeft()) {
-            return ret1;
-          } else if ((ret2 = other.predicate.apply(s)).getLeft()) {
-            return ret2;
-          } else {
-            return Pair.of(false, String.format("(%s) or (%s)", ret1.getRight(), ret2.getRight()));
-          }
-        });
+    return readingBoth(
+        other,
+        statePredicateWithMessage(
+            String.format("(%s) ∨ (%s)", this.name, other.name),
+            s -> {
+              Pair<Boolean, String> ret1 = predicate.apply(s);
+              Pair<Boolean, String> ret2;
+              if (ret1.getLeft()) {
+                return ret1;
+              } else if ((ret2 = other.predicate.apply(s)).getLeft()) {
+                return ret2;
+              } else {
+                return Pair.of(
+                    false, String.format("(%s) or (%s)", ret1.getRight(), ret2.getRight()));
+              }
+            }));
   }
 
   public StatePredicate implies(StatePredicate other) {
-    return statePredicateWithMessage(
-        String.format("(%s) → (%s)", this.name, other.name), this.negate().or(other).predicate);
+    return readingBoth(
+        other,
+        statePredicateWithMessage(
+            String.format("(%s) → (%s)", this.name, other.name),
+            this.negate().or(other).predicate));
   }
 
   @Override
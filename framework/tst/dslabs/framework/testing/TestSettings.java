@@ -25,11 +25,14 @@ package dslabs.framework.testing;
 import dslabs.framework.Address;
 import dslabs.framework.testing.StatePredicate.PredicateResult;
 import dslabs.framework.testing.utils.GlobalSettings;
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -43,7 +46,7 @@ import org.apache.commons.lang3.tuple.Pair;
  */
 @Getter
 @Setter
-public abstract class TestSettings<T extends TestSettings<T>> {
+public abstract class TestSettings<T extends TestSettings<T>> implements Serializable {
   /* Defaults */
   private static final int DEFAULT_TIME_LIMIT_SECS = 5;
 
@@ -107,8 +110,19 @@ public abstract class TestSettings<T extends TestSettings<T>> {
   private final Map<Address, Boolean> receiverActive = new ConcurrentHashMap<>();
 
   @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
   private volatile boolean networkActive = true;
 
+  /** Incremented whenever the network rules above change. */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final AtomicLong networkVersion = new AtomicLong();
+
+  /** The network rules as of some version, compiled for {@link #shouldDeliver}. */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private transient volatile DeliveryFilter deliveryFilter;
+
   public T addInvariant(StatePredicate invariant) {
     invariants.add(invariant);
     return self();
@@ -128,7 +142,23 @@ public abstract class TestSettings<T extends TestSettings<T>> {
    * @return the result or {@code null}
    */
   public final PredicateResult invariantViolated(AbstractState state) {
+    return invariantViolated(state, p -> false);
+  }
+
+  /**
+   * Like {@link #invariantViolated(AbstractState)}, but does not evaluate the invariants already
+   * known to be satisfied by the state.
+   *
+   * @param state the state to evaluate
+   * @param skip whether an invariant is known to be satisfied
+   * @return the result or {@code null}
+   */
+  public final PredicateResult invariantViolated(
+      AbstractState state, Predicate<StatePredicate> skip) {
     for (StatePredicate p : invariants) {
+      if (skip.test(p)) {
+        continue;
+      }
       PredicateResult r = p.test(state, true);
       if (r != null) {
         return r;
@@ -159,16 +189,25 @@ public abstract class TestSettings<T extends TestSettings<T>> {
 
   public final T linkActive(Address from, Address to, boolean linkActive) {
     this.linkActive.put(new ImmutablePair<>(from.rootAddress(), to.rootAddress()), linkActive);
+    networkVersion.incrementAndGet();
     return self();
   }
 
   public final T senderActive(Address from, boolean senderActive) {
     this.senderActive.put(from.rootAddress(), senderActive);
+    networkVersion.incrementAndGet();
     return self();
   }
 
   public final T receiverActive(Address to, boolean receiverActive) {
     this.receiverActive.put(to.rootAddress(), receiverActive);
+    networkVersion.incrementAndGet();
+    return self();
+  }
+
+  public final T networkActive(boolean networkActive) {
+    this.networkActive = networkActive;
+    networkVersion.incrementAndGet();
     return self();
   }
 
@@ -206,6 +245,7 @@ public abstract class TestSettings<T extends TestSettings<T>> {
     linkActive.clear();
     senderActive.clear();
     receiverActive.clear();
+    networkVersion.incrementAndGet();
     return self();
   }
 
@@ -216,7 +256,8 @@ public abstract class TestSettings<T extends TestSettings<T>> {
   /**
    * Computes whether the link between the sender and receiver is active by first looking, in order
    * of priority, at the status of the link, the status of the sender, the status of the receiver,
-   * and then the status of the network.
+   * and then the status of the network. The rules are compiled into a lookup table the first time
+   * they are needed after a change.
    *
    * @param messageEnvelope the candidate messageEnvelope
    * @return whether the messageEnvelope should be delivered
@@ -229,19 +270,15 @@ public abstract class TestSettings<T extends TestSettings<T>> {
       return true;
     }
 
-    Boolean b = linkActive.get(new ImmutablePair<>(from, to));
-    if (b != null) {
-      return b;
-    }
-    b = senderActive.get(from);
-    if (b != null) {
-      return b;
-    }
-    b = receiverActive.get(to);
-    if (b != null) {
-      return b;
+    // Read the version before compiling, so a concurrent change forces another compilation
+    final long version = networkVersion.get();
+    DeliveryFilter filter = deliveryFilter;
+    if (filter == null || filter.version() != version) {
+      filter =
+          DeliveryFilter.compile(version, linkActive, senderActive, receiverActive, networkActive);
+      deliveryFilter = filter;
     }
-    return networkActive;
+    return filter.shouldDeliver(from, to);
   }
 
   public T clear() {
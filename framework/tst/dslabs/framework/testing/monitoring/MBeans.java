@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import lombok.extern.java.Log;
+
+/**
+ * Registers the framework's MXBeans with the platform MBean server, under the {@code dslabs}
+ * domain, so they can be watched with JConsole or JDK Mission Control. Failures are logged and
+ * otherwise ignored; monitoring should never break a test.
+ */
+@Log
+public final class MBeans {
+  private static final AtomicInteger nextId = new AtomicInteger();
+
+  private MBeans() {}
+
+  /**
+   * Registers the MXBean under a new, unique name.
+   *
+   * @param type the {@code type} key of the name
+   * @param mxBean the MXBean
+   * @return the name it was registered under, or {@code null} if registration failed
+   */
+  public static ObjectName register(String type, Object mxBean) {
+    try {
+      final ObjectName name =
+          new ObjectName(String.format("dslabs:type=%s,id=%s", type, nextId.getAndIncrement()));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(mxBean, name);
+      return name;
+    } catch (JMException e) {
+      LOG.warning("Could not register " + type + " MXBean: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Unregisters an MXBean registered by {@link #register(String, Object)}.
+   *
+   * @param name the name returned by {@link #register(String, Object)}, or {@code null}
+   */
+  public static void unregister(ObjectName name) {
+    if (name == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } catch (JMException e) {
+      LOG.warning("Could not unregister " + name + ": " + e);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.monitoring;
+
+import dslabs.framework.testing.MessageEnvelope;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A message handler running, either in a search step or in a running system. Begin the event before
+ * calling the handler and call {@link #commit(MessageEnvelope, String)} after.
+ */
+@Name("dslabs.MessageDelivery")
+@Label("Message Delivery")
+@Category("DSLabs")
+@Description("A node handling a message")
+public final class MessageDeliveryEvent extends jdk.jfr.Event {
+  @Label("From")
+  String from;
+
+  @Label("To")
+  String to;
+
+  @Label("Message Type")
+  String messageType;
+
+  @Label("Context")
+  @Description("Whether the message was delivered by a search or a running system")
+  String context;
+
+  private static final EventType TYPE = EventType.getEventType(MessageDeliveryEvent.class);
+
+  /**
+   * Whether the event is being recorded. Hot paths check this first, so that they do not allocate
+   * an event which would only be discarded.
+   */
+  public static boolean enabled() {
+    return TYPE.isEnabled();
+  }
+
+  /** Fills in the event's fields and commits it, if it is being recorded. */
+  public void commit(MessageEnvelope message, String context) {
+    end();
+    if (shouldCommit()) {
+      from = message.from().toString();
+      to = message.to().toString();
+      messageType = message.message().getClass().getName();
+      this.context = context;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.monitoring;
+
+/**
+ * Live counters of a running search. Registered by every search for as long as it runs. Counters
+ * which a search does not keep are reported as -1.
+ */
+public interface SearchMXBean {
+  String getSearchType();
+
+  double getElapsedSecs();
+
+  /** The number of distinct states explored so far. */
+  long getStatesExplored();
+
+  /** The number of successor states generated so far, including duplicates. */
+  long getStatesGenerated();
+
+  long getFrontierSize();
+
+  /** The number of states in the discovered set. */
+  long getVisitedStates();
+
+  /** An estimate of the memory used by the discovered set. */
+  long getVisitedStatesBytes();
+
+  double getCloningSecs();
+
+  double getHandlerSecs();
+
+  double getHashingSecs();
+
+  double getPredicateSecs();
+}
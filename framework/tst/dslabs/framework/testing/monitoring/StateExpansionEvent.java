@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.monitoring;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.TimerEnvelope;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A search taking an event from a state to generate a successor, including cloning the state and
+ * running the handler. Begin the event before stepping and call {@link #commit(int, Event,
+ * boolean)} after.
+ */
+@Name("dslabs.StateExpansion")
+@Label("State Expansion")
+@Category("DSLabs")
+@Description("A search generating a successor state")
+public final class StateExpansionEvent extends jdk.jfr.Event {
+  @Label("Depth")
+  @Description("The depth of the state the event was taken from")
+  int depth;
+
+  @Label("Event Type")
+  String eventType;
+
+  @Label("Generated")
+  @Description("Whether a successor state was generated")
+  boolean generated;
+
+  private static final EventType TYPE = EventType.getEventType(StateExpansionEvent.class);
+
+  /**
+   * Whether the event is being recorded. Hot paths check this first, so that they do not allocate
+   * an event which would only be discarded.
+   */
+  public static boolean enabled() {
+    return TYPE.isEnabled();
+  }
+
+  /** Fills in the event's fields and commits it, if it is being recorded. */
+  public void commit(int depth, Event event, boolean generated) {
+    end();
+    if (shouldCommit()) {
+      this.depth = depth;
+      eventType =
+          switch (event) {
+            case MessageEnvelope me -> me.message().getClass().getName();
+            case TimerEnvelope te -> te.timer().getClass().getName();
+          };
+      this.generated = generated;
+      commit();
+    }
+  }
+}
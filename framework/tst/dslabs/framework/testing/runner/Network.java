@@ -27,6 +27,7 @@ import dslabs.framework.testing.Event;
 import dslabs.framework.testing.MessageEnvelope;
 import dslabs.framework.testing.TimerEnvelope;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
@@ -56,7 +57,8 @@ public class Network implements Iterable<MessageEnvelope> {
     private volatile boolean newMessageAvailable = false;
     private final AtomicLong newTimerEndTime = new AtomicLong(Long.MAX_VALUE);
 
-    private final AtomicInteger numMessagesReceived = new AtomicInteger();
+    private final AtomicInteger numMessagesReceived = new AtomicInteger(),
+        numMessagesDelivered = new AtomicInteger();
 
     void send(MessageEnvelope m) {
       messages.add(m);
@@ -86,7 +88,14 @@ public class Network implements Iterable<MessageEnvelope> {
     }
 
     MessageEnvelope pollMessage() {
-      return messages.poll();
+      return delivered(messages.poll());
+    }
+
+    private MessageEnvelope delivered(MessageEnvelope m) {
+      if (m != null) {
+        numMessagesDelivered.incrementAndGet();
+      }
+      return m;
     }
 
     TimerEnvelope pollTimer() {
@@ -106,7 +115,7 @@ public class Network implements Iterable<MessageEnvelope> {
         }
 
         newMessageAvailable = false;
-        MessageEnvelope me = messages.poll();
+        MessageEnvelope me = delivered(messages.poll());
         if (me != null) {
           return me;
         }
@@ -152,6 +161,18 @@ public class Network implements Iterable<MessageEnvelope> {
       return numMessagesReceived.get();
     }
 
+    int numMessagesDelivered() {
+      return numMessagesDelivered.get();
+    }
+
+    int numMessagesQueued() {
+      return messages.size();
+    }
+
+    int numTimersPending() {
+      return timers.size();
+    }
+
     Collection<MessageEnvelope> messages() {
       return new LinkedList<>(messages);
     }
@@ -171,6 +192,11 @@ public class Network implements Iterable<MessageEnvelope> {
     return inboxes.computeIfAbsent(address, __ -> new Inbox());
   }
 
+  /** A live, read-only view of every node's inbox. */
+  Map<Address, Inbox> inboxes() {
+    return Collections.unmodifiableMap(inboxes);
+  }
+
   public void removeInbox(Address address) {
     inboxes.remove(address);
   }
@@ -174,17 +174,20 @@ public class RunSettings extends TestSettings<RunSettings> {
       return false;
     }
 
-    Double deliverRate;
-    Pair<Address, Address> link = new ImmutablePair<>(from, to);
-    if (linkDeliverRate.containsKey(link)) {
-      deliverRate = linkDeliverRate.get(link);
-    } else if (senderDeliverRate.containsKey(from)) {
-      deliverRate = senderDeliverRate.get(from);
-    } else if (receiverDeliverRate.containsKey(to)) {
-      // TODO: multiply deliver rates for sender and receiver?
-      deliverRate = receiverDeliverRate.get(to);
-    } else {
-      deliverRate = networkDeliverRate;
+    Double deliverRate = networkDeliverRate;
+    // Only allocate the link when some per-link, sender, or receiver rate is set
+    if (!linkDeliverRate.isEmpty()
+        || !senderDeliverRate.isEmpty()
+        || !receiverDeliverRate.isEmpty()) {
+      Pair<Address, Address> link = new ImmutablePair<>(from, to);
+      if (linkDeliverRate.containsKey(link)) {
+        deliverRate = linkDeliverRate.get(link);
+      } else if (senderDeliverRate.containsKey(from)) {
+        deliverRate = senderDeliverRate.get(from);
+      } else if (receiverDeliverRate.containsKey(to)) {
+        // TODO: multiply deliver rates for sender and receiver?
+        deliverRate = receiverDeliverRate.get(to);
+      }
     }
 
     return deliverRate == null || deliverRate > 1.0 || rand.nextDouble() < deliverRate;
@@ -34,6 +34,10 @@ import dslabs.framework.testing.Event;
 import dslabs.framework.testing.MessageEnvelope;
 import dslabs.framework.testing.NodeGenerator;
 import dslabs.framework.testing.TimerEnvelope;
+import dslabs.framework.testing.monitoring.MBeans;
+import dslabs.framework.testing.monitoring.MessageDeliveryEvent;
+import dslabs.framework.testing.monitoring.RunStateMXBean;
+import dslabs.framework.testing.monitoring.TimerFiringEvent;
 import dslabs.framework.testing.runner.Network.Inbox;
 import dslabs.framework.testing.utils.Cloning;
 import java.time.Duration;
@@ -42,7 +46,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.annotation.Nullable;
+import javax.management.ObjectName;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.java.Log;
@@ -70,6 +76,8 @@ public class RunState extends AbstractState {
    */
   private Instant stopTime = null;
 
+  private ObjectName mxBeanName = null;
+
   // TODO: memoize important settings (e.g. multithreaded) at start time to ensure safety
   //  (even though they should never be modified)
 
@@ -142,12 +150,12 @@ public class RunState extends AbstractState {
       switch (item) {
         case MessageEnvelope me -> {
           if (settings.shouldDeliver(me)) {
-            node.handleMessage(me.message(), me.from(), me.to());
+            handleMessage(node, me);
           }
         }
         case TimerEnvelope te -> {
           if (settings.deliverTimers()) {
-            node.onTimer(te.timer(), te.to());
+            onTimer(node, te);
           }
         }
       }
@@ -170,16 +178,76 @@ public class RunState extends AbstractState {
 
       MessageEnvelope me = inbox.pollMessage();
       if (me != null && settings.shouldDeliver(me)) {
-        node.handleMessage(me.message(), me.from(), me.to());
+        handleMessage(node, me);
       }
 
       TimerEnvelope te = inbox.pollTimer();
       if (te != null && settings.deliverTimers()) {
-        node.onTimer(te.timer(), te.to());
+        onTimer(node, te);
       }
     }
   }
 
+  private static void handleMessage(Node node, MessageEnvelope me) {
+    final MessageDeliveryEvent event =
+        MessageDeliveryEvent.enabled() ? new MessageDeliveryEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    node.handleMessage(me.message(), me.from(), me.to());
+    if (event != null) {
+      event.commit(me, "run");
+    }
+  }
+
+  private static void onTimer(Node node, TimerEnvelope te) {
+    final TimerFiringEvent event = TimerFiringEvent.enabled() ? new TimerFiringEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
+    node.onTimer(te.timer(), te.to());
+    if (event != null) {
+      event.commit(te, "run");
+    }
+  }
+
+  private final class Monitor implements RunStateMXBean {
+    @Override
+    public boolean isRunning() {
+      synchronized (RunState.this) {
+        return running;
+      }
+    }
+
+    @Override
+    public Map<String, Integer> getMessagesDelivered() {
+      final Map<String, Integer> delivered = new TreeMap<>();
+      network
+          .inboxes()
+          .forEach(
+              (address, inbox) -> delivered.put(address.toString(), inbox.numMessagesDelivered()));
+      return delivered;
+    }
+
+    @Override
+    public Map<String, Integer> getInboxDepths() {
+      final Map<String, Integer> depths = new TreeMap<>();
+      network
+          .inboxes()
+          .forEach((address, inbox) -> depths.put(address.toString(), inbox.numMessagesQueued()));
+      return depths;
+    }
+
+    @Override
+    public Map<String, Integer> getPendingTimers() {
+      final Map<String, Integer> timers = new TreeMap<>();
+      network
+          .inboxes()
+          .forEach((address, inbox) -> timers.put(address.toString(), inbox.numTimersPending()));
+      return timers;
+    }
+  }
+
   // TODO: bring back waitForClientWorkers method
   // TODO: add waitForAndStop methods?
 
@@ -243,6 +311,7 @@ public class RunState extends AbstractState {
         this.settings = settings;
         this.startTimeMillis = System.currentTimeMillis();
         this.mainThread = Thread.currentThread();
+        this.mxBeanName = MBeans.register("RunState", new Monitor());
       }
 
       boolean done = false;
@@ -270,6 +339,8 @@ public class RunState extends AbstractState {
         if (stopTime == null) {
           stopTime = Instant.now();
         }
+        MBeans.unregister(mxBeanName);
+        mxBeanName = null;
         notifyAll();
       }
     }
@@ -293,6 +364,7 @@ public class RunState extends AbstractState {
     this.running = true;
     this.stopTime = null;
     this.startTimeMillis = System.currentTimeMillis();
+    this.mxBeanName = MBeans.register("RunState", new Monitor());
 
     if (this.settings.multiThreaded()) {
       for (Address address : addresses()) {
@@ -379,6 +451,8 @@ public class RunState extends AbstractState {
               + "message/timer takes more than a second to process.");
     }
 
+    MBeans.unregister(mxBeanName);
+    mxBeanName = null;
     running = false;
   }
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import dslabs.framework.Node;
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.utils.SerializableToIntFunction;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * Best-first search. Explores states in increasing order of a heuristic estimate of their distance
+ * to a goal, breaking ties in favor of shallower states and then in the order states were
+ * discovered. Each state is checked when first discovered, so with a heuristic that is constant,
+ * the search behaves like a breadth-first search.
+ *
+ * <p>Otherwise, states are not discovered in order of depth, and a state may first be reached on a
+ * longer path than its shortest. With a {@link SearchSettings#maxDepth(int) maximum depth}, the
+ * shallowest depth each state was reached at is recorded (by fingerprint), and states reached again
+ * at a shallower depth are checked and queued again, so no state within the limit is missed.
+ *
+ * <p>Unlike breadth-first search, the first trace found need not be the shortest, so traces are
+ * minimized before being reported. Exceptions thrown by the heuristic are logged, and the state is
+ * explored after all others.
+ */
+@Log
+class BestFirstSearch extends Search {
+  private record Entry(SearchState state, int priority, long sequence) {}
+
+  private final SerializableToIntFunction<SearchState> heuristic;
+  private final Queue<Entry> queue =
+      new PriorityBlockingQueue<>(
+          11,
+          Comparator.comparingInt(Entry::priority)
+              .thenComparingInt(e -> e.state().depth())
+              .thenComparingLong(Entry::sequence));
+  private final DiscoveredStates discovered;
+
+  /** The shallowest depth each state was reached at, or null if the search is not depth-limited. */
+  private final FingerprintMap depths;
+
+  private final Interner<Node> interner;
+
+  private final AtomicLong states = new AtomicLong(), sequence = new AtomicLong();
+  private final AtomicInteger depth = new AtomicInteger();
+  private final AtomicInteger bestPriority = new AtomicInteger(Integer.MAX_VALUE);
+
+  BestFirstSearch(SearchSettings settings, SerializableToIntFunction<SearchState> heuristic) {
+    super(settings);
+    this.heuristic = heuristic;
+    discovered = DiscoveredStates.create(settings);
+    depths = settings.depthLimited() ? new FingerprintMap() : null;
+    interner = settings.internNodes() ? Interners.newWeakInterner() : null;
+  }
+
+  @Override
+  protected String searchType() {
+    return "best-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Depth: %s, Best heuristic: %s (%.2fs, %.2fK states/s)",
+        explored, depth.get(), bestPriority.get(), elapsedSecs, explored / elapsedSecs / 1000.0);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    discovered.add(initialState);
+    if (depths != null) {
+      depths.lower(discovered.fingerprint(initialState), initialState.depth());
+    }
+    states.set(1);
+    depth.getAndAccumulate(initialState.depth(), Math::max);
+
+    // For now, don't consider PRUNED initial states
+    if (checkState(initialState, false).equals(StateStatus.TERMINAL)) {
+      return;
+    }
+    enqueue(initialState);
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    return queue.isEmpty();
+  }
+
+  @Override
+  protected long frontierSize() {
+    return queue.size();
+  }
+
+  @Override
+  protected DiscoveredStates discoveredStates() {
+    return discovered;
+  }
+
+  @Override
+  protected double omissionProbability() {
+    return discovered.omissionProbability();
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    final Entry toExplore = queue.poll();
+    if (toExplore == null) {
+      return null;
+    }
+    return () -> exploreNode(toExplore.state());
+  }
+
+  private void enqueue(SearchState state) {
+    int priority;
+    try {
+      priority = heuristic.applyAsInt(state);
+    } catch (RuntimeException e) {
+      LOG.severe("Heuristic threw exception: " + e);
+      priority = Integer.MAX_VALUE;
+    }
+    bestPriority.getAndAccumulate(priority, Math::min);
+    if (settings.replayTraces()) {
+      state.releasePrevious();
+    }
+    queue.add(new Entry(state, priority, sequence.getAndIncrement()));
+  }
+
+  private void exploreNode(@NonNull SearchState node) {
+    statistics().expanded(node.depth());
+    try (EventBuffer events = EventBuffer.acquire()) {
+      node.events(settings, events);
+      for (int i = 0; i < events.size(); i++) {
+        final Event event = events.get(i);
+        SearchState successor = step(node, event);
+
+        if (successor == null) {
+          continue;
+        }
+
+        final StateStatus status =
+            discoverAndCheck(successor, discovered, depths, interner, depth, states);
+        if (status == null || status.equals(StateStatus.PRUNED)) {
+          continue;
+        } else if (status.equals(StateStatus.TERMINAL)) {
+          return;
+        }
+
+        enqueue(successor);
+      }
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * A fixed-size Bloom filter over 64-bit state fingerprints, as in SPIN's bitstate (supertrace)
+ * hashing. Each fingerprint sets {@link #NUM_HASHES} bits in a bit array whose size never changes,
+ * so memory is bounded no matter how many states are added. A fingerprint is considered present iff
+ * all of its bits are already set; as the array fills up, more and more new states are mistaken for
+ * ones already present (and omitted from the search).
+ *
+ * <p>Safe for concurrent access.
+ */
+final class BitstateSet {
+  static final int NUM_HASHES = 3;
+
+  /** The largest {@link AtomicLongArray} length that is a power of 2. */
+  private static final long MAX_WORDS = 1L << 30;
+
+  private final AtomicLongArray words;
+  private final long bitMask;
+  private final AtomicLong size = new AtomicLong(), bitsSet = new AtomicLong();
+  private final DoubleAdder expectedOmissions = new DoubleAdder();
+
+  /**
+   * @param megabytes the size of the bit array, rounded down to a power of two
+   */
+  BitstateSet(int megabytes) {
+    if (megabytes < 1) {
+      throw new IllegalArgumentException("Bitstate hashing needs at least 1MB, got " + megabytes);
+    }
+    final long numWords = Math.min(Long.highestOneBit(megabytes * (1L << 17)), MAX_WORDS);
+    words = new AtomicLongArray((int) numWords);
+    bitMask = numWords * Long.SIZE - 1;
+  }
+
+  /**
+   * Sets the fingerprint's bits.
+   *
+   * @param fingerprint the fingerprint, which should already be well-mixed (see {@link
+   *     Fingerprints})
+   * @return {@code true} iff at least one of the bits was not already set
+   */
+  boolean add(long fingerprint) {
+    // Double hashing (Kirsch and Mitzenmacher); the step is odd, so the bits are distinct
+    final long step = Fingerprints.mix(fingerprint) | 1;
+    boolean added = false;
+    for (int i = 0; i < NUM_HASHES; i++) {
+      final long bit = (fingerprint + i * step) & bitMask;
+      final int word = (int) (bit >>> 6);
+      final long mask = 1L << bit;
+      if ((words.get(word) & mask) != 0) {
+        continue;
+      }
+      if ((words.getAndAccumulate(word, mask, (w, m) -> w | m) & mask) == 0) {
+        bitsSet.incrementAndGet();
+        added = true;
+      }
+    }
+    if (added) {
+      size.incrementAndGet();
+      // Each new fingerprint is mistaken for a present one with probability p, so on average
+      // p / (1 - p) were omitted for every one added at this rate
+      final double p = falsePositiveRate();
+      expectedOmissions.add(p / (1 - p));
+    }
+    return added;
+  }
+
+  /** Writes the contents of the set to a checkpoint. */
+  void save(ObjectOutputStream out) throws IOException {
+    out.writeLong(numBits());
+    out.writeLong(size.get());
+    out.writeLong(bitsSet.get());
+    out.writeDouble(expectedOmissions.sum());
+    for (int i = 0; i < words.length(); i++) {
+      out.writeLong(words.get(i));
+    }
+  }
+
+  /**
+   * Replaces the contents of the set with those written by {@link #save(ObjectOutputStream)}.
+   *
+   * @throws InvalidObjectException if the checkpoint was taken with a differently sized array
+   */
+  void load(ObjectInputStream in) throws IOException {
+    final long savedBits = in.readLong();
+    if (savedBits != numBits()) {
+      throw new InvalidObjectException(
+          String.format(
+              "Checkpoint has %s bits of bitstate, but this search uses %s", savedBits, numBits()));
+    }
+    size.set(in.readLong());
+    bitsSet.set(in.readLong());
+    expectedOmissions.reset();
+    expectedOmissions.add(in.readDouble());
+    for (int i = 0; i < words.length(); i++) {
+      words.set(i, in.readLong());
+    }
+  }
+
+  /** The number of fingerprints added which were not considered already present. */
+  long size() {
+    return size.get();
+  }
+
+  long numBits() {
+    return bitMask + 1;
+  }
+
+  /**
+   * The probability that a fingerprint not yet added would now be considered present: the fraction
+   * of bits set, to the power of {@link #NUM_HASHES}.
+   */
+  double falsePositiveRate() {
+    return Math.pow((double) bitsSet.get() / numBits(), NUM_HASHES);
+  }
+
+  /**
+   * An estimate of the number of distinct fingerprints added so far that were mistaken for ones
+   * already present, accumulated from the false positive rate at the time each new one was added.
+   */
+  double expectedOmissions() {
+    return expectedOmissions.sum();
+  }
+
+  /**
+   * An estimate of the probability that at least one fingerprint added so far was mistaken for one
+   * already present, treating omissions as independent.
+   */
+  double omissionProbability() {
+    return -Math.expm1(-expectedOmissions());
+  }
+}
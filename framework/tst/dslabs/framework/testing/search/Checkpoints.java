@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for saving search frontiers to checkpoints (see {@link SearchSettings#checkpointFile()}).
+ * Frontier states are saved as the events leading to them from the search's initial state and
+ * replayed on resume, rather than serialized, so that they keep their traces.
+ */
+final class Checkpoints {
+  /** Written at the start of every checkpoint; increment whenever the format changes. */
+  static final int VERSION = 1;
+
+  /**
+   * The events leading from the search's initial state to the given state, which must have been
+   * reached by stepping from it.
+   */
+  static List<Event> path(SearchState initialState, SearchState state) {
+    final EventHistory initialHistory = initialState.history();
+    final int offset = initialHistory != null ? initialHistory.length() : 0;
+    final List<Event> events = state.history().events();
+    return new ArrayList<>(events.subList(offset, events.size()));
+  }
+
+  /**
+   * Replays each path from the initial state. Paths with common prefixes share the states along
+   * those prefixes, so each distinct prefix is only stepped once.
+   *
+   * @return the resulting states, in the same order as the paths
+   * @throws IllegalStateException if an event cannot be replayed
+   */
+  static List<SearchState> replay(SearchState initialState, List<List<Event>> paths) {
+    final class Trie {
+      final Map<Event, Trie> children = new LinkedHashMap<>();
+      final List<Integer> indices = new ArrayList<>();
+    }
+    record Pending(Trie trie, SearchState state) {}
+
+    final Trie root = new Trie();
+    for (int i = 0; i < paths.size(); i++) {
+      Trie trie = root;
+      for (Event event : paths.get(i)) {
+        trie = trie.children.computeIfAbsent(event, __ -> new Trie());
+      }
+      trie.indices.add(i);
+    }
+
+    final SearchState[] states = new SearchState[paths.size()];
+    final Deque<Pending> stack = new ArrayDeque<>();
+    stack.push(new Pending(root, initialState));
+    while (!stack.isEmpty()) {
+      final Pending pending = stack.pop();
+      for (int i : pending.trie().indices) {
+        states[i] = pending.state();
+      }
+      for (Map.Entry<Event, Trie> child : pending.trie().children.entrySet()) {
+        final SearchState next = pending.state().stepEvent(child.getKey(), null, true);
+        if (next == null) {
+          throw new IllegalStateException(
+              "Could not replay " + child.getKey() + " from checkpoint");
+        }
+        stack.push(new Pending(child.getValue(), next));
+      }
+    }
+    return Arrays.asList(states);
+  }
+
+  private Checkpoints() {
+    // Uninstantiable utility class
+    throw new UnsupportedOperationException();
+  }
+}
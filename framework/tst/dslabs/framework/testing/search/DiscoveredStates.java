@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.search.SearchState.SearchEquivalenceWrappedSearchState;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The set of states a search has already discovered, under search-equivalence. Implementations must
+ * be safe for concurrent access.
+ *
+ * @see SearchSettings.VisitedStates
+ */
+interface DiscoveredStates {
+  /**
+   * Adds the state to the set.
+   *
+   * @param state the state
+   * @return {@code true} iff no search-equivalent state was already present
+   */
+  boolean add(SearchState state);
+
+  /**
+   * An object identifying the state's equivalence class in this set. Search-equivalent states have
+   * equal keys; for inexact implementations, other states may as well.
+   *
+   * @param state the state
+   * @return the key
+   */
+  Object key(SearchState state);
+
+  /**
+   * A fingerprint of the state's equivalence class in this set, for bookkeeping kept alongside it.
+   *
+   * @param state the state
+   * @return the fingerprint
+   */
+  default long fingerprint(SearchState state) {
+    return state.fingerprint();
+  }
+
+  /**
+   * The number of distinct states in the set.
+   *
+   * @return the number of states
+   */
+  long size();
+
+  /**
+   * An estimate of the probability that at least one state added so far was mistaken for one
+   * already in the set, and therefore not explored.
+   *
+   * @return the probability, or 0 if the set is exact
+   */
+  default double omissionProbability() {
+    return 0;
+  }
+
+  /**
+   * An estimate of the memory used by the set itself, not counting any states it retains.
+   *
+   * @return the number of bytes, or -1 if unknown
+   */
+  default long sizeInBytes() {
+    return -1;
+  }
+
+  /**
+   * Writes the contents of the set to a checkpoint. Must not be called concurrently with {@link
+   * #add(SearchState)}.
+   *
+   * @param out the checkpoint
+   */
+  void save(ObjectOutputStream out) throws IOException;
+
+  /**
+   * Adds the contents written by {@link #save(ObjectOutputStream)} to the set, which must be empty
+   * and created with the same settings.
+   *
+   * @param in the checkpoint
+   */
+  void load(ObjectInputStream in) throws IOException, ClassNotFoundException;
+
+  static DiscoveredStates create(SearchSettings settings) {
+    final DiscoveredStates discovered =
+        switch (settings.visitedStates()) {
+          case EXACT -> new Exact();
+          case FINGERPRINT -> new Fingerprinted();
+          case BITSTATE -> new Bitstate(settings.bitstateMB());
+        };
+
+    if (settings.symmetryReduced()) {
+      return new Symmetric(discovered, new Symmetry(settings.symmetryGroups()));
+    }
+    return discovered;
+  }
+
+  /** Retains every discovered state and compares them with {@code equals}. */
+  final class Exact implements DiscoveredStates {
+    private final Set<SearchEquivalenceWrappedSearchState> states =
+        Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    @Override
+    public boolean add(SearchState state) {
+      return states.add(state.wrapped());
+    }
+
+    @Override
+    public Object key(SearchState state) {
+      return state.wrapped();
+    }
+
+    @Override
+    public long size() {
+      return states.size();
+    }
+
+    @Override
+    public void save(ObjectOutputStream out) throws IOException {
+      out.writeObject(new ArrayList<>(states));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      states.addAll((List<SearchEquivalenceWrappedSearchState>) in.readObject());
+    }
+  }
+
+  /** Considers states equivalent if they are equivalent up to the declared symmetries. */
+  final class Symmetric implements DiscoveredStates {
+    private final DiscoveredStates canonicalStates;
+    private final Symmetry symmetry;
+
+    private Symmetric(DiscoveredStates canonicalStates, Symmetry symmetry) {
+      this.canonicalStates = canonicalStates;
+      this.symmetry = symmetry;
+    }
+
+    @Override
+    public boolean add(SearchState state) {
+      return canonicalStates.add(symmetry.canonicalize(state));
+    }
+
+    @Override
+    public Object key(SearchState state) {
+      return canonicalStates.key(symmetry.canonicalize(state));
+    }
+
+    @Override
+    public long fingerprint(SearchState state) {
+      return canonicalStates.fingerprint(symmetry.canonicalize(state));
+    }
+
+    @Override
+    public long size() {
+      return canonicalStates.size();
+    }
+
+    @Override
+    public double omissionProbability() {
+      return canonicalStates.omissionProbability();
+    }
+
+    @Override
+    public long sizeInBytes() {
+      return canonicalStates.sizeInBytes();
+    }
+
+    @Override
+    public void save(ObjectOutputStream out) throws IOException {
+      canonicalStates.save(out);
+    }
+
+    @Override
+    public void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      canonicalStates.load(in);
+    }
+  }
+
+  /**
+   * Only retains a 64-bit fingerprint of each discovered state. Fingerprints are built out of
+   * 32-bit component hashes (see {@link SearchState#fingerprint()}), so the number of distinct
+   * component hashes seen is estimated as well, to account for collisions between them.
+   */
+  final class Fingerprinted implements DiscoveredStates {
+    private final FingerprintSet fingerprints = new FingerprintSet();
+    private final HyperLogLog components = new HyperLogLog();
+
+    @Override
+    public boolean add(SearchState state) {
+      if (!fingerprints.add(state.fingerprint())) {
+        return false;
+      }
+      state.componentHashes(components::add);
+      return true;
+    }
+
+    @Override
+    public Object key(SearchState state) {
+      return state.fingerprint();
+    }
+
+    @Override
+    public long size() {
+      return fingerprints.size();
+    }
+
+    @Override
+    public double omissionProbability() {
+      // The chance that any two of the states added share a fingerprint (the birthday bound), or
+      // that any two distinct components share a 32-bit hash, which may make two states do so. The
+      // latter counts every pair of components, not just those of the same node, but assumes their
+      // hashes behave like random values, which systematic collisions do not.
+      final double n = fingerprints.size(), c = components.estimate();
+      return -Math.expm1(-n * n * 0x1.0p-65 - c * c * 0x1.0p-33);
+    }
+
+    @Override
+    public long sizeInBytes() {
+      return fingerprints.sizeInBytes();
+    }
+
+    @Override
+    public void save(ObjectOutputStream out) throws IOException {
+      fingerprints.save(out);
+      components.save(out);
+    }
+
+    @Override
+    public void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      fingerprints.load(in);
+      components.load(in);
+    }
+  }
+
+  /** Sets a few bits per discovered state in a fixed-size bit array; see {@link BitstateSet}. */
+  final class Bitstate implements DiscoveredStates {
+    private final BitstateSet bits;
+
+    private Bitstate(int megabytes) {
+      bits = new BitstateSet(megabytes);
+    }
+
+    @Override
+    public boolean add(SearchState state) {
+      return bits.add(state.fingerprint());
+    }
+
+    @Override
+    public Object key(SearchState state) {
+      return state.fingerprint();
+    }
+
+    @Override
+    public long size() {
+      return bits.size();
+    }
+
+    @Override
+    public double omissionProbability() {
+      return bits.omissionProbability();
+    }
+
+    @Override
+    public long sizeInBytes() {
+      return bits.numBits() / 8;
+    }
+
+    @Override
+    public void save(ObjectOutputStream out) throws IOException {
+      bits.save(out);
+    }
+
+    @Override
+    public void load(ObjectInputStream in) throws IOException {
+      bits.load(in);
+    }
+  }
+}
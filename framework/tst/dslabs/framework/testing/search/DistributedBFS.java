@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.utils.Cloning;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.java.Log;
+
+/**
+ * A breadth-first search spread across several worker JVMs, which are started on this machine and
+ * connect to this one (the coordinator) and to each other over loopback TCP. See {@link
+ * SearchSettings#distributedWorkers()}.
+ *
+ * <p>Each worker owns the states whose keys in the discovered set (see {@link
+ * DiscoveredStates#key(SearchState)}) hash to its index, and keeps the discovered set for them. The
+ * search proceeds one level at a time. Workers check and expand the states they were sent for the
+ * current level and send each successor, serialized along with the events leading to it from the
+ * initial state, directly to its owner, in batches. Once every worker has finished the level, the
+ * coordinator starts the next one. Each worker reports the shallowest terminal state it found in
+ * the level (states in the level itself beat exceptions thrown by their successors), and the
+ * coordinator takes the shallowest of those, so terminal states are still found at the minimum
+ * depth.
+ *
+ * <p>Workers report terminal states as event paths. The coordinator replays them from its initial
+ * state and checks them again, so results have complete traces (which can be saved as {@link
+ * SerializableTrace}s).
+ *
+ * <p>Other local users can connect to the ports the coordinator and workers listen on. Every
+ * connection must therefore start with a random token, which the coordinator passes to the workers
+ * it starts in their environment; connections without it are closed before anything is deserialized
+ * from them. Deserialization is further restricted by {@link #FILTER}.
+ *
+ * <p>Hash codes which are not stable across JVMs (e.g., those of enums) can cause a state to be
+ * owned by more than one worker. Such states are explored more than once, but the search is
+ * otherwise unaffected. Does not support partial-order reduction, spilling the frontier to disk, or
+ * checkpoints.
+ */
+@Log
+class DistributedBFS extends Search {
+  static final int BATCH_SIZE = 256;
+  static final int CONNECT_TIMEOUT_MILLIS = 60 * 1000;
+
+  /** The environment variable through which workers receive the token, hex-encoded. */
+  static final String TOKEN_VARIABLE = "DSLABS_SEARCH_TOKEN";
+
+  private static final int TOKEN_BYTES = 32;
+
+  /**
+   * The classes the coordinator and workers deserialize from each other: the framework's and the
+   * labs', and the JDK and library classes states are built from. Anything else is rejected before
+   * it is instantiated.
+   */
+  static final ObjectInputFilter FILTER =
+      ObjectInputFilter.Config.createFilter(
+          "dslabs.**;java.lang.*;java.lang.invoke.SerializedLambda;java.util.**;java.time.*;"
+              + "java.math.*;com.google.common.**;org.apache.commons.lang3.**;!*");
+
+  /** Messages exchanged between the coordinator and its workers. */
+  sealed interface Packet extends Serializable {}
+
+  /**
+   * Sent by a worker when it connects to the coordinator.
+   *
+   * @param peerPort the port the worker accepts connections from the other workers on
+   */
+  record Hello(int worker, int peerPort) implements Packet {}
+
+  /** Sent to each worker once all of them have connected. */
+  record Init(
+      int worker,
+      int numWorkers,
+      List<Integer> peerPorts,
+      SearchSettings settings,
+      SearchState initialState,
+      int initialDepth)
+      implements Packet {}
+
+  /** A state to check and expand, along with the events leading to it from the initial state. */
+  @Value
+  static class Candidate implements Serializable {
+    byte[] state;
+    List<Event> path;
+  }
+
+  /**
+   * Sent by workers to the owner of the states, and by the coordinator to the owner of the initial
+   * state.
+   */
+  record Candidates(List<Candidate> candidates) implements Packet {}
+
+  /** Sent by a worker to every other worker after the last of its successors for a level. */
+  record LevelSent() implements Packet {}
+
+  /** Tells the workers to check and expand the states they have been sent. */
+  record StartLevel() implements Packet {}
+
+  /**
+   * Sent by a worker once it has finished a level.
+   *
+   * @param explored the number of new states checked
+   * @param sent the number of successors sent to the next level
+   * @param terminalPath the events leading to the shallowest terminal state the worker found, or
+   *     {@code null} if it found none
+   */
+  record LevelDone(int worker, long explored, long sent, List<Event> terminalPath)
+      implements Packet {}
+
+  record Shutdown() implements Packet {}
+
+  /** One end of a connection between the coordinator and a worker, or between two workers. */
+  static final class Connection implements Closeable {
+    private final Socket socket;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      socket.setTcpNoDelay(true);
+      out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      out.flush();
+      in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+      in.setObjectInputFilter(FILTER);
+    }
+
+    /** Connects to the port on the loopback interface, presenting the token. */
+    static Connection connect(int port, byte[] token) throws IOException {
+      final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      try {
+        socket.getOutputStream().write(token);
+        return new Connection(socket);
+      } catch (IOException e) {
+        socket.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Accepts the next connection which presents the token, closing any which do not before reading
+     * anything else from them.
+     *
+     * @throws java.net.SocketTimeoutException if the server's timeout expires first
+     */
+    static Connection accept(ServerSocket server, byte[] token) throws IOException {
+      while (true) {
+        final Socket socket = server.accept();
+        try {
+          socket.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+          if (MessageDigest.isEqual(socket.getInputStream().readNBytes(token.length), token)) {
+            socket.setSoTimeout(0);
+            return new Connection(socket);
+          }
+          LOG.warning("Rejected a connection which did not present the search's token");
+        } catch (IOException e) {
+          LOG.warning("Rejected a connection which failed to authenticate: " + e);
+        }
+        socket.close();
+      }
+    }
+
+    /** Thread-safe. */
+    synchronized void send(Packet packet) throws IOException {
+      out.writeObject(packet);
+      out.reset();
+      out.flush();
+    }
+
+    /** Should only be called by a single thread. */
+    Packet receive() throws IOException, ClassNotFoundException {
+      return (Packet) in.readObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+
+  /** Deserializes a state sent by another JVM, subject to {@link #FILTER}. */
+  static SearchState deserialize(byte[] state) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+      in.setObjectInputFilter(FILTER);
+      return (SearchState) in.readObject();
+    }
+  }
+
+  private final int numWorkers;
+  private final byte[] token = new byte[TOKEN_BYTES];
+  private final DiscoveredStates keys;
+  private final List<Process> processes = new ArrayList<>();
+  private final List<Connection> connections = new ArrayList<>();
+  private final BlockingQueue<LevelDone> levelsDone = new LinkedBlockingQueue<>();
+
+  private SearchState initialState;
+  private long startTimeMillis;
+  private boolean driverStarted = false;
+
+  private volatile boolean stopped = false, exhausted = false;
+  private volatile Throwable failure;
+
+  private final AtomicLong states = new AtomicLong();
+  private final AtomicInteger depth = new AtomicInteger();
+
+  DistributedBFS(SearchSettings settings) {
+    super(settings);
+    numWorkers = settings.distributedWorkers();
+    // Never added to, only used to assign states to workers
+    keys = DiscoveredStates.create(settings);
+    new SecureRandom().nextBytes(token);
+  }
+
+  @Override
+  protected String searchType() {
+    return "distributed breadth-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Depth: %s, Workers: %s (%.2fs, %.2fK states/s)",
+        explored, depth.get(), numWorkers, elapsedSecs, explored / elapsedSecs / 1000.0);
+  }
+
+  static int owner(DiscoveredStates discovered, SearchState state, int numWorkers) {
+    return Math.floorMod(discovered.key(state).hashCode(), numWorkers);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    this.initialState = initialState;
+    startTimeMillis = System.currentTimeMillis();
+    depth.set(initialState.depth());
+
+    try (ServerSocket server = new ServerSocket(0, numWorkers, InetAddress.getLoopbackAddress())) {
+      server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+      for (int i = 0; i < numWorkers; i++) {
+        processes.add(startWorker(server.getLocalPort(), i));
+      }
+
+      final Connection[] accepted = new Connection[numWorkers];
+      final Integer[] peerPorts = new Integer[numWorkers];
+      for (int i = 0; i < numWorkers; i++) {
+        final Connection connection = Connection.accept(server, token);
+        connections.add(connection);
+        if (!(connection.receive() instanceof Hello hello)) {
+          throw new IOException("Worker did not introduce itself");
+        }
+        final int worker = hello.worker();
+        if (worker < 0 || worker >= numWorkers || accepted[worker] != null) {
+          throw new IOException("Worker sent an invalid index: " + worker);
+        }
+        accepted[worker] = connection;
+        peerPorts[worker] = hello.peerPort();
+      }
+      connections.clear();
+      Collections.addAll(connections, accepted);
+
+      for (int i = 0; i < numWorkers; i++) {
+        final Connection connection = connections.get(i);
+        connection.send(
+            new Init(
+                i, numWorkers, List.of(peerPorts), settings, initialState, initialState.depth()));
+        final Thread reader =
+            new Thread(() -> readReports(connection), "distributed-search-reader-" + i);
+        reader.setDaemon(true);
+        reader.start();
+      }
+
+      connections
+          .get(owner(keys, initialState, numWorkers))
+          .send(
+              new Candidates(
+                  List.of(
+                      new Candidate(Cloning.serialize(initialState), Collections.emptyList()))));
+    } catch (IOException | ClassNotFoundException e) {
+      finishSearch();
+      throw new UncheckedIOException(
+          "Could not start distributed search workers",
+          e instanceof IOException ioe ? ioe : new IOException(e));
+    }
+  }
+
+  private Process startWorker(int port, int index) throws IOException {
+    final List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+      // Pass on heap sizes, properties, assertions, and module options, but not debugger agents
+      if (arg.startsWith("-Xm")
+          || arg.startsWith("-D")
+          || arg.startsWith("-ea")
+          || arg.startsWith("--add-opens")
+          || arg.startsWith("--add-exports")) {
+        command.add(arg);
+      }
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(DistributedBFSWorker.class.getName());
+    command.add(Integer.toString(port));
+    command.add(Integer.toString(index));
+    // Not on the command line, which other local users can read
+    final ProcessBuilder builder = new ProcessBuilder(command).inheritIO();
+    builder.environment().put(TOKEN_VARIABLE, HexFormat.of().formatHex(token));
+    return builder.start();
+  }
+
+  /** Reads everything a worker sends the coordinator. */
+  private void readReports(Connection connection) {
+    try {
+      while (true) {
+        if (!(connection.receive() instanceof LevelDone levelDone)) {
+          throw new IllegalStateException("Unexpected message from worker");
+        }
+        levelsDone.add(levelDone);
+      }
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      if (!stopped) {
+        failure = e;
+      }
+    }
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    return exhausted || failure != null;
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    if (driverStarted) {
+      return null;
+    }
+    driverStarted = true;
+    return this::drive;
+  }
+
+  /** Runs the search, one level at a time, until it is over. */
+  private void drive() {
+    try {
+      for (int level = 0; !stopped; level++) {
+        for (Connection connection : connections) {
+          connection.send(new StartLevel());
+        }
+
+        long sent = 0;
+        final List<LevelDone> terminal = new ArrayList<>();
+        for (int received = 0; received < numWorkers; ) {
+          final LevelDone done = levelsDone.poll(100, TimeUnit.MILLISECONDS);
+          if (done == null) {
+            if (failure != null || Thread.currentThread().isInterrupted()) {
+              return;
+            }
+            continue;
+          }
+          received++;
+          states.addAndGet(done.explored());
+          sent += done.sent();
+          if (done.terminalPath() != null) {
+            terminal.add(done);
+          }
+        }
+        depth.set(initialState.depth() + level);
+
+        // Among equally shallow terminal states, take the lowest-indexed worker's, so that the
+        // result does not depend on which worker finished first
+        final LevelDone shallowest =
+            terminal.stream()
+                .min(
+                    Comparator.comparingInt((LevelDone d) -> d.terminalPath().size())
+                        .thenComparingInt(LevelDone::worker))
+                .orElse(null);
+        if (shallowest != null && reportTerminal(shallowest.terminalPath())) {
+          stopped = true;
+          return;
+        }
+        if (sent == 0) {
+          exhausted = true;
+          return;
+        }
+        if (settings.timeLimited()
+            && System.currentTimeMillis() - startTimeMillis > settings.maxTimeSecs() * 1000L) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Replays a terminal state found by a worker and records it in the results. */
+  private boolean reportTerminal(List<Event> path) {
+    SearchState s = initialState;
+    for (Event e : path) {
+      s = s.stepEvent(e, settings, true);
+      if (s == null) {
+        LOG.severe("Could not replay " + e + " from a terminal state's trace; ignoring it");
+        return false;
+      }
+    }
+    return checkState(s, false).equals(StateStatus.TERMINAL);
+  }
+
+  @Override
+  protected void finishSearch() {
+    stopped = true;
+
+    for (Connection connection : connections) {
+      try {
+        connection.send(new Shutdown());
+        connection.close();
+      } catch (IOException ignored) {
+        // The worker is already gone
+      }
+    }
+
+    for (Process process : processes) {
+      try {
+        if (!process.waitFor(5, TimeUnit.SECONDS)) {
+          process.destroyForcibly();
+        }
+      } catch (InterruptedException e) {
+        process.destroyForcibly();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (failure != null) {
+      throw new IllegalStateException("Distributed search failed", failure);
+    }
+  }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.search.DistributedBFS.Candidate;
+import dslabs.framework.testing.search.DistributedBFS.Candidates;
+import dslabs.framework.testing.search.DistributedBFS.Connection;
+import dslabs.framework.testing.search.DistributedBFS.Hello;
+import dslabs.framework.testing.search.DistributedBFS.Init;
+import dslabs.framework.testing.search.DistributedBFS.LevelDone;
+import dslabs.framework.testing.search.DistributedBFS.LevelSent;
+import dslabs.framework.testing.search.DistributedBFS.Packet;
+import dslabs.framework.testing.search.DistributedBFS.Shutdown;
+import dslabs.framework.testing.search.DistributedBFS.StartLevel;
+import dslabs.framework.testing.search.Search.StateStatus;
+import dslabs.framework.testing.utils.Cloning;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The entry point of the worker JVMs started by {@link DistributedBFS}. Checks and expands the
+ * states it owns, one level at a time, as directed by the coordinator, and sends successors
+ * straight to the workers which own them.
+ */
+public final class DistributedBFSWorker {
+  private final Connection coordinator;
+  private final int index, numWorkers, initialDepth;
+  private final List<Integer> peerPorts;
+  private final SearchSettings settings;
+  private final StateChecker checker;
+  private final SearchState initialState;
+  private final EventHistory initialHistory;
+  private final DiscoveredStates discovered;
+
+  /** Connections to the other workers, indexed by worker; {@code null} for this one. */
+  private final List<Connection> peers = new ArrayList<>();
+
+  /** Successors sent by the coordinator or the other workers for the next level. */
+  private final Queue<Candidate> incoming = new ConcurrentLinkedQueue<>();
+
+  /** Released by each other worker once it has sent all of its successors for a level. */
+  private final Semaphore levelsSent = new Semaphore(0);
+
+  private final BlockingQueue<Packet> commands = new LinkedBlockingQueue<>();
+
+  /** Successors owned by this worker, which need not be sent anywhere. */
+  private List<Candidate> ownSuccessors = new ArrayList<>();
+
+  private final List<List<Candidate>> outgoing = new ArrayList<>();
+
+  private boolean firstLevel = true;
+
+  private volatile Exception peerFailure;
+
+  public static void main(String[] args) throws Exception {
+    final int port = Integer.parseInt(args[0]), index = Integer.parseInt(args[1]);
+    final byte[] token = HexFormat.of().parseHex(System.getenv(DistributedBFS.TOKEN_VARIABLE));
+    try (ServerSocket peerServer = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      peerServer.setSoTimeout(DistributedBFS.CONNECT_TIMEOUT_MILLIS);
+      final Connection coordinator = Connection.connect(port, token);
+      coordinator.send(new Hello(index, peerServer.getLocalPort()));
+      final DistributedBFSWorker worker =
+          new DistributedBFSWorker(coordinator, (Init) coordinator.receive());
+      worker.connectPeers(peerServer, token);
+      worker.serve();
+    }
+    System.exit(0);
+  }
+
+  private DistributedBFSWorker(Connection coordinator, Init init) {
+    this.coordinator = coordinator;
+    index = init.worker();
+    numWorkers = init.numWorkers();
+    peerPorts = init.peerPorts();
+    initialDepth = init.initialDepth();
+    settings = init.settings();
+    // Terminal states are reported to the coordinator, which records them in its own results
+    checker = new StateChecker(settings, new SearchResults());
+    initialState = init.initialState();
+    initialHistory = EventHistory.of(initialState);
+    discovered = DiscoveredStates.create(settings);
+    for (int i = 0; i < numWorkers; i++) {
+      outgoing.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Connects to every other worker, to send it successors, and accepts a connection from each of
+   * them, to receive successors from it.
+   */
+  private void connectPeers(ServerSocket peerServer, byte[] token) throws IOException {
+    final Thread acceptor =
+        new Thread(
+            () -> {
+              try {
+                for (int i = 0; i < numWorkers - 1; i++) {
+                  final Connection peer = Connection.accept(peerServer, token);
+                  final Thread reader = new Thread(() -> readPeer(peer));
+                  reader.setDaemon(true);
+                  reader.start();
+                }
+              } catch (IOException e) {
+                failPeers(e);
+              }
+            });
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    for (int i = 0; i < numWorkers; i++) {
+      peers.add(i == index ? null : Connection.connect(peerPorts.get(i), token));
+    }
+  }
+
+  /** Reads the successors another worker sends, and the end of each of its levels. */
+  private void readPeer(Connection peer) {
+    try {
+      while (true) {
+        switch (peer.receive()) {
+          case Candidates candidates -> incoming.addAll(candidates.candidates());
+          case LevelSent ignored -> levelsSent.release();
+          default -> throw new IllegalStateException("Unexpected message from worker");
+        }
+      }
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // Also the normal way of noticing that the other worker exited
+      failPeers(e);
+    }
+  }
+
+  private void failPeers(Exception e) {
+    peerFailure = e;
+    // Wake up a level waiting on the peers
+    levelsSent.release(numWorkers);
+  }
+
+  private void serve() throws IOException, InterruptedException {
+    final Thread reader =
+        new Thread(
+            () -> {
+              try {
+                while (true) {
+                  final Packet packet = coordinator.receive();
+                  if (packet instanceof Candidates candidates) {
+                    incoming.addAll(candidates.candidates());
+                  } else {
+                    commands.add(packet);
+                  }
+                }
+              } catch (IOException | ClassNotFoundException e) {
+                commands.add(new Shutdown());
+              }
+            });
+    reader.setDaemon(true);
+    reader.start();
+
+    while (true) {
+      switch (commands.take()) {
+        case StartLevel ignored -> runLevel();
+        case Shutdown ignored -> {
+          return;
+        }
+        default -> throw new IllegalStateException("Unexpected message from coordinator");
+      }
+    }
+  }
+
+  private void runLevel() throws IOException, InterruptedException {
+    // The coordinator only starts a level once every worker has finished the previous one, and
+    // each worker sends its successors to a peer before telling it that it is done
+    if (!firstLevel) {
+      levelsSent.acquire(numWorkers - 1);
+    }
+    firstLevel = false;
+    if (peerFailure != null) {
+      throw new IOException("Lost the connection to another worker", peerFailure);
+    }
+
+    final List<Candidate> level = ownSuccessors;
+    ownSuccessors = new ArrayList<>();
+    for (Candidate c; (c = incoming.poll()) != null; ) {
+      level.add(c);
+    }
+
+    long explored = 0, sent = 0;
+    // The shallowest terminal state found so far. A successor's exception is one level deeper than
+    // the states in this level, so the rest of them are still checked.
+    List<Event> terminalPath = null;
+
+    for (Candidate candidate : level) {
+      final SearchState state = restore(candidate);
+      if (!discovered.add(state)) {
+        continue;
+      }
+      explored++;
+
+      final StateStatus status = checker.check(state, false);
+      if (status.equals(StateStatus.TERMINAL)) {
+        // No state this worker could find is shallower
+        terminalPath = candidate.path();
+        break;
+      }
+      // For now, don't consider PRUNED initial states
+      if (status.equals(StateStatus.PRUNED) && !candidate.path().isEmpty()) {
+        continue;
+      }
+
+      try (EventBuffer events = EventBuffer.acquire()) {
+        state.events(settings, events);
+        for (int i = 0; i < events.size(); i++) {
+          final Event event = events.get(i);
+          final SearchState successor = state.stepEvent(event, settings, true);
+          if (successor == null) {
+            continue;
+          }
+
+          final List<Event> path = new ArrayList<>(candidate.path().size() + 1);
+          path.addAll(candidate.path());
+          path.add(event);
+
+          // Thrown exceptions are not serialized with states, so check for them here
+          if (successor.thrownException() != null
+              && checker.check(successor, false).equals(StateStatus.TERMINAL)) {
+            if (terminalPath == null) {
+              terminalPath = path;
+            }
+            continue;
+          }
+
+          send(
+              DistributedBFS.owner(discovered, successor, numWorkers),
+              new Candidate(Cloning.serialize(successor), path));
+          sent++;
+        }
+      }
+    }
+
+    for (int owner = 0; owner < numWorkers; owner++) {
+      if (owner != index) {
+        flush(owner);
+        peers.get(owner).send(new LevelSent());
+      }
+    }
+    coordinator.send(new LevelDone(index, explored, sent, terminalPath));
+  }
+
+  private SearchState restore(Candidate candidate) throws IOException {
+    final List<Event> path = candidate.path();
+    if (path.isEmpty()) {
+      return initialState;
+    }
+
+    EventHistory history = initialHistory;
+    for (Event e : path) {
+      history = history.append(e);
+    }
+    final SearchState restored;
+    try {
+      restored = DistributedBFS.deserialize(candidate.state());
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Could not deserialize a state", e);
+    }
+    return SearchState.restore(
+        restored,
+        history,
+        path.get(path.size() - 1),
+        initialDepth + path.size(),
+        new HashSet<>(),
+        new HashSet<>());
+  }
+
+  private void send(int owner, Candidate candidate) throws IOException {
+    if (owner == index) {
+      ownSuccessors.add(candidate);
+      return;
+    }
+    final List<Candidate> batch = outgoing.get(owner);
+    batch.add(candidate);
+    if (batch.size() >= DistributedBFS.BATCH_SIZE) {
+      flush(owner);
+    }
+  }
+
+  private void flush(int owner) throws IOException {
+    final List<Candidate> batch = outgoing.get(owner);
+    if (!batch.isEmpty()) {
+      peers.get(owner).send(new Candidates(new ArrayList<>(batch)));
+      batch.clear();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A reusable buffer for the events which can be taken from a state, so that expanding a state does
+ * not allocate a new collection of events. Each thread has its own buffer, obtained with {@link
+ * #acquire()} and returned by {@link #close()}:
+ *
+ * <pre>{@code
+ * try (EventBuffer events = EventBuffer.acquire()) {
+ *   state.events(settings, events);
+ *   for (int i = 0; i < events.size(); i++) {
+ *     ... events.get(i) ...
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>This datastructure is not threadsafe.
+ */
+final class EventBuffer implements AutoCloseable {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private static final ThreadLocal<EventBuffer> buffers = ThreadLocal.withInitial(EventBuffer::new);
+
+  private Event[] events = new Event[INITIAL_CAPACITY];
+  private int size = 0;
+  private boolean inUse = false;
+
+  /**
+   * Returns the current thread's buffer, empty. If that buffer is already in use further up the
+   * stack, returns a fresh one instead.
+   *
+   * @return the buffer, which must be closed once the events are no longer needed
+   */
+  static EventBuffer acquire() {
+    EventBuffer buffer = buffers.get();
+    if (buffer.inUse) {
+      buffer = new EventBuffer();
+    }
+    buffer.inUse = true;
+    return buffer;
+  }
+
+  void add(Event event) {
+    if (size == events.length) {
+      events = Arrays.copyOf(events, 2 * size);
+    }
+    events[size++] = event;
+  }
+
+  int size() {
+    return size;
+  }
+
+  Event get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return events[index];
+  }
+
+  /**
+   * Shuffles the events in place.
+   *
+   * @param random the source of randomness
+   */
+  void shuffle(RandomGenerator random) {
+    for (int i = size - 1; i > 0; i--) {
+      final int j = random.nextInt(i + 1);
+      final Event e = events[i];
+      events[i] = events[j];
+      events[j] = e;
+    }
+  }
+
+  /** Empties the buffer, dropping its references to the events, and returns it to its thread. */
+  @Override
+  public void close() {
+    Arrays.fill(events, 0, size, null);
+    size = 0;
+    inUse = false;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The events leading from some initial {@link SearchState} to another state. Stored as an immutable
+ * linked list, so the history of a state shares all but its last event with the history of its
+ * predecessor.
+ *
+ * <p>Unlike the chain of predecessors, a history does not keep any intermediate states alive. A
+ * state whose predecessor has been released (see {@link SearchState#releasePrevious()}) uses its
+ * history to reconstruct its trace by replaying the events from the initial state.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class EventHistory {
+  @Getter private final SearchState initialState;
+  @Getter private final EventHistory parent;
+  @Getter private final Event lastEvent;
+  @Getter private final int length;
+
+  static EventHistory of(@NonNull SearchState initialState) {
+    return new EventHistory(initialState, null, null, 0);
+  }
+
+  EventHistory append(@NonNull Event event) {
+    return new EventHistory(initialState, this, event, length + 1);
+  }
+
+  List<Event> events() {
+    final Event[] events = new Event[length];
+    for (EventHistory h = this; h.parent != null; h = h.parent) {
+      events[h.length - 1] = h.lastEvent;
+    }
+    return Arrays.asList(events);
+  }
+
+  /**
+   * Replays the events from the initial state. The resulting state references all of its
+   * predecessors.
+   *
+   * @return a fresh copy of the state this history leads to
+   * @throws IllegalStateException if one of the events cannot be replayed
+   */
+  SearchState replay() {
+    SearchState state = initialState;
+    for (Event event : events()) {
+      final SearchState next = state.stepEvent(event, null, true);
+      if (next == null) {
+        throw new IllegalStateException("Could not replay " + event + " from " + state);
+      }
+      state = next;
+    }
+    return state;
+  }
+}
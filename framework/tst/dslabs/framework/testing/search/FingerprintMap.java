@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package dslabs.framework.testing.search;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * A map from 64-bit state fingerprints to {@code long} values, stored in primitive, open-addressing
+ * hash tables like {@link FingerprintSet}. Each entry costs 16 bytes (plus slack for empty slots),
+ * so searches can keep per-state bookkeeping without keeping the states themselves alive.
+ *
+ * <p>Distinct states with the same fingerprint share an entry.
+ *
+ * <p>Safe for concurrent access.
+ */
+final class FingerprintMap {
+  private static final int SEGMENT_BITS = 6;
+  private static final int NUM_SEGMENTS = 1 << SEGMENT_BITS;
+  private static final int INITIAL_SEGMENT_CAPACITY = 1 << 8;
+  private static final double MAX_LOAD_FACTOR = 0.7;
+
+  /** Slots holding 0 are empty, so the (single) fingerprint 0 is stored as this value instead. */
+  private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+  private static final class Segment {
+    private long[] keys = new long[INITIAL_SEGMENT_CAPACITY];
+    private long[] values = new long[INITIAL_SEGMENT_CAPACITY];
+    private int size = 0;
+
+    synchronized long get(long fingerprint, long defaultValue) {
+      final int i = find(keys, fingerprint);
+      return keys[i] == 0 ? defaultValue : values[i];
+    }
+
+    synchronized void put(long fingerprint, long value) {
+      final int i = find(keys, fingerprint);
+      if (keys[i] == 0) {
+        add(i, fingerprint, value);
+      } else {
+        values[i] = value;
+      }
+    }
+
+    synchronized boolean lower(long fingerprint, long value) {
+      final int i = find(keys, fingerprint);
+      if (keys[i] == 0) {
+        add(i, fingerprint, value);
+        return true;
+      }
+      if (value < values[i]) {
+        values[i] = value;
+        return true;
+      }
+      return false;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void save(ObjectOutputStream out) throws IOException {
+      out.writeInt(size);
+      out.writeObject(keys);
+      out.writeObject(values);
+    }
+
+    synchronized void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      size = in.readInt();
+      keys = (long[]) in.readObject();
+      values = (long[]) in.readObject();
+    }
+
+    private void add(int i, long fingerprint, long value) {
+      keys[i] = fingerprint;
+      values[i] = value;
+      size++;
+      if (size > keys.length * MAX_LOAD_FACTOR) {
+        resize();
+      }
+    }
+
+    private void resize() {
+      final long[] newKeys = new long[keys.length * 2], newValues = new long[keys.length * 2];
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] != 0) {
+          final int j = find(newKeys, keys[i]);
+          newKeys[j] = keys[i];
+          newValues[j] = values[i];
+        }
+      }
+      keys = newKeys;
+      values = newValues;
+    }
+
+    /** The slot holding the fingerprint, or the empty slot where it would be inserted. */
+    private static int find(long[] keys, long fingerprint) {
+      final int mask = keys.length - 1;
+      // The high bits pick the segment, so index with the low bits
+      for (int i = (int) fingerprint & mask; ; i = (i + 1) & mask) {
+        final long f = keys[i];
+        if (f == fingerprint || f == 0) {
+          return i;
+        }
+      }
+    }
+  }
+
+  private final Segment[] segments = new Segment[NUM_SEGMENTS];
+
+  FingerprintMap() {
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      segments[i] = new Segment();
+    }
+  }
+
+  private static long normalize(long fingerprint) {
+    return fingerprint == 0 ? ZERO_REPLACEMENT : fingerprint;
+  }
+
+  private Segment segment(long fingerprint) {
+    return segments[(int) (fingerprint >>> (Long.SIZE - SEGMENT_BITS))];
+  }
+
+  /**
+   * The value associated with the fingerprint.
+   *
+   * @param fingerprint the fingerprint
+   * @param defaultValue the value to return if there is none
+   * @return the value, or {@code defaultValue}
+   */
+  long get(long fingerprint, long defaultValue) {
+    fingerprint = normalize(fingerprint);
+    return segment(fingerprint).get(fingerprint, defaultValue);
+  }
+
+  void put(long fingerprint, long value) {
+    fingerprint = normalize(fingerprint);
+    segment(fingerprint).put(fingerprint, value);
+  }
+
+  /**
+   * Associates the value with the fingerprint, unless it already has a value no larger.
+   *
+   * @param fingerprint the fingerprint
+   * @param value the value
+   * @return {@code true} iff the value was stored
+   */
+  boolean lower(long fingerprint, long value) {
+    fingerprint = normalize(fingerprint);
+    return segment(fingerprint).lower(fingerprint, value);
+  }
+
+  long size() {
+    long size = 0;
+    for (Segment s : segments) {
+      size += s.size();
+    }
+    return size;
+  }
+
+  /** Writes the contents of the map to a checkpoint. */
+  void save(ObjectOutputStream out) throws IOException {
+    for (Segment s : segments) {
+      s.save(out);
+    }
+  }
+
+  /** Replaces the contents of the map with those written by {@link #save(ObjectOutputStream)}. */
+  void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    for (Segment s : segments) {
+      s.load(in);
+    }
+  }
+}
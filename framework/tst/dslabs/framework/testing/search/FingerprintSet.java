@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * A set of 64-bit state fingerprints stored in primitive, open-addressing hash tables. Each
+ * fingerprint costs 8 bytes (plus slack for empty slots), instead of keeping the whole state alive.
+ *
+ * <p>The table is split into independently locked segments, selected by the high bits of the
+ * fingerprint, so concurrent adds rarely contend. Fingerprints are assumed to be well-mixed already
+ * (see {@link Fingerprints}).
+ *
+ * <p>Safe for concurrent access.
+ */
+final class FingerprintSet {
+  private static final int SEGMENT_BITS = 6;
+  private static final int NUM_SEGMENTS = 1 << SEGMENT_BITS;
+  private static final int INITIAL_SEGMENT_CAPACITY = 1 << 10;
+  private static final double MAX_LOAD_FACTOR = 0.7;
+
+  /** Slots holding 0 are empty, so the (single) fingerprint 0 is stored as this value instead. */
+  private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+
+  private static final class Segment {
+    private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+    private int size = 0;
+
+    synchronized boolean add(long fingerprint) {
+      if (!insert(table, fingerprint)) {
+        return false;
+      }
+      size++;
+      if (size > table.length * MAX_LOAD_FACTOR) {
+        resize();
+      }
+      return true;
+    }
+
+    synchronized boolean contains(long fingerprint) {
+      final int mask = table.length - 1;
+      for (int i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+        final long f = table[i];
+        if (f == fingerprint) {
+          return true;
+        }
+        if (f == 0) {
+          return false;
+        }
+      }
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized int capacity() {
+      return table.length;
+    }
+
+    synchronized void save(ObjectOutputStream out) throws IOException {
+      out.writeInt(size);
+      out.writeObject(table);
+    }
+
+    synchronized void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      size = in.readInt();
+      table = (long[]) in.readObject();
+    }
+
+    private void resize() {
+      final long[] newTable = new long[table.length * 2];
+      for (long f : table) {
+        if (f != 0) {
+          insert(newTable, f);
+        }
+      }
+      table = newTable;
+    }
+
+    private static boolean insert(long[] table, long fingerprint) {
+      final int mask = table.length - 1;
+      for (int i = slot(fingerprint, mask); ; i = (i + 1) & mask) {
+        final long f = table[i];
+        if (f == fingerprint) {
+          return false;
+        }
+        if (f == 0) {
+          table[i] = fingerprint;
+          return true;
+        }
+      }
+    }
+
+    private static int slot(long fingerprint, int mask) {
+      // The high bits pick the segment, so index with the low bits
+      return (int) fingerprint & mask;
+    }
+  }
+
+  private final Segment[] segments = new Segment[NUM_SEGMENTS];
+
+  FingerprintSet() {
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      segments[i] = new Segment();
+    }
+  }
+
+  private static long normalize(long fingerprint) {
+    return fingerprint == 0 ? ZERO_REPLACEMENT : fingerprint;
+  }
+
+  private Segment segment(long fingerprint) {
+    return segments[(int) (fingerprint >>> (Long.SIZE - SEGMENT_BITS))];
+  }
+
+  /**
+   * Adds the fingerprint to the set.
+   *
+   * @param fingerprint the fingerprint
+   * @return {@code true} iff the fingerprint was not already present
+   */
+  boolean add(long fingerprint) {
+    fingerprint = normalize(fingerprint);
+    return segment(fingerprint).add(fingerprint);
+  }
+
+  boolean contains(long fingerprint) {
+    fingerprint = normalize(fingerprint);
+    return segment(fingerprint).contains(fingerprint);
+  }
+
+  long size() {
+    long size = 0;
+    for (Segment s : segments) {
+      size += s.size();
+    }
+    return size;
+  }
+
+  /** Writes the contents of the set to a checkpoint. */
+  void save(ObjectOutputStream out) throws IOException {
+    for (Segment s : segments) {
+      s.save(out);
+    }
+  }
+
+  /** Replaces the contents of the set with those written by {@link #save(ObjectOutputStream)}. */
+  void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    for (Segment s : segments) {
+      s.load(in);
+    }
+  }
+
+  /** The approximate number of bytes used by the tables backing this set. */
+  long sizeInBytes() {
+    long bytes = 0;
+    for (Segment s : segments) {
+      bytes += (long) s.capacity() * Long.BYTES;
+    }
+    return bytes;
+  }
+}
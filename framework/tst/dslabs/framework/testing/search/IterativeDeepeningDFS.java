@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iterative-deepening depth-first search. Runs depth-bounded depth-first searches with the bound
+ * increasing by one each iteration, until a terminal state is found, an iteration is not cut off by
+ * the bound, or the bound reaches the {@link SearchSettings#maxDepth(int) maximum depth}. Like
+ * {@link BFS}, the first terminal state found is at the minimum possible depth, but only the
+ * current path (and the events not yet taken from each state on it) is kept in memory, along with
+ * the record of visited states.
+ *
+ * <p>States are checked the first time they are discovered, in any iteration. Each visited state
+ * records the shallowest depth it was expanded at in the current iteration, and is expanded again
+ * only if reached at a shallower depth. A state whose whole subtree was explored without being cut
+ * off by the bound is marked complete and never expanded again in later iterations. An edge back to
+ * a state on the current path is not a cutoff; states whose subtrees reach back to an ancestor are
+ * marked complete along with that ancestor, or not at all.
+ *
+ * <p>Visits are recorded in a {@link FingerprintMap} keyed by the states' fingerprints, whatever
+ * the configured {@link SearchSettings#visitedStates()}, so distinct states with the same
+ * fingerprint share a record.
+ *
+ * <p>Only one worker runs at a time; each explores a bounded number of events before returning.
+ */
+class IterativeDeepeningDFS extends Search {
+  /** How many events a worker takes before returning. */
+  private static final int EVENTS_PER_WORKER = 1000;
+
+  /**
+   * Visits are packed into longs as the iteration, the depth, and whether the visit is complete.
+   */
+  private static final long NOT_VISITED = -1;
+
+  private static long visit(int iteration, int depth, boolean complete) {
+    return ((long) iteration << 32) | ((long) depth << 1) | (complete ? 1 : 0);
+  }
+
+  private static int iteration(long visit) {
+    return (int) (visit >>> 32);
+  }
+
+  private static int depth(long visit) {
+    return (int) visit >>> 1;
+  }
+
+  private static boolean complete(long visit) {
+    return (visit & 1) != 0;
+  }
+
+  private static final class Frame {
+    private final SearchState state;
+    private final long fingerprint;
+    private final int index;
+    private final Iterator<Event> events;
+
+    /** Whether no state in the subtree has been cut off by the bound. */
+    private boolean complete = true;
+
+    /** The lowest index of a frame on the stack that the subtree reaches back to. */
+    private int lowLink;
+
+    /** States whose completion waits on this frame's. */
+    private List<Long> waiting;
+
+    private Frame(SearchState state, long fingerprint, int index, SearchSettings settings) {
+      this.state = state;
+      this.fingerprint = fingerprint;
+      this.index = index;
+      this.lowLink = index;
+      this.events = state.events(settings).iterator();
+    }
+  }
+
+  private final DiscoveredStates discovered;
+  private final FingerprintMap visits = new FingerprintMap();
+  private final List<Frame> stack = new ArrayList<>();
+
+  /**
+   * For states on the stack, the index of their frame; for states whose completion waits on a frame
+   * on the stack, the index of that frame.
+   */
+  private final Map<Long, Integer> active = new HashMap<>();
+
+  private SearchState initialState;
+  private long initialFingerprint;
+  private int bound;
+  private volatile boolean exhausted = false, workerRunning = false;
+
+  private final AtomicLong states = new AtomicLong();
+
+  IterativeDeepeningDFS(SearchSettings settings) {
+    super(settings);
+    discovered = DiscoveredStates.create(settings);
+  }
+
+  @Override
+  protected String searchType() {
+    return "iterative-deepening depth-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Depth bound: %s (%.2fs, %.2fK states/s)",
+        explored, bound, elapsedSecs, explored / elapsedSecs / 1000.0);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    this.initialState = initialState;
+    discovered.add(initialState);
+    states.set(1);
+    bound = initialState.depth();
+
+    // For now, don't consider PRUNED initial states
+    if (checkState(initialState, false).equals(StateStatus.TERMINAL)) {
+      exhausted = true;
+      return;
+    }
+    initialFingerprint = discovered.fingerprint(initialState);
+    visits.put(initialFingerprint, visit(bound, initialState.depth(), false));
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    return exhausted;
+  }
+
+  @Override
+  protected DiscoveredStates discoveredStates() {
+    return discovered;
+  }
+
+  @Override
+  protected double omissionProbability() {
+    return discovered.omissionProbability();
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    // Called with the lock held
+    if (exhausted || workerRunning) {
+      return null;
+    }
+    workerRunning = true;
+    return () -> {
+      try {
+        runWorker();
+      } finally {
+        workerRunning = false;
+      }
+    };
+  }
+
+  private void runWorker() {
+    for (int i = 0; i < EVENTS_PER_WORKER && !Thread.currentThread().isInterrupted(); i++) {
+      if (stack.isEmpty() && !startIteration()) {
+        return;
+      }
+
+      final Frame frame = stack.get(stack.size() - 1);
+      if (!frame.events.hasNext()) {
+        pop(frame);
+        continue;
+      }
+
+      if (!step(frame, frame.events.next())) {
+        // Terminal state found
+        stack.clear();
+        active.clear();
+        exhausted = true;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Starts the next iteration, unless the last one was not cut off by the bound or already reached
+   * the maximum depth.
+   *
+   * @return whether an iteration was started
+   */
+  private boolean startIteration() {
+    if (complete(visits.get(initialFingerprint, NOT_VISITED))
+        || (settings.depthLimited() && bound >= settings.maxDepth())) {
+      exhausted = true;
+      return false;
+    }
+    bound++;
+    visits.put(initialFingerprint, visit(bound, initialState.depth(), false));
+    statistics().expanded(initialState.depth());
+    push(initialState, initialFingerprint);
+    return true;
+  }
+
+  private void push(SearchState state, long fingerprint) {
+    final Frame frame = new Frame(state, fingerprint, stack.size(), settings);
+    stack.add(frame);
+    active.put(fingerprint, frame.index);
+  }
+
+  /** Pops the frame, whose events are exhausted, and settles whether its state is complete. */
+  private void pop(Frame frame) {
+    stack.remove(frame.index);
+    final Frame parent = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+
+    if (!frame.complete) {
+      // Everything waiting on this frame reaches the cutoff too
+      active.remove(frame.fingerprint);
+      if (frame.waiting != null) {
+        for (long waiting : frame.waiting) {
+          active.remove(waiting, frame.index);
+        }
+      }
+      if (parent != null) {
+        parent.complete = false;
+      }
+    } else if (frame.lowLink < frame.index) {
+      // Complete unless an ancestor it reaches back to turns out not to be
+      final Frame ancestor = stack.get(frame.lowLink);
+      waitOn(ancestor, frame.fingerprint);
+      if (frame.waiting != null) {
+        for (long waiting : frame.waiting) {
+          if (active.remove(waiting, frame.index)) {
+            waitOn(ancestor, waiting);
+          }
+        }
+      }
+      parent.lowLink = Math.min(parent.lowLink, frame.lowLink);
+    } else {
+      markComplete(frame.fingerprint);
+      active.remove(frame.fingerprint);
+      if (frame.waiting != null) {
+        for (long waiting : frame.waiting) {
+          if (active.remove(waiting, frame.index)) {
+            markComplete(waiting);
+          }
+        }
+      }
+    }
+  }
+
+  private void waitOn(Frame ancestor, long fingerprint) {
+    active.put(fingerprint, ancestor.index);
+    if (ancestor.waiting == null) {
+      ancestor.waiting = new ArrayList<>();
+    }
+    ancestor.waiting.add(fingerprint);
+  }
+
+  private void markComplete(long fingerprint) {
+    visits.put(fingerprint, visits.get(fingerprint, NOT_VISITED) | 1);
+  }
+
+  /**
+   * Takes the event from the frame's state, pushing a frame for the successor if it needs to be
+   * expanded.
+   *
+   * @return {@code false} iff a terminal state was found
+   */
+  private boolean step(Frame frame, Event event) {
+    final SearchState successor = step(frame.state, event);
+    if (successor == null) {
+      return true;
+    }
+
+    final long fingerprint = discovered.fingerprint(successor);
+    final long visit = visits.get(fingerprint, NOT_VISITED);
+    if (visit != NOT_VISITED) {
+      statistics().generated(successor.depth(), true);
+    }
+
+    if (visit == NOT_VISITED) {
+      final boolean isNew = discover(discovered, successor);
+      if (isNew) {
+        states.incrementAndGet();
+        final StateStatus status = checkState(successor, false);
+        if (status.equals(StateStatus.TERMINAL)) {
+          return false;
+        } else if (status.equals(StateStatus.PRUNED) && !beyondMaxDepth(successor)) {
+          visits.put(fingerprint, visit(bound, successor.depth(), true));
+          return true;
+        }
+      }
+    } else if (complete(visit)) {
+      return true;
+    } else if (iteration(visit) == bound && depth(visit) <= successor.depth()) {
+      // Already expanded (or being expanded) at least as shallow in this iteration
+      final Integer index = active.get(fingerprint);
+      if (index != null) {
+        // On the stack, or waiting on a frame that is; not a cutoff
+        frame.lowLink = Math.min(frame.lowLink, index);
+      } else {
+        frame.complete = false;
+      }
+      return true;
+    }
+    visits.put(fingerprint, visit(bound, successor.depth(), false));
+
+    if (successor.depth() >= bound) {
+      // Cut off; may be expanded in the next iteration
+      frame.complete = false;
+      return true;
+    }
+
+    statistics().expanded(successor.depth());
+    push(successor, fingerprint);
+    return true;
+  }
+
+  private boolean beyondMaxDepth(SearchState s) {
+    return settings.depthLimited() && s.depth() >= settings.maxDepth();
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import dslabs.framework.Node;
+import dslabs.framework.testing.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multi-threaded breadth-first search which explores the state space one level at a time. Unlike
+ * {@link BFS}, whose workers each explore a single state and must go through the lock in {@link
+ * Search} to get the next one, each thread runs a single long-lived worker.
+ *
+ * <p>Every worker owns a deque of states in the current level and a deque for the successors it
+ * discovers (the next level). Workers explore states from the front of their own deque, and once it
+ * is empty they steal from the back of the other workers' deques. When there is nothing left to
+ * steal, the level is done and the worker waits at a {@link Phaser}; the last worker to arrive
+ * swaps in the next level. Because every state at one depth is explored before any state at the
+ * next, the first terminal state found is still at the minimum possible depth.
+ *
+ * <p>Does not support spilling the frontier to disk or checkpoints; {@link Search#bfs} uses {@link
+ * BFS} instead when they are configured.
+ */
+class ParallelBFS extends Search {
+  private final int numWorkers;
+  private final DiscoveredStates discovered;
+  private final Interner<Node> interner;
+  private final Phaser levelBarrier;
+
+  private volatile List<ConcurrentLinkedDeque<SearchState>> currentLevel, nextLevel;
+
+  /** Set once a terminal state has been found; workers should stop. */
+  private volatile boolean stopped = false;
+
+  /** Set by the last worker to finish a level if the next level is empty. */
+  private volatile boolean exhausted = false;
+
+  private final AtomicLong states = new AtomicLong();
+  private final AtomicInteger depth = new AtomicInteger();
+
+  private int workersStarted = 0;
+
+  ParallelBFS(SearchSettings settings) {
+    super(settings);
+    numWorkers = Math.max(1, settings.numThreads());
+    discovered = DiscoveredStates.create(settings);
+    interner = settings.internNodes() ? Interners.newWeakInterner() : null;
+    currentLevel = newLevel();
+    nextLevel = newLevel();
+    levelBarrier =
+        new Phaser(numWorkers) {
+          @Override
+          protected boolean onAdvance(int phase, int registeredParties) {
+            return registeredParties == 0 || advanceLevel();
+          }
+        };
+  }
+
+  private List<ConcurrentLinkedDeque<SearchState>> newLevel() {
+    List<ConcurrentLinkedDeque<SearchState>> level = new ArrayList<>(numWorkers);
+    for (int i = 0; i < numWorkers; i++) {
+      level.add(new ConcurrentLinkedDeque<>());
+    }
+    return level;
+  }
+
+  /**
+   * Called by the last worker to finish a level, while all others are waiting.
+   *
+   * @return whether the search is over
+   */
+  private boolean advanceLevel() {
+    if (stopped) {
+      return true;
+    }
+
+    currentLevel = nextLevel;
+    nextLevel = newLevel();
+
+    for (ConcurrentLinkedDeque<SearchState> deque : currentLevel) {
+      if (!deque.isEmpty()) {
+        return false;
+      }
+    }
+
+    exhausted = true;
+    return true;
+  }
+
+  @Override
+  protected String searchType() {
+    return "level-synchronous breadth-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Depth: %s (%.2fs, %.2fK states/s)",
+        explored, depth.get(), elapsedSecs, explored / elapsedSecs / 1000.0);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    discovered.add(initialState);
+    states.set(1);
+    depth.set(initialState.depth());
+
+    // For now, don't consider PRUNED initial states
+    if (checkState(initialState, false).equals(StateStatus.TERMINAL)) {
+      stopped = true;
+      return;
+    }
+    currentLevel.get(0).add(initialState);
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    return exhausted;
+  }
+
+  @Override
+  protected long frontierSize() {
+    long size = 0;
+    for (ConcurrentLinkedDeque<SearchState> deque : currentLevel) {
+      size += deque.size();
+    }
+    return size;
+  }
+
+  @Override
+  protected DiscoveredStates discoveredStates() {
+    return discovered;
+  }
+
+  @Override
+  protected double omissionProbability() {
+    return discovered.omissionProbability();
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    if (workersStarted >= numWorkers) {
+      return null;
+    }
+    final int id = workersStarted++;
+    return () -> runWorker(id);
+  }
+
+  private void runWorker(int id) {
+    while (!stopped && !Thread.currentThread().isInterrupted()) {
+      final ConcurrentLinkedDeque<SearchState> next = nextLevel.get(id);
+
+      SearchState node;
+      while ((node = nextState(id)) != null) {
+        if (!exploreNode(node, next)) {
+          stopped = true;
+        }
+        if (stopped || Thread.currentThread().isInterrupted()) {
+          levelBarrier.arriveAndDeregister();
+          return;
+        }
+      }
+
+      try {
+        levelBarrier.awaitAdvanceInterruptibly(levelBarrier.arrive());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      if (levelBarrier.isTerminated()) {
+        return;
+      }
+    }
+    levelBarrier.arriveAndDeregister();
+  }
+
+  /** Take a state from this worker's own deque, or failing that, steal one from another's. */
+  private SearchState nextState(int id) {
+    final List<ConcurrentLinkedDeque<SearchState>> level = currentLevel;
+
+    SearchState s = level.get(id).pollFirst();
+    if (s != null) {
+      return s;
+    }
+
+    for (int i = 1; i < numWorkers; i++) {
+      s = level.get((id + i) % numWorkers).pollLast();
+      if (s != null) {
+        return s;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Explore all successors of the given node, adding the new, valid ones to the next level.
+   *
+   * @return {@code false} iff a terminal state was found
+   */
+  private boolean exploreNode(SearchState node, ConcurrentLinkedDeque<SearchState> next) {
+    statistics().expanded(node.depth());
+    try (EventBuffer events = EventBuffer.acquire()) {
+      node.events(settings, events);
+      for (int i = 0; i < events.size(); i++) {
+        final Event event = events.get(i);
+        SearchState successor = step(node, event);
+
+        if (successor == null) {
+          continue;
+        }
+
+        if (interner != null) {
+          successor.internSteppedNode(interner);
+        }
+
+        if (!discover(discovered, successor)) {
+          continue;
+        }
+
+        depth.getAndAccumulate(successor.depth(), Math::max);
+        states.incrementAndGet();
+
+        StateStatus status = checkState(successor, false);
+
+        if (status.equals(StateStatus.TERMINAL)) {
+          return false;
+        } else if (status.equals(StateStatus.PRUNED)) {
+          continue;
+        }
+
+        if (settings.replayTraces()) {
+          successor.releasePrevious();
+        }
+        next.addLast(successor);
+      }
+    }
+    return true;
+  }
+}
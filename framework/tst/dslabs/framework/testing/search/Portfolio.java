@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static dslabs.framework.testing.search.SearchResults.EndCondition.TIME_EXHAUSTED;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import lombok.extern.java.Log;
+
+/**
+ * Runs several searches from the same initial state at the same time. The configured threads are
+ * split evenly between the searches, which share the time limit. The first search to end for any
+ * reason other than running out of time (i.e., it found a terminal state or exhausted the space)
+ * cancels the others, and its results are returned; {@link SearchResults#strategy()} says which
+ * search it was. If every search runs out of time, the first search's results are returned.
+ *
+ * <p>Checkpoints and distributed searches are disabled for the searches in a portfolio. If
+ * statistics are to be written, only those of the returned results are.
+ */
+@Log
+final class Portfolio {
+  private Portfolio() {}
+
+  static SearchResults run(
+      SearchState initialState,
+      SearchSettings settings,
+      List<Function<SearchSettings, Search>> strategies) {
+    final int threadsPerSearch = Math.max(1, settings.numThreads() / strategies.size());
+
+    final List<Search> searches = new ArrayList<>(strategies.size());
+    for (Function<SearchSettings, Search> strategy : strategies) {
+      final SearchSettings s = settings.clone();
+      s.numThreads(threadsPerSearch)
+          .checkpointFile(null)
+          .distributedWorkers(0)
+          .statisticsFile(null);
+      searches.add(strategy.apply(s));
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(searches.size());
+    final CompletionService<SearchResults> completed = new ExecutorCompletionService<>(executor);
+    for (Search search : searches) {
+      completed.submit(() -> search.run(initialState));
+    }
+
+    SearchResults winner = null;
+    try {
+      for (int i = 0; i < searches.size(); i++) {
+        final SearchResults results = completed.take().get();
+        if (winner == null && results.endCondition() != TIME_EXHAUSTED) {
+          winner = results;
+          searches.forEach(Search::cancel);
+        }
+      }
+    } catch (InterruptedException e) {
+      searches.forEach(Search::cancel);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      searches.forEach(Search::cancel);
+      throw new RuntimeException("Search in portfolio failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+
+    final SearchResults results = winner != null ? winner : searches.get(0).results();
+    if (settings.statisticsFile() != null) {
+      try {
+        results.statistics().writeJsonToFile(settings.statisticsFile());
+      } catch (IOException e) {
+        LOG.warning("Could not write statistics to " + settings.statisticsFile() + ": " + e);
+      }
+    }
+    return results;
+  }
+}
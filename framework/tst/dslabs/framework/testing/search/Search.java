@@ -28,28 +28,42 @@ import static dslabs.framework.testing.search.SearchResults.EndCondition.INVARIA
 import static dslabs.framework.testing.search.SearchResults.EndCondition.SPACE_EXHAUSTED;
 import static dslabs.framework.testing.search.SearchResults.EndCondition.TIME_EXHAUSTED;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import dslabs.framework.Node;
 import dslabs.framework.testing.Event;
-import dslabs.framework.testing.StatePredicate.PredicateResult;
-import dslabs.framework.testing.search.SearchState.SearchEquivalenceWrappedSearchState;
-import dslabs.framework.testing.utils.CheckLogger;
-import dslabs.framework.testing.utils.GlobalSettings;
+import dslabs.framework.testing.monitoring.MBeans;
+import dslabs.framework.testing.monitoring.SearchMXBean;
+import dslabs.framework.testing.monitoring.StateExpansionEvent;
+import dslabs.framework.testing.search.SearchStatistics.DepthStatistics;
+import dslabs.framework.testing.utils.SerializableToIntFunction;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.management.ObjectName;
 import lombok.NonNull;
+import lombok.extern.java.Log;
 
 /**
  * The base class other search strategies are built off of. Based on the search settings, either
@@ -60,22 +74,39 @@ import lombok.NonNull;
  *
  * <p>Ordinarily, tests should only use the static convenience methods on this class.
  */
+@Log
 public abstract class Search {
   protected final SearchSettings settings;
 
   private final Lock lock = new ReentrantLock();
   private final Condition searchFinished = lock.newCondition(),
-      workerFinished = lock.newCondition();
+      workerFinished = lock.newCondition(),
+      workersIdle = lock.newCondition();
 
   /** Protected by lock. */
   private int numActiveWorkers = 0;
 
+  /** Set while the main thread waits for workers to finish to save a checkpoint. Uses lock. */
+  private boolean checkpointPending = false;
+
+  private volatile boolean cancelled = false;
+
+  private SearchState initialState;
+
+  /** Whether checkpoints are configured and supported. Only used by the main thread. */
+  private boolean checkpoints;
+
+  private long lastCheckpointMillis;
+
   private final SearchResults results = new SearchResults();
 
+  private final StateChecker checker;
+
   private long startTimeMillis;
 
   protected Search(SearchSettings settings) {
     this.settings = settings;
+    checker = new StateChecker(settings, results);
     results.invariantsTested(new LinkedList<>(settings.invariants()));
     results.goalsSought(new LinkedList<>(settings.goals()));
   }
@@ -124,10 +155,122 @@ public abstract class Search {
    */
   protected abstract Runnable getWorker();
 
+  /**
+   * Release any resources held by the search strategy. Only called by the main thread, after all
+   * workers have finished and the results have been finalized, or if the search failed.
+   */
+  protected void finishSearch() {}
+
+  /**
+   * An estimate of the probability that the search skipped a state because it was mistaken for one
+   * already explored (see {@link SearchResults#omissionProbability()}). Only called by the main
+   * thread, after all workers have finished.
+   *
+   * @return the probability, or 0 if the search never skips states this way
+   */
+  protected double omissionProbability() {
+    return 0;
+  }
+
+  /**
+   * Whether the search implements {@link #saveCheckpoint(SearchState, ObjectOutputStream)} and
+   * {@link #resumeFromCheckpoint(SearchState, ObjectInputStream)}. If not, a search configured with
+   * a checkpoint file logs a warning and runs without checkpoints.
+   *
+   * @return whether checkpoints are supported
+   */
+  protected boolean supportsCheckpoints() {
+    return false;
+  }
+
+  /**
+   * Write the search's progress to a checkpoint. Only called by the main thread, while no workers
+   * are running, and only if {@link #supportsCheckpoints()}.
+   *
+   * @param initialState the state the search was initialized with
+   * @param out the checkpoint
+   */
+  protected void saveCheckpoint(SearchState initialState, ObjectOutputStream out)
+      throws IOException {}
+
+  /**
+   * Initialize the search from a checkpoint written by {@link #saveCheckpoint(SearchState,
+   * ObjectOutputStream)}, instead of {@link #initSearch(SearchState)}. Only called by the main
+   * thread, and only if {@link #supportsCheckpoints()}.
+   *
+   * @param initialState the state the search is initialized with
+   * @param in the checkpoint
+   */
+  protected void resumeFromCheckpoint(SearchState initialState, ObjectInputStream in)
+      throws IOException, ClassNotFoundException {}
+
+  private boolean checkpointDue() {
+    return checkpoints
+        && settings.checkpointFreqSecs() >= 0
+        && System.currentTimeMillis() - lastCheckpointMillis
+            >= settings.checkpointFreqSecs() * 1000L;
+  }
+
+  private void writeCheckpoint() {
+    final Path file = Path.of(settings.checkpointFile());
+    final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (ObjectOutputStream out =
+          new ObjectOutputStream(
+              new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))) {
+        out.writeInt(Checkpoints.VERSION);
+        out.writeUTF(searchType());
+        out.writeLong(initialState.fingerprint());
+        saveCheckpoint(initialState, out);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warning("Could not save checkpoint to " + file + ": " + e);
+    }
+    lastCheckpointMillis = System.currentTimeMillis();
+  }
+
+  private void readCheckpoint(Path file) {
+    try (ObjectInputStream in =
+        new ObjectInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != Checkpoints.VERSION) {
+        throw new IllegalArgumentException(file + " was saved by a different framework version");
+      }
+      final String savedSearchType = in.readUTF();
+      if (!savedSearchType.equals(searchType())) {
+        throw new IllegalArgumentException(
+            String.format("%s was saved by a %s search", file, savedSearchType));
+      }
+      if (in.readLong() != initialState.fingerprint()) {
+        throw new IllegalArgumentException(
+            file + " was saved by a search with a different initial state");
+      }
+      resumeFromCheckpoint(initialState, in);
+    } catch (IOException | ClassNotFoundException e) {
+      throw new IllegalArgumentException("Could not resume from " + file, e);
+    }
+  }
+
+  /** Wait for running workers to finish, keep new ones from starting, and save a checkpoint. */
+  private void pauseAndCheckpoint() throws InterruptedException {
+    checkpointPending = true;
+    try {
+      while (numActiveWorkers > 0) {
+        workersIdle.await();
+      }
+      writeCheckpoint();
+    } finally {
+      checkpointPending = false;
+      workerFinished.signalAll();
+    }
+  }
+
   private boolean searchFinished() {
     lock.lock();
     try {
-      return ((numActiveWorkers == 0) && spaceExhausted())
+      return cancelled
+          || ((numActiveWorkers == 0) && spaceExhausted())
           || (settings.timeLimited()
               && ((System.currentTimeMillis() - startTimeMillis)
                   > (settings.maxTimeSecs() * 1000L)))
@@ -145,94 +288,241 @@ public abstract class Search {
       time += .01;
     }
     System.out.println("\t" + status(time));
+    results.statistics().frontier(frontierSize());
   }
 
-  protected enum StateStatus {
-    VALID,
-    TERMINAL,
-    PRUNED
+  /**
+   * The number of states waiting to be explored, sampled into {@link SearchStatistics#frontier()}
+   * whenever the status is printed and when the search finishes. May be called concurrently with
+   * workers.
+   *
+   * @return the size, or -1 if the search does not keep a frontier
+   */
+  protected long frontierSize() {
+    return -1;
+  }
+
+  /** The statistics recorded by this search. */
+  protected final SearchStatistics statistics() {
+    return results.statistics();
   }
 
   /**
-   * Convenience method to be used by workers to execute checks for each state encountered.
+   * Steps the event from the state as workers should, recording time spent in {@link
+   * #statistics()}.
+   */
+  protected final SearchState step(SearchState state, Event event) {
+    if (!StateExpansionEvent.enabled()) {
+      return state.stepEvent(event, settings, true, results.statistics());
+    }
+    final StateExpansionEvent expansion = new StateExpansionEvent();
+    expansion.begin();
+    final SearchState successor = state.stepEvent(event, settings, true, results.statistics());
+    expansion.commit(state.depth(), event, successor != null);
+    return successor;
+  }
+
+  /**
+   * The set of states the search has discovered, reported by its {@link SearchMXBean}.
    *
-   * @param s the state to check
-   * @param shouldMinimize whether or not traces should be run through the minimizer
+   * @return the set, or {@code null} if the search does not keep one
    */
-  protected final StateStatus checkState(SearchState s, boolean shouldMinimize) {
-    if (s.thrownException() != null) {
-      if (shouldMinimize) {
-        // Log the exception to shut the other threads down
-        results.exceptionThrown(null);
+  protected DiscoveredStates discoveredStates() {
+    return null;
+  }
 
-        // Minimize the trace and log the actual exception-causing state
-        s = TraceMinimizer.minimizeExceptionCausingTrace(s);
-      }
-      results.exceptionThrown(s);
-      return StateStatus.TERMINAL;
+  private final class Monitor implements SearchMXBean {
+    @Override
+    public String getSearchType() {
+      return searchType();
     }
 
-    PredicateResult r = settings.invariantViolated(s);
-    if (r != null) {
-      if (shouldMinimize) {
-        // Log the violation to shut the other threads down
-        results.invariantViolated(null, r);
+    @Override
+    public double getElapsedSecs() {
+      return (System.currentTimeMillis() - startTimeMillis) / 1000.0;
+    }
 
-        // Minimize the trace and log the actual invariant-violating state
-        s = TraceMinimizer.minimizeTrace(s, r);
+    @Override
+    public long getStatesExplored() {
+      long explored = 0;
+      for (DepthStatistics d : results.statistics().depths()) {
+        explored += d.generated() - d.duplicates();
       }
-      results.invariantViolated(s, r);
-      return StateStatus.TERMINAL;
+      return explored;
     }
 
-    r = settings.goalMatched(s);
-    if (r != null) {
-      if (shouldMinimize) {
-        // Log the goal to shut the other threads down
-        results.goalFound(null, r);
-
-        // Minimize the trace and log the actual goal-matching state
-        s = TraceMinimizer.minimizeTrace(s, r);
+    @Override
+    public long getStatesGenerated() {
+      long generated = 0;
+      for (DepthStatistics d : results.statistics().depths()) {
+        generated += d.generated();
       }
-      results.goalFound(s, r);
-      return StateStatus.TERMINAL;
+      return generated;
     }
 
-    if (GlobalSettings.doErrorChecks()) {
-      SearchState previous = s.previous();
-      Event e = s.previousEvent();
+    @Override
+    public long getFrontierSize() {
+      return frontierSize();
+    }
 
-      if (previous != null) {
-        assert e != null;
-        // Check if event is deterministic
-        if (!Objects.equals(s, previous.stepEvent(e, settings, true))) {
-          CheckLogger.notDeterministic(e, previous);
-        }
+    @Override
+    public long getVisitedStates() {
+      final DiscoveredStates discovered = discoveredStates();
+      return discovered != null ? discovered.size() : -1;
+    }
 
-        // Non-idempotence isn't necessarily an error
-        if (GlobalSettings.doAllChecks()) {
-          // Check if event is idempotent
-          if (e.isMessage() && !Objects.equals(s, s.stepEvent(e, settings, true))) {
-            CheckLogger.notIdempotent(e, previous);
-          }
-        }
-      }
+    @Override
+    public long getVisitedStatesBytes() {
+      final DiscoveredStates discovered = discoveredStates();
+      return discovered != null ? discovered.sizeInBytes() : -1;
     }
 
-    if (settings.shouldPrune(s)) {
-      return StateStatus.PRUNED;
+    @Override
+    public double getCloningSecs() {
+      return results.statistics().cloningSecs();
     }
 
-    if (settings.depthLimited() && s.depth() >= settings.maxDepth()) {
-      return StateStatus.PRUNED;
+    @Override
+    public double getHandlerSecs() {
+      return results.statistics().handlerSecs();
     }
 
-    return StateStatus.VALID;
+    @Override
+    public double getHashingSecs() {
+      return results.statistics().hashingSecs();
+    }
+
+    @Override
+    public double getPredicateSecs() {
+      return results.statistics().predicateSecs();
+    }
+  }
+
+  /**
+   * Adds a newly generated state to the discovered set, recording time spent and whether it was a
+   * duplicate in {@link #statistics()}.
+   *
+   * @return {@code true} iff the state had not been discovered before
+   */
+  final boolean discover(DiscoveredStates discovered, SearchState state) {
+    final long start = System.nanoTime();
+    final boolean isNew = discovered.add(state);
+    results.statistics().hashing(System.nanoTime() - start);
+    results.statistics().generated(state.depth(), !isNew);
+    return isNew;
+  }
+
+  /**
+   * Stop the search as soon as running workers finish, as if it had run out of time. May be called
+   * from any thread.
+   */
+  void cancel() {
+    lock.lock();
+    try {
+      cancelled = true;
+      searchFinished.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** The results of this search, as recorded so far. */
+  protected final SearchResults results() {
+    return results;
+  }
+
+  protected enum StateStatus {
+    VALID,
+    TERMINAL,
+    PRUNED
+  }
+
+  /**
+   * Convenience method to be used by workers to execute checks for each state encountered; see
+   * {@link StateChecker#check(SearchState, boolean)}.
+   *
+   * @param s the state to check
+   * @param shouldMinimize whether or not traces should be run through the minimizer
+   */
+  protected final StateStatus checkState(SearchState s, boolean shouldMinimize) {
+    return checker.check(s, shouldMinimize);
+  }
+
+  /**
+   * Interns, discovers, and checks a successor generated by a depth-first or best-first worker. A
+   * state discovered before is normally skipped, but a depth-limited search explores it again if it
+   * was reached at a shallower depth than before, since the limit may have cut off some of its
+   * successors the first time.
+   *
+   * @param successor the newly generated state
+   * @param discovered the search's discovered states
+   * @param depths the shallowest depth each state has been reached at, or {@code null} if the
+   *     search is not depth-limited
+   * @param interner the search's node interner, or {@code null}
+   * @param maxDepth the deepest new state discovered, updated if the successor is new
+   * @param states the number of states discovered, incremented if the successor is new
+   * @return the successor's status, or {@code null} if it should not be explored again
+   */
+  final StateStatus discoverAndCheck(
+      SearchState successor,
+      DiscoveredStates discovered,
+      FingerprintMap depths,
+      Interner<Node> interner,
+      AtomicInteger maxDepth,
+      AtomicLong states) {
+    if (interner != null) {
+      successor.internSteppedNode(interner);
+    }
+
+    final boolean isNew = discover(discovered, successor);
+    final boolean shallower =
+        depths != null && depths.lower(discovered.fingerprint(successor), successor.depth());
+    if (!isNew && !shallower) {
+      return null;
+    }
+
+    if (isNew) {
+      maxDepth.getAndAccumulate(successor.depth(), Math::max);
+      states.incrementAndGet();
+    }
+
+    return checkState(successor, true);
   }
 
   protected SearchResults run(SearchState initialState) {
     startTimeMillis = System.currentTimeMillis();
-    initSearch(initialState);
+    results.strategy(this::searchType);
+    results.statistics().start();
+    final ObjectName mxBeanName = MBeans.register("Search", new Monitor());
+    try {
+      return search(initialState);
+    } finally {
+      MBeans.unregister(mxBeanName);
+      finishSearch();
+    }
+  }
+
+  private SearchResults search(SearchState initialState) {
+    lastCheckpointMillis = startTimeMillis;
+    this.initialState = initialState;
+
+    checkpoints = settings.checkpoints() && supportsCheckpoints();
+    if (settings.checkpoints() && !checkpoints) {
+      LOG.warning(
+          String.format(
+              "%s search does not support checkpoints, not saving to %s",
+              searchType(), settings.checkpointFile()));
+    }
+
+    final Path checkpoint = checkpoints ? Path.of(settings.checkpointFile()) : null;
+    if (checkpoint != null && settings.resumeFromCheckpoint() && Files.exists(checkpoint)) {
+      readCheckpoint(checkpoint);
+      if (settings.shouldOutputStatus()) {
+        System.out.printf("Resuming from checkpoint %s%n", checkpoint);
+      }
+    } else {
+      initSearch(initialState);
+    }
 
     if (settings.shouldOutputStatus()) {
       System.out.printf("Starting %s search...%n", searchType());
@@ -250,7 +540,7 @@ public abstract class Search {
                     Runnable worker;
                     lock.lock();
                     try {
-                      while ((worker = getWorker()) == null) {
+                      while (checkpointPending || (worker = getWorker()) == null) {
                         workerFinished.await();
                       }
                       numActiveWorkers++;
@@ -266,6 +556,9 @@ public abstract class Search {
                     try {
                       numActiveWorkers--;
                       workerFinished.signal();
+                      if (numActiveWorkers == 0) {
+                        workersIdle.signalAll();
+                      }
                       if (searchFinished()) {
                         searchFinished.signal();
                       }
@@ -309,14 +602,29 @@ public abstract class Search {
       lock.lock();
       try {
         while (!searchFinished()) {
+          if (checkpointDue()) {
+            pauseAndCheckpoint();
+            continue;
+          }
+
+          long waitTime = Long.MAX_VALUE;
           if (settings.timeLimited()) {
-            long timeRemaining =
+            waitTime =
                 settings.maxTimeSecs() * 1000L + startTimeMillis - System.currentTimeMillis();
-            if (timeRemaining > 0) {
-              searchFinished.await(timeRemaining, TimeUnit.MILLISECONDS);
-            }
-          } else {
+          }
+          if (checkpoints && settings.checkpointFreqSecs() >= 0) {
+            waitTime =
+                Math.min(
+                    waitTime,
+                    settings.checkpointFreqSecs() * 1000L
+                        + lastCheckpointMillis
+                        - System.currentTimeMillis());
+          }
+
+          if (waitTime == Long.MAX_VALUE) {
             searchFinished.await();
+          } else if (waitTime > 0) {
+            searchFinished.await(waitTime, TimeUnit.MILLISECONDS);
           }
         }
       } catch (InterruptedException e) {
@@ -357,6 +665,10 @@ public abstract class Search {
           printStatus();
         }
 
+        if (checkpointDue()) {
+          writeCheckpoint();
+        }
+
         // Then, run a single worker
         getWorker().run();
       }
@@ -384,6 +696,31 @@ public abstract class Search {
       lock.unlock();
     }
 
+    if (checkpoints
+        && (results.endCondition() == SPACE_EXHAUSTED
+            || results.endCondition() == TIME_EXHAUSTED)) {
+      writeCheckpoint();
+    }
+
+    results.statistics().frontier(frontierSize());
+    if (settings.shouldOutputStatus()) {
+      System.out.printf("%s%n%n", results.statistics().timeSummary());
+    }
+    if (settings.statisticsFile() != null) {
+      try {
+        results.statistics().writeJsonToFile(settings.statisticsFile());
+      } catch (IOException e) {
+        LOG.warning("Could not write statistics to " + settings.statisticsFile() + ": " + e);
+      }
+    }
+
+    results.omissionProbability(omissionProbability());
+    if (settings.shouldOutputStatus() && results.omissionProbability() > 0) {
+      System.out.printf(
+          "Estimated probability that a state was omitted: %.3g%n%n",
+          results.omissionProbability());
+    }
+
     return results;
   }
 
@@ -391,21 +728,160 @@ public abstract class Search {
     if (settings == null) {
       settings = new SearchSettings();
     }
-    return new BFS(settings).run(initialState);
+    return bfsSearch(settings).run(initialState);
+  }
+
+  private static Search bfsSearch(SearchSettings settings) {
+    if (settings.partialOrderReduction() && settings.symmetryReduced()) {
+      LOG.warning(
+          "Partial-order reduction is not supported with symmetry groups, exploring every"
+              + " interleaving");
+    }
+    if (settings.distributed()) {
+      if (settings.partialOrderReduction()) {
+        LOG.warning(
+            "Distributed breadth-first search does not support partial-order reduction,"
+                + " exploring every interleaving");
+      }
+      return new DistributedBFS(settings);
+    }
+    if (settings.multiThreaded() && settings.workStealingBFS()) {
+      final String unsupported = unsupportedByParallelBFS(settings);
+      if (unsupported == null) {
+        return new ParallelBFS(settings);
+      }
+      LOG.warning(
+          String.format(
+              "Work-stealing breadth-first search does not support %s, using the default engine",
+              unsupported));
+    }
+    return new BFS(settings);
+  }
+
+  /** The first of the configured features {@link ParallelBFS} does not support, or null. */
+  private static String unsupportedByParallelBFS(SearchSettings settings) {
+    if (settings.checkpoints()) {
+      return "checkpoints";
+    }
+    if (settings.spillsFrontier()) {
+      return "spilling the frontier";
+    }
+    if (settings.partialOrderReduction()) {
+      return "partial-order reduction";
+    }
+    return null;
   }
 
   public static SearchResults dfs(@NonNull SearchState initialState, SearchSettings settings) {
     if (settings == null) {
       settings = new SearchSettings();
     }
-    return new RandomDFS(settings).run(initialState);
+    return dfsSearch(settings).run(initialState);
+  }
+
+  private static Search dfsSearch(SearchSettings settings) {
+    if (settings.swarmPopulations() > 0) {
+      return new SwarmDFS(settings);
+    }
+    return new RandomDFS(settings);
+  }
+
+  /**
+   * Exhaustively searches the state space depth-first, remembering discovered states. See {@link
+   * StatefulDFS}.
+   *
+   * @param initialState the state to start from
+   * @param settings the search settings
+   * @return the results
+   */
+  public static SearchResults statefulDfs(
+      @NonNull SearchState initialState, SearchSettings settings) {
+    if (settings == null) {
+      settings = new SearchSettings();
+    }
+    return new StatefulDFS(settings).run(initialState);
+  }
+
+  /**
+   * Searches the state space with depth-first searches of increasing depth bounds. Finds terminal
+   * states at the minimum possible depth, like {@link #bfs(SearchState, SearchSettings)}, without
+   * keeping a breadth-first frontier in memory. See {@link IterativeDeepeningDFS}.
+   *
+   * @param initialState the state to start from
+   * @param settings the search settings
+   * @return the results
+   */
+  public static SearchResults iterativeDeepening(
+      @NonNull SearchState initialState, SearchSettings settings) {
+    if (settings == null) {
+      settings = new SearchSettings();
+    }
+    return new IterativeDeepeningDFS(settings).run(initialState);
+  }
+
+  /**
+   * Searches the state space in order of the given heuristic, exploring the states it rates lowest
+   * first. See {@link BestFirstSearch}.
+   *
+   * @param initialState the state to start from
+   * @param settings the search settings
+   * @param heuristic an estimate of how far a state is from a goal; should be cheap to compute
+   * @return the results
+   */
+  public static SearchResults bestFirst(
+      @NonNull SearchState initialState,
+      SearchSettings settings,
+      @NonNull SerializableToIntFunction<SearchState> heuristic) {
+    if (settings == null) {
+      settings = new SearchSettings();
+    }
+    return new BestFirstSearch(settings, heuristic).run(initialState);
+  }
+
+  /**
+   * Runs a breadth-first and a random depth-first search at the same time, splitting the threads
+   * and sharing the time limit between them. See {@link Portfolio}.
+   *
+   * @param initialState the state to start from
+   * @param settings the search settings
+   * @return the results of the first search to find a terminal state or exhaust the space
+   */
+  public static SearchResults portfolio(
+      @NonNull SearchState initialState, SearchSettings settings) {
+    if (settings == null) {
+      settings = new SearchSettings();
+    }
+    return Portfolio.run(initialState, settings, List.of(Search::bfsSearch, Search::dfsSearch));
+  }
+
+  /**
+   * Like {@link #portfolio(SearchState, SearchSettings)}, but also runs a best-first search guided
+   * by the given heuristic.
+   *
+   * @param initialState the state to start from
+   * @param settings the search settings
+   * @param heuristic an estimate of how far a state is from a goal; should be cheap to compute
+   * @return the results of the first search to find a terminal state or exhaust the space
+   */
+  public static SearchResults portfolio(
+      @NonNull SearchState initialState,
+      SearchSettings settings,
+      @NonNull SerializableToIntFunction<SearchState> heuristic) {
+    if (settings == null) {
+      settings = new SearchSettings();
+    }
+    return Portfolio.run(
+        initialState,
+        settings,
+        List.of(Search::bfsSearch, Search::dfsSearch, s -> new BestFirstSearch(s, heuristic)));
   }
 }
 
 class BFS extends Search {
-  private final Queue<SearchState> queue = new ConcurrentLinkedQueue<>();
-  private final Set<SearchEquivalenceWrappedSearchState> discovered =
-      Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final Queue<SearchState> queue;
+  private final DiscoveredStates discovered;
+  private final SleepSets sleepSets;
+  private final Interner<Node> interner;
 
   private final AtomicLong states = new AtomicLong();
   private final AtomicInteger depth = new AtomicInteger();
@@ -415,6 +891,16 @@ class BFS extends Search {
 
   BFS(SearchSettings settings) {
     super(settings);
+    queue =
+        settings.spillsFrontier()
+            ? new SpillingQueue(settings.frontierSpillThreshold())
+            : new ConcurrentLinkedQueue<>();
+    discovered = DiscoveredStates.create(settings);
+    sleepSets =
+        settings.partialOrderReduction() && !settings.symmetryReduced()
+            ? new SleepSets(discovered)
+            : null;
+    interner = settings.internNodes() ? Interners.newWeakInterner() : null;
   }
 
   @Override
@@ -433,7 +919,11 @@ class BFS extends Search {
   @Override
   protected void initSearch(SearchState initialState) {
     queue.add(initialState);
-    discovered.add(initialState.wrapped());
+    if (sleepSets != null) {
+      sleepSets.discover(initialState, Collections.emptySet());
+    } else {
+      discovered.add(initialState);
+    }
     states.set(0);
     depth.getAndAccumulate(initialState.depth(), Math::max);
     initialDepth = initialState.depth();
@@ -444,6 +934,90 @@ class BFS extends Search {
     return queue.isEmpty();
   }
 
+  @Override
+  protected boolean supportsCheckpoints() {
+    return true;
+  }
+
+  @Override
+  protected void saveCheckpoint(SearchState initialState, ObjectOutputStream out)
+      throws IOException {
+    out.writeLong(states.get());
+    out.writeInt(depth.get());
+    out.writeUTF(settings.visitedStates().name());
+    discovered.save(out);
+    out.writeBoolean(sleepSets != null);
+    if (sleepSets != null) {
+      sleepSets.save(out);
+    }
+
+    // Rotate through the queue, since a SpillingQueue cannot be iterated
+    final int frontierSize = queue.size();
+    out.writeInt(frontierSize);
+    for (int i = 0; i < frontierSize; i++) {
+      final SearchState s = queue.poll();
+      out.writeObject(Checkpoints.path(initialState, s));
+      queue.add(s);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void resumeFromCheckpoint(SearchState initialState, ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    states.set(in.readLong());
+    depth.set(in.readInt());
+    initialDepth = initialState.depth();
+
+    final String visitedStates = in.readUTF();
+    if (!visitedStates.equals(settings.visitedStates().name())) {
+      throw new IllegalArgumentException(
+          "Checkpoint was saved by a search with visited states " + visitedStates);
+    }
+    discovered.load(in);
+    if (in.readBoolean() != (sleepSets != null)) {
+      throw new IllegalArgumentException(
+          "Checkpoint was saved by a search with different partial-order reduction settings");
+    }
+    if (sleepSets != null) {
+      sleepSets.load(in);
+    }
+
+    final int frontierSize = in.readInt();
+    final List<List<Event>> paths = new ArrayList<>(frontierSize);
+    for (int i = 0; i < frontierSize; i++) {
+      paths.add((List<Event>) in.readObject());
+    }
+    for (SearchState s : Checkpoints.replay(initialState, paths)) {
+      if (settings.replayTraces()) {
+        s.releasePrevious();
+      }
+      queue.add(s);
+    }
+  }
+
+  @Override
+  protected DiscoveredStates discoveredStates() {
+    return discovered;
+  }
+
+  @Override
+  protected double omissionProbability() {
+    return discovered.omissionProbability();
+  }
+
+  @Override
+  protected long frontierSize() {
+    return queue.size();
+  }
+
+  @Override
+  protected void finishSearch() {
+    if (queue instanceof SpillingQueue spillingQueue) {
+      spillingQueue.close();
+    }
+  }
+
   @Override
   protected Runnable getWorker() {
     final int currentWorkers = activeWorkers.get();
@@ -479,26 +1053,79 @@ class BFS extends Search {
       }
     }
 
-    for (Event event : node.events(settings)) {
-      SearchState successor = node.stepEvent(event, settings, true);
+    statistics().expanded(node.depth());
+    final SleepSets.Expansion expansion = sleepSets != null ? sleepSets.expand(node) : null;
 
-      if (successor == null || !discovered.add(successor.wrapped())) {
-        continue;
-      }
+    try (EventBuffer events = EventBuffer.acquire()) {
+      node.events(settings, events);
+      for (int i = 0; i < events.size(); i++) {
+        final Event event = events.get(i);
+        if (expansion != null && !expansion.shouldExplore(event)) {
+          continue;
+        }
 
-      depth.getAndAccumulate(successor.depth(), Math::max);
-      states.incrementAndGet();
+        SearchState successor = step(node, event);
+
+        if (successor == null) {
+          continue;
+        }
 
-      StateStatus status = checkState(successor, false);
+        if (interner != null) {
+          successor.internSteppedNode(interner);
+        }
 
-      if (status.equals(StateStatus.TERMINAL)) {
-        activeWorkers.decrementAndGet();
-        return;
-      } else if (status.equals(StateStatus.PRUNED)) {
-        continue;
-      }
+        if (expansion != null) {
+          final long start = System.nanoTime();
+          final SleepSets.Discovery discovery =
+              sleepSets.discover(successor, expansion.successorSleepSet(event));
+          statistics().hashing(System.nanoTime() - start);
+          statistics().generated(successor.depth(), discovery != SleepSets.Discovery.NEW);
+
+          switch (discovery) {
+            case NEW -> {}
+            case REEXPLORE -> {
+              // Already checked, but needs to be expanded again
+              expansion.explored(event);
+              if (settings.replayTraces()) {
+                successor.releasePrevious();
+              }
+              queue.add(successor);
+              continue;
+            }
+            case DUPLICATE -> {
+              if (!settings.shouldPrune(successor)) {
+                expansion.explored(event);
+              }
+              continue;
+            }
+          }
+        } else if (!discover(discovered, successor)) {
+          continue;
+        }
+
+        depth.getAndAccumulate(successor.depth(), Math::max);
+        states.incrementAndGet();
 
-      queue.add(successor);
+        StateStatus status = checkState(successor, false);
+
+        if (status.equals(StateStatus.TERMINAL)) {
+          activeWorkers.decrementAndGet();
+          return;
+        } else if (status.equals(StateStatus.PRUNED)) {
+          if (sleepSets != null) {
+            sleepSets.forget(successor);
+          }
+          continue;
+        }
+
+        if (expansion != null) {
+          expansion.explored(event);
+        }
+        if (settings.replayTraces()) {
+          successor.releasePrevious();
+        }
+        queue.add(successor);
+      }
     }
     activeWorkers.decrementAndGet();
   }
@@ -539,6 +1166,26 @@ class RandomDFS extends Search {
     states.set(0);
   }
 
+  @Override
+  protected boolean supportsCheckpoints() {
+    return true;
+  }
+
+  @Override
+  protected void saveCheckpoint(SearchState initialState, ObjectOutputStream out)
+      throws IOException {
+    out.writeLong(probes.get());
+    out.writeLong(states.get());
+  }
+
+  @Override
+  protected void resumeFromCheckpoint(SearchState initialState, ObjectInputStream in)
+      throws IOException {
+    initSearch(initialState);
+    probes.set(in.readLong());
+    states.set(in.readLong());
+  }
+
   @Override
   protected boolean spaceExhausted() {
     return false;
@@ -557,26 +1204,28 @@ class RandomDFS extends Search {
         current != null;
         current = next, next = null) {
 
-      List<Event> events = new ArrayList<>(current.events(settings));
-      Collections.shuffle(events);
+      try (EventBuffer events = EventBuffer.acquire()) {
+        current.events(settings, events);
+        events.shuffle(ThreadLocalRandom.current());
 
-      for (Event event : events) {
-        SearchState s = current.stepEvent(event, settings, true);
-        if (s == null) {
-          continue;
-        }
+        for (int i = 0; i < events.size(); i++) {
+          SearchState s = step(current, events.get(i));
+          if (s == null) {
+            continue;
+          }
 
-        states.incrementAndGet();
-        StateStatus status = checkState(s, true);
+          states.incrementAndGet();
+          StateStatus status = checkState(s, true);
 
-        if (status.equals(StateStatus.TERMINAL)) {
-          return;
-        } else if (status.equals(StateStatus.PRUNED)) {
-          continue;
-        }
+          if (status.equals(StateStatus.TERMINAL)) {
+            return;
+          } else if (status.equals(StateStatus.PRUNED)) {
+            continue;
+          }
 
-        next = s;
-        break;
+          next = s;
+          break;
+        }
       }
     }
   }
@@ -25,7 +25,9 @@ package dslabs.framework.testing.search;
 import dslabs.framework.testing.StatePredicate;
 import dslabs.framework.testing.StatePredicate.PredicateResult;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
@@ -45,7 +47,28 @@ public class SearchResults {
   @Setter private Collection<StatePredicate> goalsSought;
   @Setter private EndCondition endCondition;
 
+  /** Supplies {@link #strategy()}, so that the type is only looked up if it is asked for. */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.PACKAGE)
+  private volatile Supplier<String> strategy;
+
+  /**
+   * For searches that do not retain every discovered state exactly (see {@link
+   * SearchSettings.VisitedStates}), an estimate of the probability that at least one state was
+   * wrongly considered already discovered, and so never explored. 0 otherwise.
+   */
+  @Setter(AccessLevel.PACKAGE)
+  private volatile double omissionProbability;
+
   // Set by worker threads
+  private final SearchStatistics statistics = new SearchStatistics();
+
+  /**
+   * For swarm searches (see {@link SearchSettings#swarmPopulations()}), the configurations of the
+   * probe populations which reached a state that ended the search. Empty otherwise.
+   */
+  private final Collection<String> swarmFindings = new ConcurrentLinkedQueue<>();
+
   private final AtomicReference<SearchState> invariantViolatingState = new AtomicReference<>();
   private volatile PredicateResult invariantViolated;
 
@@ -57,6 +80,15 @@ public class SearchResults {
   @Getter(AccessLevel.PACKAGE)
   private volatile boolean exceptionThrown;
 
+  /**
+   * The type of search which produced these results (e.g., "breadth-first"). For {@link
+   * Search#portfolio(SearchState, SearchSettings)}, the search which finished first.
+   */
+  public String strategy() {
+    final Supplier<String> s = strategy;
+    return s != null ? s.get() : null;
+  }
+
   public SearchState invariantViolatingState() {
     return invariantViolatingState.get();
   }
@@ -81,6 +113,10 @@ public class SearchResults {
     }
   }
 
+  void swarmFinding(String configuration) {
+    swarmFindings.add(configuration);
+  }
+
   void exceptionThrown(SearchState state) {
     exceptionThrown = true;
     exceptionalState.compareAndSet(null, state);
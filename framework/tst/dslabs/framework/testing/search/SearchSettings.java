@@ -22,12 +22,15 @@
 
 package dslabs.framework.testing.search;
 
+import dslabs.framework.Address;
 import dslabs.framework.testing.StatePredicate;
 import dslabs.framework.testing.StatePredicate.PredicateResult;
 import dslabs.framework.testing.TestSettings;
 import dslabs.framework.testing.utils.GlobalSettings;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.java.Log;
@@ -41,12 +44,115 @@ import lombok.extern.java.Log;
 @Setter
 @Log
 public class SearchSettings extends TestSettings<SearchSettings> implements Cloneable {
+  /** How breadth-first searches remember the states they have already discovered. */
+  public enum VisitedStates {
+    /** Retain every discovered state. Exact, but each state keeps its whole node graph alive. */
+    EXACT,
+    /**
+     * Retain only a 64-bit fingerprint of each discovered state. Uses a few bytes per state, but a
+     * fingerprint collision will cause a state (and possibly its successors) to go unexplored.
+     */
+    FINGERPRINT,
+    /**
+     * Only set a few bits per discovered state in a fixed-size bit array (bitstate hashing), sized
+     * by {@link SearchSettings#bitstateMB()}. Memory use is bounded regardless of the number of
+     * states, but states are increasingly likely to go unexplored as the array fills up. Intended
+     * for approximate coverage of spaces too large to explore otherwise; see {@link
+     * SearchResults#omissionProbability()}.
+     */
+    BITSTATE
+  }
+
   private volatile int maxDepth = -1;
   private volatile int numThreads = defaultNumThreads();
   private volatile int outputFreqSecs = GlobalSettings.verbose() ? 5 : -1;
+  private volatile VisitedStates visitedStates = VisitedStates.EXACT;
+
+  /** The size of the bit array used by {@link VisitedStates#BITSTATE}, in megabytes. */
+  private volatile int bitstateMB = GlobalSettings.searchBitstateMB();
+
+  /**
+   * How many frontier states breadth-first searches keep in memory before writing new ones to disk,
+   * or a negative number to keep the whole frontier in memory. Most useful together with {@link
+   * VisitedStates#FINGERPRINT}, since otherwise the discovered set retains every state anyway. The
+   * work-stealing engine does not spill, so searches which spill do not use it.
+   */
+  private volatile int frontierSpillThreshold = -1;
+
+  /**
+   * Whether multi-threaded breadth-first searches should use the level-synchronous, work-stealing
+   * engine, where each thread keeps its own frontier, rather than handing out one state at a time.
+   * That engine keeps the whole frontier in memory, does not save checkpoints, and does not use
+   * partial-order reduction; if any of those is configured, searches log a warning and use the
+   * default engine.
+   */
+  private volatile boolean workStealingBFS = false;
+
+  /**
+   * Whether breadth-first searches should use sleep sets to avoid re-exploring interleavings of
+   * events delivered to different nodes. Every reachable state is still checked, but far fewer
+   * successor states are generated. Distributed searches and searches with symmetry groups log a
+   * warning and explore every interleaving instead.
+   */
+  private volatile boolean partialOrderReduction = false;
+
+  /**
+   * Whether breadth-first searches should replace each newly stepped node with an equal instance
+   * already held by another state, if there is one. Saves memory when nodes often return to the
+   * same state along different interleavings, at the cost of an extra equality check per step.
+   */
+  private volatile boolean internNodes = false;
+
+  /**
+   * Whether breadth-first searches should drop each frontier state's reference to its predecessor.
+   * Explored levels of the state graph can then be garbage collected (unless they are retained by
+   * {@link VisitedStates#EXACT}), and traces are reconstructed by replaying events from the initial
+   * state when needed.
+   */
+  private volatile boolean replayTraces = false;
+
+  /**
+   * The file searches periodically save their progress to, or {@code null} to not save it.
+   * Breadth-first and exhaustive depth-first searches save their frontier, discovered states, and
+   * counters; random depth-first searches save their counters. A checkpoint is also saved when the
+   * search runs out of time or exhausts the space. Breadth-first searches which save checkpoints do
+   * not use the work-stealing engine. Best-first and iterative-deepening searches do not support
+   * checkpoints; they log a warning and ignore this setting.
+   */
+  private volatile String checkpointFile = null;
+
+  /** How often to save a checkpoint, or a negative number to only save one at the end. */
+  private volatile int checkpointFreqSecs = 600;
+
+  /**
+   * Whether searches should pick up from the checkpoint in {@link #checkpointFile()}, if it exists,
+   * rather than starting over. The search must start from the same initial state, with the same
+   * strategy and visited-state settings, as the one which saved the checkpoint.
+   */
+  private volatile boolean resumeFromCheckpoint = false;
+
+  /**
+   * How many worker JVMs breadth-first searches should spread the state space across, or 0 to
+   * search within this JVM. See {@link DistributedBFS}. Ignored when checkpoints are enabled.
+   */
+  private volatile int distributedWorkers = 0;
+
+  /**
+   * How many populations random depth-first searches should split their probes across, each with
+   * its own randomly chosen preferences among events and probe depth, or 0 to have every probe
+   * choose uniformly among enabled events. See {@link SwarmDFS}.
+   */
+  private volatile int swarmPopulations = 0;
+
+  /**
+   * The file to write the search's {@link SearchStatistics} to as JSON when it finishes, or {@code
+   * null} to not write them.
+   */
+  private volatile String statisticsFile = null;
 
   private final Collection<StatePredicate> prunes = new ConcurrentLinkedQueue<>();
   private final Collection<StatePredicate> goals = new ConcurrentLinkedQueue<>();
+  private final Collection<List<Address>> symmetryGroups = new ConcurrentLinkedQueue<>();
 
   private static int defaultNumThreads() {
     return Runtime.getRuntime().availableProcessors();
@@ -75,7 +181,22 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
    * @return true if any prune predicates match the state
    */
   public final boolean shouldPrune(SearchState state) {
+    return shouldPrune(state, p -> false);
+  }
+
+  /**
+   * Like {@link #shouldPrune(SearchState)}, but does not evaluate the prunes already known not to
+   * match the state.
+   *
+   * @param state the state to check
+   * @param skip whether a prune is known not to match
+   * @return true if any prune predicates match the state
+   */
+  public final boolean shouldPrune(SearchState state, Predicate<StatePredicate> skip) {
     for (StatePredicate p : prunes) {
+      if (skip.test(p)) {
+        continue;
+      }
       PredicateResult r = p.test(state, false);
       if (r == null) {
         continue;
@@ -119,7 +240,22 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
    * @return the result or {@code null}
    */
   public final PredicateResult goalMatched(SearchState state) {
+    return goalMatched(state, p -> false);
+  }
+
+  /**
+   * Like {@link #goalMatched(SearchState)}, but does not evaluate the goals already known not to
+   * match the state.
+   *
+   * @param state the state to check
+   * @param skip whether a goal is known not to match
+   * @return the result or {@code null}
+   */
+  public final PredicateResult goalMatched(SearchState state, Predicate<StatePredicate> skip) {
     for (StatePredicate p : goals) {
+      if (skip.test(p)) {
+        continue;
+      }
       PredicateResult r = p.test(state, false);
       if (r == null) {
         continue;
@@ -134,6 +270,30 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
     return null;
   }
 
+  /**
+   * Declare a group of interchangeable root addresses. Breadth-first searches will consider states
+   * that are the same up to a permutation of the addresses in each group to be the same state. Only
+   * sound if the nodes at those addresses are initialized identically (up to their addresses) and
+   * all invariants, goals, and prunes treat them identically. Checking whether a state is new costs
+   * {@code n!} deserializations for a group of {@code n} addresses.
+   *
+   * @param addresses the group's addresses
+   * @return this
+   */
+  public final SearchSettings addSymmetryGroup(Address... addresses) {
+    symmetryGroups.add(List.of(addresses));
+    return this;
+  }
+
+  public final SearchSettings clearSymmetryGroups() {
+    symmetryGroups.clear();
+    return this;
+  }
+
+  public boolean symmetryReduced() {
+    return !symmetryGroups.isEmpty();
+  }
+
   @Override
   public SearchSettings singleThreaded(boolean singleThreaded) {
     super.singleThreaded(singleThreaded);
@@ -164,6 +324,18 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
     return maxDepth >= 0;
   }
 
+  public boolean checkpoints() {
+    return checkpointFile != null;
+  }
+
+  public boolean distributed() {
+    return distributedWorkers > 0 && !checkpoints();
+  }
+
+  public boolean spillsFrontier() {
+    return frontierSpillThreshold >= 0;
+  }
+
   @Override
   public SearchSettings maxTimeSecs(int maxTimeSecs) {
     super.maxTimeSecs(maxTimeSecs);
@@ -175,9 +347,23 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
     super.clear();
     clearPrunes();
     clearGoals();
+    clearSymmetryGroups();
     maxDepth(-1);
     outputFreqSecs(5);
     numThreads(defaultNumThreads());
+    visitedStates(VisitedStates.EXACT);
+    bitstateMB(GlobalSettings.searchBitstateMB());
+    frontierSpillThreshold(-1);
+    workStealingBFS(false);
+    partialOrderReduction(false);
+    internNodes(false);
+    replayTraces(false);
+    checkpointFile(null);
+    checkpointFreqSecs(600);
+    resumeFromCheckpoint(false);
+    distributedWorkers(0);
+    swarmPopulations(0);
+    statisticsFile(null);
     return this;
   }
 
@@ -187,9 +373,23 @@ public class SearchSettings extends TestSettings<SearchSettings> implements Clon
     super(s);
     goals.addAll(s.goals);
     prunes.addAll(s.prunes);
+    symmetryGroups.addAll(s.symmetryGroups);
     maxDepth = s.maxDepth;
     numThreads = s.numThreads;
     outputFreqSecs = s.outputFreqSecs;
+    visitedStates = s.visitedStates;
+    bitstateMB = s.bitstateMB;
+    frontierSpillThreshold = s.frontierSpillThreshold;
+    workStealingBFS = s.workStealingBFS;
+    partialOrderReduction = s.partialOrderReduction;
+    internNodes = s.internNodes;
+    replayTraces = s.replayTraces;
+    checkpointFile = s.checkpointFile;
+    checkpointFreqSecs = s.checkpointFreqSecs;
+    resumeFromCheckpoint = s.resumeFromCheckpoint;
+    distributedWorkers = s.distributedWorkers;
+    swarmPopulations = s.swarmPopulations;
+    statisticsFile = s.statisticsFile;
   }
 
   @Override
@@ -23,6 +23,7 @@
 package dslabs.framework.testing.search;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -39,12 +40,18 @@ import dslabs.framework.testing.NodeGenerator;
 import dslabs.framework.testing.StatePredicate;
 import dslabs.framework.testing.TimerEnvelope;
 import dslabs.framework.testing.Workload;
+import dslabs.framework.testing.monitoring.MessageDeliveryEvent;
+import dslabs.framework.testing.monitoring.TimerFiringEvent;
 import dslabs.framework.testing.utils.Cloning;
+import dslabs.framework.testing.utils.PersistentHashMap;
+import dslabs.framework.testing.utils.PersistentHashSet;
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -53,10 +60,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Stack;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -65,20 +73,27 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
 @Log
-@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
 public final class SearchState extends AbstractState implements Serializable, Cloneable {
 
-  private final Set<MessageEnvelope> network;
+  private final PersistentHashSet<MessageEnvelope> network;
 
   /**
    * Allows the state to store (temporarily) ignored messages, which are not considered as potential
    * steps during search.
    */
-  private final Set<MessageEnvelope> droppedNetwork;
+  private final PersistentHashSet<MessageEnvelope> droppedNetwork;
 
-  @EqualsAndHashCode.Include private final Map<Address, TimerQueue> timers;
+  private final PersistentHashMap<Address, TimerQueue> timers;
+
+  /** {@code null} for initial states, or once released (see {@link #releasePrevious()}). */
+  private transient SearchState previous;
+
+  /**
+   * The events leading to this state, or {@code null} if they have not been needed yet (see {@link
+   * #history()}) or it was deserialized on its own.
+   */
+  private transient volatile EventHistory history;
 
-  @Getter private final transient SearchState previous;
   @Getter private final transient Event previousEvent;
   @Getter private final transient int depth;
 
@@ -88,17 +103,31 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   @Getter private final transient Set<MessageEnvelope> newMessages;
   @Getter private final transient Set<TimerEnvelope> newTimers;
 
+  /**
+   * The only node which changed since the previous state, or {@code null} if it is unknown or the
+   * state has been modified some other way. Allows hashes to be computed incrementally.
+   */
+  private transient Address steppedAddress;
+
+  /** Lazily computed, see {@link #hashes()}. */
+  private transient volatile Hashes hashes;
+
+  /** The search which found this state to satisfy its predicates, see {@link #passedChecks}. */
+  private transient volatile Object checkedBy;
+
   public SearchState(NodeGenerator nodeGenerator) {
     super(Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), nodeGenerator);
 
-    this.network = new HashSet<>();
-    this.droppedNetwork = new HashSet<>();
-    this.timers = new HashMap<>();
+    this.network = new PersistentHashSet<>();
+    this.droppedNetwork = new PersistentHashSet<>();
+    this.timers = new PersistentHashMap<>();
     this.previous = null;
+    this.history = EventHistory.of(this);
     this.previousEvent = null;
     this.depth = 0;
     this.newMessages = new HashSet<>();
     this.newTimers = new HashSet<>();
+    this.steppedAddress = null;
   }
 
   /**
@@ -108,14 +137,15 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   private SearchState(SearchState previous, Address addressToClone, Event previousEvent) {
     super(previous, addressToClone);
 
-    network = new HashSet<>(previous.network);
-    droppedNetwork = new HashSet<>(previous.droppedNetwork);
-    timers = new HashMap<>(previous.timers);
+    network = previous.network.copy();
+    droppedNetwork = previous.droppedNetwork.copy();
+    timers = previous.timers.copy();
     this.previous = previous;
     this.previousEvent = previousEvent;
     depth = previous.depth + 1;
     newMessages = new HashSet<>();
     newTimers = new HashSet<>();
+    steppedAddress = addressToClone;
 
     timers.put(addressToClone, new TimerQueue(timers.get(addressToClone)));
     configNode(addressToClone);
@@ -128,14 +158,152 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   private SearchState(SearchState source) {
     super(source, null);
 
-    network = new HashSet<>(source.network);
-    droppedNetwork = new HashSet<>(source.droppedNetwork);
-    timers = new HashMap<>(source.timers);
+    network = source.network.copy();
+    droppedNetwork = source.droppedNetwork.copy();
+    timers = source.timers.copy();
     this.previous = source.previous;
+    this.history = source.history;
     this.previousEvent = source.previousEvent;
     depth = source.depth;
     newMessages = new HashSet<>(source.newMessages);
     newTimers = new HashSet<>(source.newTimers);
+    steppedAddress = source.steppedAddress;
+    hashes = source.hashes;
+  }
+
+  /**
+   * Re-attaches the transient fields to a state that was serialized without them. Takes ownership
+   * of the restored state's collections; does not clone or configure any nodes.
+   */
+  private SearchState(
+      SearchState restored,
+      SearchState previous,
+      EventHistory history,
+      Event previousEvent,
+      int depth,
+      Set<MessageEnvelope> newMessages,
+      Set<TimerEnvelope> newTimers) {
+    super(restored, null, history.initialState().gen);
+
+    network = restored.network;
+    droppedNetwork = restored.droppedNetwork;
+    timers = restored.timers;
+    this.previous = previous;
+    this.history = history;
+    this.previousEvent = previousEvent;
+    this.depth = depth;
+    this.newMessages = newMessages;
+    this.newTimers = newTimers;
+    this.steppedAddress = null;
+  }
+
+  /**
+   * Reconstructs a state that was written out to disk (see {@link SpillingQueue}).
+   *
+   * @param restored the deserialized state, which must not be used afterwards
+   * @param previous the in-memory predecessor of the original state
+   * @return the reconstructed state
+   */
+  static SearchState restore(
+      @NonNull SearchState restored,
+      @NonNull SearchState previous,
+      Event previousEvent,
+      int depth,
+      Set<MessageEnvelope> newMessages,
+      Set<TimerEnvelope> newTimers) {
+    final EventHistory history = previous.history();
+    return new SearchState(
+        restored,
+        previous,
+        (history != null ? history : EventHistory.of(previous)).append(previousEvent),
+        previousEvent,
+        depth,
+        newMessages,
+        newTimers);
+  }
+
+  /**
+   * Like {@link #restore(SearchState, SearchState, Event, int, Set, Set)}, but for a state whose
+   * predecessor was released before it was written out.
+   *
+   * @param restored the deserialized state, which must not be used afterwards
+   * @param history the history of the original state
+   * @return the reconstructed state
+   */
+  static SearchState restore(
+      @NonNull SearchState restored,
+      @NonNull EventHistory history,
+      Event previousEvent,
+      int depth,
+      Set<MessageEnvelope> newMessages,
+      Set<TimerEnvelope> newTimers) {
+    return new SearchState(restored, null, history, previousEvent, depth, newMessages, newTimers);
+  }
+
+  /**
+   * The state this state was stepped from, or {@code null} if this is an initial state. If the
+   * predecessor was released (see {@link #releasePrevious()}), a copy of it is reconstructed by
+   * replaying this state's history, so this method should not be called often on such states.
+   *
+   * @return the previous state
+   */
+  public SearchState previous() {
+    final SearchState p = previous;
+    if (p != null || history == null || history.parent() == null) {
+      return p;
+    }
+    return history.parent().replay();
+  }
+
+  /** The predecessor if it is still referenced, without reconstructing it. */
+  SearchState retainedPrevious() {
+    return previous;
+  }
+
+  /**
+   * The events leading to this state. Successors only record their predecessor and the event
+   * stepped, so that searches which keep predecessors around do not pay for a history per state;
+   * the history is built from the chain of retained predecessors on first use, which must be before
+   * the predecessor is released.
+   *
+   * @return the history, or {@code null} if the state was deserialized on its own
+   */
+  EventHistory history() {
+    EventHistory h = history;
+    if (h != null || previous == null) {
+      return h;
+    }
+
+    // Walk back to the nearest state with a history, iteratively since traces can be long
+    final Deque<SearchState> pending = new ArrayDeque<>();
+    SearchState s = this;
+    while (s.history == null && s.previous != null) {
+      pending.push(s);
+      s = s.previous;
+    }
+    h = s.history != null ? s.history : EventHistory.of(s);
+    while (!pending.isEmpty()) {
+      final SearchState next = pending.pop();
+      h = h.append(next.previousEvent);
+      next.history = h;
+    }
+    return h;
+  }
+
+  /**
+   * Drops this state's reference to its predecessor, so that the predecessor (and its own
+   * predecessors) can be garbage collected once they are no longer needed by the search. {@link
+   * #previous()} and {@link #trace()} still work by replaying the events which led to this state.
+   * Should only be called once the state is no longer going to be modified.
+   */
+  void releasePrevious() {
+    if (history() == null) {
+      // Nothing to replay the trace from
+      return;
+    }
+    // Hash now, while the predecessor's hashes are still available
+    hashes();
+    previous = null;
   }
 
   /**
@@ -151,7 +319,6 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   }
 
   @Override
-  @EqualsAndHashCode.Include
   public Iterable<MessageEnvelope> network() {
     return Sets.union(network, droppedNetwork);
   }
@@ -171,13 +338,18 @@ public final class SearchState extends AbstractState implements Serializable, Cl
       }
     }
 
+    invalidateHashes();
     timers.put(address, new TimerQueue());
     configNode(address);
     node(address).init();
+    detachNode(address);
   }
 
   @Override
   protected void ensureNodeConfig(Address address) {
+    // Only called before the node is modified, which AbstractState does after this returns, so the
+    // node stays attached to this state until it is next stepped
+    invalidateHashes();
     configNode(address);
   }
 
@@ -186,6 +358,10 @@ public final class SearchState extends AbstractState implements Serializable, Cl
     throw new UnsupportedOperationException("Cannot remove nodes from search state.");
   }
 
+  /**
+   * Points the node's callbacks at this state, so that the messages it sends and timers it sets are
+   * added here. Must be undone with {@link #detachNode(Address)} once the node has been stepped.
+   */
   private void configNode(final Address address) {
     node(address)
         .config(
@@ -223,32 +399,81 @@ public final class SearchState extends AbstractState implements Serializable, Cl
             false);
   }
 
+  /**
+   * Replaces the callbacks installed by {@link #configNode(Address)}. Nodes are shared with
+   * successor states, so callbacks capturing this state would keep it (and, through its other
+   * nodes, its predecessors) reachable from every later state, even after {@link
+   * #releasePrevious()}.
+   */
+  private void detachNode(Address address) {
+    node(address)
+        .config(
+            SearchState::notStepped,
+            SearchState::notStepped,
+            SearchState::notStepped,
+            SearchState::notStepped,
+            false);
+  }
+
+  private static void notStepped(Object ignored) {
+    throw new IllegalStateException("Node used outside of a step");
+  }
+
   Collection<Event> events(SearchSettings settings) {
-    if (settings == null) {
-      settings = new SearchSettings();
+    try (EventBuffer buffer = EventBuffer.acquire()) {
+      events(settings, buffer);
+      final List<Event> events = new ArrayList<>(buffer.size());
+      for (int i = 0; i < buffer.size(); i++) {
+        events.add(buffer.get(i));
+      }
+      return events;
     }
+  }
 
-    List<Event> events = new LinkedList<>();
-
+  /**
+   * Adds the events which can be taken from this state to the buffer, in the same order as {@link
+   * #events(SearchSettings)}, without allocating a collection.
+   *
+   * @param settings the settings or null to use default {@link SearchSettings}
+   * @param buffer the buffer to add the events to
+   */
+  void events(SearchSettings settings, EventBuffer buffer) {
     // These checks MUST stay in-sync with the individual step methods
 
     // Deliver all possible messages
     for (MessageEnvelope message : network) {
-      if (hasNode(message.to().rootAddress()) && settings.shouldDeliver(message)) {
-        events.add(message);
+      if (hasNode(message.to().rootAddress()) && shouldDeliver(settings, message)) {
+        buffer.add(message);
       }
     }
 
     // Deliver all possible timers
     for (Address address : addresses()) {
-      if (settings.deliverTimers(address)) {
-        for (TimerEnvelope timer : timers.get(address).deliverable()) {
-          events.add(timer);
+      if (deliverTimers(settings, address)) {
+        final TimerQueue queue = timers.get(address);
+        for (int i = 0; i < queue.size(); i++) {
+          if (queue.isDeliverable(i)) {
+            buffer.add(queue.get(i));
+          }
         }
       }
     }
+  }
 
-    return events;
+  /**
+   * Whether the settings allow the message to be delivered. Default settings, used when {@code
+   * settings} is {@code null}, deliver every message.
+   */
+  private static boolean shouldDeliver(SearchSettings settings, MessageEnvelope message) {
+    return settings == null || settings.shouldDeliver(message);
+  }
+
+  /**
+   * Whether the settings allow timers to be delivered to the address. Default settings, used when
+   * {@code settings} is {@code null}, deliver every timer.
+   */
+  private static boolean deliverTimers(SearchSettings settings, Address address) {
+    return settings == null || settings.deliverTimers(address);
   }
 
   /**
@@ -258,10 +483,6 @@ public final class SearchState extends AbstractState implements Serializable, Cl
    * @return the (possible empty) set of new states
    */
   Collection<SearchState> step(SearchSettings settings) {
-    if (settings == null) {
-      settings = new SearchSettings();
-    }
-
     List<SearchState> newStates = new LinkedList<>();
 
     for (Event event : events(settings)) {
@@ -273,32 +494,63 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   }
 
   public SearchState stepEvent(Event event, SearchSettings settings, boolean skipChecks) {
+    return stepEvent(event, settings, skipChecks, null);
+  }
+
+  /**
+   * Like {@link #stepEvent(Event, SearchSettings, boolean)}, but records the time spent cloning and
+   * running handlers in the given statistics, if not {@code null}.
+   */
+  SearchState stepEvent(
+      Event event, SearchSettings settings, boolean skipChecks, SearchStatistics statistics) {
     return switch (event) {
-      case MessageEnvelope messageEnvelope -> stepMessage(messageEnvelope, settings, skipChecks);
-      case TimerEnvelope timerEnvelope -> stepTimer(timerEnvelope, settings, skipChecks);
+      case MessageEnvelope messageEnvelope ->
+          stepMessage(messageEnvelope, settings, skipChecks, statistics);
+      case TimerEnvelope timerEnvelope ->
+          stepTimer(timerEnvelope, settings, skipChecks, statistics);
     };
   }
 
   public SearchState stepMessage(
       MessageEnvelope message, SearchSettings settings, boolean skipChecks) {
-    if (settings == null) {
-      settings = new SearchSettings();
-    }
+    return stepMessage(message, settings, skipChecks, null);
+  }
 
+  private SearchState stepMessage(
+      MessageEnvelope message,
+      SearchSettings settings,
+      boolean skipChecks,
+      SearchStatistics statistics) {
     final Address toAddress = message.to().rootAddress();
 
     // Node must exist
     if (!hasNode(toAddress)
-        || (!skipChecks && !(network.contains(message) && settings.shouldDeliver(message)))) {
+        || (!skipChecks && !(network.contains(message) && shouldDeliver(settings, message)))) {
       return null;
     }
 
+    final long start = statistics != null ? System.nanoTime() : 0;
     SearchState ns = new SearchState(this, toAddress, message);
     Message nm = Cloning.clone(message.message());
     Node n = ns.node(toAddress);
+    final long cloned = statistics != null ? System.nanoTime() : 0;
 
     // Just handle, don't remove since messages can be duplicated.
+    final MessageDeliveryEvent event =
+        MessageDeliveryEvent.enabled() ? new MessageDeliveryEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
     n.handleMessage(nm, message.from(), message.to());
+    if (event != null) {
+      event.commit(message, "search");
+    }
+    ns.detachNode(toAddress);
+
+    if (statistics != null) {
+      statistics.cloning(cloned - start);
+      statistics.handling(System.nanoTime() - cloned);
+    }
     return ns;
   }
 
@@ -314,14 +566,10 @@ public final class SearchState extends AbstractState implements Serializable, Cl
    * @see TimerQueue
    */
   public boolean canStepTimer(TimerEnvelope timer, SearchSettings settings) {
-    if (settings == null) {
-      settings = new SearchSettings();
-    }
-
     final Address toAddress = timer.to().rootAddress();
 
     return hasNode(toAddress)
-        && settings.deliverTimers(toAddress)
+        && deliverTimers(settings, toAddress)
         && timers.get(toAddress).isDeliverable(timer);
   }
 
@@ -334,34 +582,113 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   }
 
   public SearchState stepTimer(TimerEnvelope timer, SearchSettings settings, boolean skipChecks) {
-    // TODO: here and everywhere else we instantiate SearchSettings to get defaults, use a singleton
-    if (settings == null) {
-      settings = new SearchSettings();
-    }
+    return stepTimer(timer, settings, skipChecks, null);
+  }
 
+  private SearchState stepTimer(
+      TimerEnvelope timer,
+      SearchSettings settings,
+      boolean skipChecks,
+      SearchStatistics statistics) {
     final Address toAddress = timer.to().rootAddress();
 
     if (!hasNode(toAddress)) {
       return null;
     }
 
-    if (!skipChecks && !canStepTimer(timer, settings)) {
+    // Look the timer up once, for both the deliverability check and its removal
+    final int index = timers.get(toAddress).indexOf(timer);
+    if (!skipChecks
+        && !(deliverTimers(settings, toAddress)
+            && index >= 0
+            && timers.get(toAddress).isDeliverable(index))) {
       return null;
     }
 
+    final long start = statistics != null ? System.nanoTime() : 0;
     SearchState ns = new SearchState(this, toAddress, timer);
     Timer nt = Cloning.clone(timer.timer());
     Node n = ns.node(toAddress);
+    final long cloned = statistics != null ? System.nanoTime() : 0;
 
+    final TimerFiringEvent event = TimerFiringEvent.enabled() ? new TimerFiringEvent() : null;
+    if (event != null) {
+      event.begin();
+    }
     n.onTimer(nt, timer.to());
-    ns.timers.get(toAddress).remove(timer);
+    if (event != null) {
+      event.commit(timer, "search");
+    }
+    ns.detachNode(toAddress);
+    // The handler can only append timers, so the index is still valid
+    if (index >= 0) {
+      ns.timers.get(toAddress).remove(index);
+    }
+
+    if (statistics != null) {
+      statistics.cloning(cloned - start);
+      statistics.handling(System.nanoTime() - cloned);
+    }
     return ns;
   }
 
+  /**
+   * Replaces the node changed by the step which produced this state with the interner's canonical
+   * instance of it, so that equal nodes are shared between states. Does nothing if that node is not
+   * known. Should be called before the state is shared with other threads.
+   *
+   * <p>Stepped nodes are already detached from the state which stepped them (see {@link
+   * #detachNode(Address)}), so a canonical node does not keep the state which first produced it
+   * reachable from the other states it is substituted into.
+   */
+  // Substituting an equal but distinct node is what interning is for
+  @SuppressWarnings("ReferenceEquality")
+  void internSteppedNode(@NonNull Interner<Node> interner) {
+    final Address address = steppedAddress;
+    if (address == null) {
+      return;
+    }
+
+    final Node node = node(address);
+    final Node canonical = interner.intern(node);
+    if (canonical != node) {
+      substituteNode(address, canonical);
+    }
+  }
+
+  /**
+   * Records that this state satisfied all of the search's invariants and matched none of its goals
+   * or prunes.
+   *
+   * @param search the search which checked the state
+   */
+  void passedChecks(Object search) {
+    checkedBy = search;
+  }
+
+  /**
+   * The predicates which need not be evaluated on this state for the given search, because they
+   * must have the same value as on the previous state. That is the case when the previous state
+   * passed the search's checks (see {@link #passedChecks(Object)}) and the predicate declares that
+   * it does not read the only node that changed (see {@link StatePredicate#readsOnly}).
+   *
+   * @param search the search checking the state
+   * @return whether a predicate can be skipped
+   */
+  Predicate<StatePredicate> unaffectedPredicates(Object search) {
+    final SearchState p = previous;
+    final Address a = steppedAddress;
+    if (p == null || a == null || p.checkedBy != search) {
+      return predicate -> false;
+    }
+    final Node node = node(a);
+    return predicate -> !predicate.reads(a, node);
+  }
+
   public Iterable<SearchState> trace() {
     List<SearchState> trace = new LinkedList<>();
 
-    for (SearchState current = this; current != null; current = current.previous) {
+    for (SearchState current = this; current != null; current = current.previous()) {
       trace.add(current);
     }
 
@@ -536,15 +863,18 @@ public final class SearchState extends AbstractState implements Serializable, Cl
    * potential steps. Allows re-narrowing of a search. Use with caution.
    */
   public void dropPendingMessages() {
+    invalidateHashes();
     droppedNetwork.addAll(network);
     network.clear();
   }
 
   public void undropMessages() {
+    invalidateHashes();
     network.addAll(droppedNetwork);
   }
 
   public void undropMessagesFrom(Address a) {
+    invalidateHashes();
     for (MessageEnvelope m : droppedNetwork) {
       if (m.from().equals(a)) {
         network.add(m);
@@ -553,6 +883,7 @@ public final class SearchState extends AbstractState implements Serializable, Cl
   }
 
   public void undropMessagesTo(Address a) {
+    invalidateHashes();
     for (MessageEnvelope m : droppedNetwork) {
       if (m.to().equals(a)) {
         network.add(m);
@@ -573,7 +904,7 @@ public final class SearchState extends AbstractState implements Serializable, Cl
    * union of both message sets.
    */
   @AllArgsConstructor(access = AccessLevel.PRIVATE)
-  static final class SearchEquivalenceWrappedSearchState {
+  static final class SearchEquivalenceWrappedSearchState implements Serializable {
     @Getter @NonNull private final SearchState state;
 
     public String toString() {
@@ -609,7 +940,7 @@ public final class SearchState extends AbstractState implements Serializable, Cl
       if (state.droppedNetwork.isEmpty()) {
         return result;
       }
-      result = result * PRIME + (state.network == null ? 43 : state.network.hashCode());
+      result = result * PRIME + Long.hashCode(state.hashes().undroppedNetwork);
       return result;
     }
   }
@@ -618,6 +949,213 @@ public final class SearchState extends AbstractState implements Serializable, Cl
     return new SearchEquivalenceWrappedSearchState(this);
   }
 
+  /**
+   * A 64-bit fingerprint of this state under search-equivalence (see {@link
+   * SearchEquivalenceWrappedSearchState}). Search-equivalent states always have the same
+   * fingerprint.
+   *
+   * <p>The fingerprint is built out of the 32-bit {@code hashCode}s of the nodes, messages, and
+   * timer queues (see {@link #componentHashes(LongConsumer)}), so it is only as discriminating as
+   * those are: two states differing only in components whose hashes collide share a fingerprint.
+   * With many distinct components, such collisions are far likelier than collisions of 64-bit
+   * fingerprints. Worse, {@code hashCode}s built by combining small integers with a fixed
+   * multiplier, as Lombok's are, collide systematically rather than by chance; e.g., a node whose
+   * fields are {@code 1} and {@code [0, 0, 0, 3]} hashes like one whose fields are {@code 0} and
+   * {@code [0, 0, 2, 0]}. The components' contents cannot be hashed directly instead, because their
+   * {@code equals} methods may ignore some of their fields.
+   *
+   * @return the fingerprint
+   */
+  long fingerprint() {
+    final Hashes h = hashes();
+    long fingerprint = h.nodes;
+    fingerprint = fingerprint * 31 + h.network;
+    fingerprint = fingerprint * 31 + h.timers;
+    fingerprint = fingerprint * 31 + Objects.hashCode(thrownException);
+    if (!droppedNetwork.isEmpty()) {
+      fingerprint = fingerprint * 31 + h.undroppedNetwork;
+    }
+    return Fingerprints.mix(fingerprint);
+  }
+
+  /**
+   * Passes the hashes of this state's components (its nodes, messages, and timer queues) to the
+   * action. For a successor whose hashes were computed from its predecessor's, only the hashes of
+   * the components which changed are passed. Used to estimate how likely it is that distinct
+   * components share a hash.
+   *
+   * @param action the action
+   */
+  void componentHashes(LongConsumer action) {
+    final Hashes h = hashes();
+    final Address stepped = steppedAddress;
+    if (stepped != null && previous != null) {
+      final int addressHash = stepped.hashCode();
+      action.accept(Fingerprints.mix(addressHash, h.nodeHashes.get(stepped)));
+      for (MessageEnvelope m : newMessages) {
+        action.accept(m.hashCode());
+      }
+      action.accept(Fingerprints.mix(addressHash, timers.get(stepped).hashCode()));
+      return;
+    }
+
+    for (Map.Entry<Address, Integer> e : h.nodeHashes.entrySet()) {
+      action.accept(Fingerprints.mix(e.getKey().hashCode(), e.getValue()));
+    }
+    for (MessageEnvelope m : network) {
+      action.accept(m.hashCode());
+    }
+    for (MessageEnvelope m : droppedNetwork) {
+      action.accept(m.hashCode());
+    }
+    for (Map.Entry<Address, TimerQueue> e : timers.entrySet()) {
+      action.accept(Fingerprints.mix(e.getKey().hashCode(), e.getValue().hashCode()));
+    }
+  }
+
+  /**
+   * Order-independent hashes of the components of a state: the sums of {@link Fingerprints#mix}ed
+   * hashes of each node, message, and timer queue. A successor only differs from its predecessor in
+   * one node, that node's timer queue, and the messages it sent, so its hashes can be computed from
+   * its predecessor's by hashing just those.
+   */
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class Hashes {
+    private final PersistentHashMap<Address, Integer> nodeHashes;
+    private final long nodes;
+
+    /** Hash of {@link #network()}, i.e., including dropped messages. */
+    private final long network;
+
+    /** Hash of only the messages which have not been dropped. */
+    private final long undroppedNetwork;
+
+    private final long timers;
+
+    private static Hashes of(SearchState s) {
+      final PersistentHashMap<Address, Integer> nodeHashes = new PersistentHashMap<>();
+      long nodes = 0;
+      for (Address a : s.addresses()) {
+        final int nodeHash = s.node(a).hashCode();
+        nodeHashes.put(a, nodeHash);
+        nodes += Fingerprints.mix(a.hashCode(), nodeHash);
+      }
+
+      long undroppedNetwork = 0;
+      for (MessageEnvelope m : s.network) {
+        undroppedNetwork += Fingerprints.mix(m.hashCode());
+      }
+      long network = undroppedNetwork;
+      for (MessageEnvelope m : s.droppedNetwork) {
+        if (!s.network.contains(m)) {
+          network += Fingerprints.mix(m.hashCode());
+        }
+      }
+
+      long timers = 0;
+      for (Map.Entry<Address, TimerQueue> e : s.timers.entrySet()) {
+        timers += Fingerprints.mix(e.getKey().hashCode(), e.getValue().hashCode());
+      }
+
+      return new Hashes(nodeHashes, nodes, network, undroppedNetwork, timers);
+    }
+
+    /** Compute the hashes of s, a successor of the state these hashes belong to. */
+    private Hashes successor(SearchState s) {
+      final SearchState previous = s.previous;
+      final Address a = s.steppedAddress;
+      final int addressHash = a.hashCode();
+
+      // Constant-time copy, sharing all other entries with the predecessor's map. Concurrent copies
+      // of that map are safe because it is never modified once built.
+      final PersistentHashMap<Address, Integer> nodeHashes = this.nodeHashes.copy();
+      final int nodeHash = s.node(a).hashCode();
+      final long nodes =
+          this.nodes
+              - Fingerprints.mix(addressHash, nodeHashes.put(a, nodeHash))
+              + Fingerprints.mix(addressHash, nodeHash);
+
+      long network = this.network, undroppedNetwork = this.undroppedNetwork;
+      for (MessageEnvelope m : s.newMessages) {
+        if (!previous.network.contains(m)) {
+          final long h = Fingerprints.mix(m.hashCode());
+          undroppedNetwork += h;
+          if (!previous.droppedNetwork.contains(m)) {
+            network += h;
+          }
+        }
+      }
+
+      final long timers =
+          this.timers
+              - Fingerprints.mix(addressHash, previous.timers.get(a).hashCode())
+              + Fingerprints.mix(addressHash, s.timers.get(a).hashCode());
+
+      return new Hashes(nodeHashes, nodes, network, undroppedNetwork, timers);
+    }
+
+    private boolean sameAs(Hashes other) {
+      return nodes == other.nodes && network == other.network && timers == other.timers;
+    }
+  }
+
+  /**
+   * The state's hashes. Computed on first use, and incrementally if possible. Assumes that the
+   * state is no longer modified once its hash has been taken, other than through the methods which
+   * invalidate it.
+   */
+  private Hashes hashes() {
+    Hashes h = hashes;
+    if (h == null) {
+      final Hashes previousHashes = previous != null ? previous.hashes : null;
+      if (steppedAddress != null && previousHashes != null) {
+        h = previousHashes.successor(this);
+      } else {
+        h = Hashes.of(this);
+      }
+      hashes = h;
+    }
+    return h;
+  }
+
+  // Whether the history starts at this very state, not at an equal one
+  @SuppressWarnings("ReferenceEquality")
+  private void invalidateHashes() {
+    steppedAddress = null;
+    hashes = null;
+
+    // Replaying the history would no longer reproduce this state
+    final EventHistory h = history;
+    if (h != null ? h.initialState() != this : previous != null) {
+      previous = previous();
+      history = EventHistory.of(this);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof SearchState other)) {
+      return false;
+    }
+    final Hashes h = hashes, otherHashes = other.hashes;
+    if (h != null && otherHashes != null && !h.sameAs(otherHashes)) {
+      return false;
+    }
+    return super.equals(other)
+        && Sets.union(network, droppedNetwork)
+            .equals(Sets.union(other.network, other.droppedNetwork))
+        && Objects.equals(timers, other.timers);
+  }
+
+  @Override
+  public int hashCode() {
+    final Hashes h = hashes();
+    return Long.hashCode(Fingerprints.mix((h.nodes * 31 + h.network) * 31 + h.timers));
+  }
+
   @Override
   public String toString() {
     return String.format(
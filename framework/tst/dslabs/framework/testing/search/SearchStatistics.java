@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing where a search spent its time and what the state graph it explored looked
+ * like. Recorded by every search, and cheap enough to always leave on. Safe for concurrent access;
+ * values read while the search is running may be slightly out of date.
+ *
+ * <p>Times are summed over all worker threads, so they may add up to more than the elapsed time.
+ */
+public final class SearchStatistics {
+  /** Counters for the states at a single depth. */
+  public record DepthStatistics(int depth, long expanded, long generated, long duplicates) {
+    /** The average number of successors generated per expanded state at the previous depth. */
+    public double branchingFactor(DepthStatistics previous) {
+      return previous == null || previous.depth != depth - 1 || previous.expanded == 0
+          ? 0
+          : (double) generated / previous.expanded;
+    }
+
+    /** The fraction of states generated at this depth which had already been discovered. */
+    public double duplicateRate() {
+      return generated == 0 ? 0 : (double) duplicates / generated;
+    }
+  }
+
+  /** The size of the search's frontier at some point in time. */
+  public record FrontierSample(long elapsedMillis, long size) {}
+
+  private static final class DepthCounters {
+    private final LongAdder expanded = new LongAdder(),
+        generated = new LongAdder(),
+        duplicates = new LongAdder();
+  }
+
+  private final LongAdder cloningNanos = new LongAdder(),
+      handlerNanos = new LongAdder(),
+      hashingNanos = new LongAdder(),
+      predicateNanos = new LongAdder();
+
+  private final Map<Integer, DepthCounters> depths = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<FrontierSample> frontier = new ConcurrentLinkedQueue<>();
+
+  private volatile long startNanos = System.nanoTime();
+
+  void start() {
+    startNanos = System.nanoTime();
+  }
+
+  void cloning(long nanos) {
+    cloningNanos.add(nanos);
+  }
+
+  void handling(long nanos) {
+    handlerNanos.add(nanos);
+  }
+
+  void hashing(long nanos) {
+    hashingNanos.add(nanos);
+  }
+
+  void predicates(long nanos) {
+    predicateNanos.add(nanos);
+  }
+
+  private DepthCounters at(int depth) {
+    DepthCounters counters = depths.get(depth);
+    return counters != null ? counters : depths.computeIfAbsent(depth, d -> new DepthCounters());
+  }
+
+  /** Records that a state at the given depth had its successors generated. */
+  void expanded(int depth) {
+    at(depth).expanded.increment();
+  }
+
+  /** Records that a successor state was generated at the given depth. */
+  void generated(int depth, boolean duplicate) {
+    final DepthCounters counters = at(depth);
+    counters.generated.increment();
+    if (duplicate) {
+      counters.duplicates.increment();
+    }
+  }
+
+  /** Records the current size of the frontier, if the search has one. */
+  void frontier(long size) {
+    if (size >= 0) {
+      frontier.add(new FrontierSample((System.nanoTime() - startNanos) / 1_000_000, size));
+    }
+  }
+
+  /** Time spent cloning nodes, messages, and timers while stepping events. */
+  public double cloningSecs() {
+    return cloningNanos.sum() / 1e9;
+  }
+
+  /** Time spent in message and timer handlers. */
+  public double handlerSecs() {
+    return handlerNanos.sum() / 1e9;
+  }
+
+  /** Time spent hashing states and comparing them to discovered ones. */
+  public double hashingSecs() {
+    return hashingNanos.sum() / 1e9;
+  }
+
+  /** Time spent evaluating invariants, goals, and prunes. */
+  public double predicateSecs() {
+    return predicateNanos.sum() / 1e9;
+  }
+
+  /** Per-depth counters, in increasing order of depth. */
+  public List<DepthStatistics> depths() {
+    final List<DepthStatistics> result = new ArrayList<>();
+    for (Map.Entry<Integer, DepthCounters> e : depths.entrySet()) {
+      final DepthCounters c = e.getValue();
+      result.add(
+          new DepthStatistics(e.getKey(), c.expanded.sum(), c.generated.sum(), c.duplicates.sum()));
+    }
+    result.sort((a, b) -> Integer.compare(a.depth(), b.depth()));
+    return result;
+  }
+
+  /** Samples of the frontier size, in the order they were taken. */
+  public List<FrontierSample> frontier() {
+    return Collections.unmodifiableList(new ArrayList<>(frontier));
+  }
+
+  /** One-line summary of where time was spent. */
+  public String timeSummary() {
+    return String.format(
+        "Time cloning: %.2fs, handlers: %.2fs, hashing: %.2fs, predicates: %.2fs",
+        cloningSecs(), handlerSecs(), hashingSecs(), predicateSecs());
+  }
+
+  private Map<String, Object> toMap() {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put("cloningSecs", cloningSecs());
+    map.put("handlerSecs", handlerSecs());
+    map.put("hashingSecs", hashingSecs());
+    map.put("predicateSecs", predicateSecs());
+
+    final List<Map<String, Object>> depthList = new ArrayList<>();
+    DepthStatistics previous = null;
+    for (DepthStatistics d : depths()) {
+      final Map<String, Object> depth = new LinkedHashMap<>();
+      depth.put("depth", d.depth());
+      depth.put("expanded", d.expanded());
+      depth.put("generated", d.generated());
+      depth.put("duplicates", d.duplicates());
+      depth.put("branchingFactor", d.branchingFactor(previous));
+      depth.put("duplicateRate", d.duplicateRate());
+      depthList.add(depth);
+      previous = d;
+    }
+    map.put("depths", depthList);
+    map.put("frontier", frontier());
+    return map;
+  }
+
+  public String toJson() throws IOException {
+    return mapper().writeValueAsString(toMap());
+  }
+
+  public void writeJsonToFile(String fileName) throws IOException {
+    mapper().writeValue(new File(fileName), toMap());
+  }
+
+  private static JsonMapper mapper() {
+    final JsonMapper mapper = new JsonMapper();
+    mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    return mapper;
+  }
+}
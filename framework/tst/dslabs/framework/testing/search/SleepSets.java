@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sleep sets for partial-order reduction in a stateful search. Two events are independent when they
+ * are delivered to different root addresses: messages are never removed from the network and a
+ * node's timers are only changed by its own events, so neither can enable or disable the other, and
+ * taking them in either order results in the same state.
+ *
+ * <p>After exploring event {@code e} from a state, the search need not take {@code e} from the
+ * state's later successors through events independent of {@code e}; the resulting states are
+ * reached through {@code e}'s successor instead. Each state carries the set of such "sleeping"
+ * events. Sleep sets reduce the number of transitions taken, not the set of states explored, so all
+ * invariants and goals are still checked on every reachable state.
+ *
+ * <p>When a state is reached again along a path with a smaller sleep set, its sleep set shrinks to
+ * the intersection. If the state was already expanded, the events it skipped which the new path
+ * does not allow skipping still have to be explored, and the caller must re-queue the state (see
+ * {@link Discovery#REEXPLORE}).
+ *
+ * <p>Sleep sets are stored per {@link DiscoveredStates#key(SearchState)}, and only while non-empty.
+ * Safe for concurrent access.
+ */
+final class SleepSets {
+  enum Discovery {
+    /** The state had not been discovered before. */
+    NEW,
+    /** The state had been discovered before; nothing more needs to be done. */
+    DUPLICATE,
+    /**
+     * The state had been expanded before, and some of the events it skipped must now be explored.
+     * The caller should queue the state again.
+     */
+    REEXPLORE
+  }
+
+  private static final class Entry implements Serializable {
+    private Set<Event> sleeping;
+    private boolean expanded = false;
+    private Set<Event> pending = new HashSet<>();
+
+    private Entry(Set<Event> sleeping) {
+      this.sleeping = sleeping;
+    }
+
+    private Entry orNullIfEmpty() {
+      return sleeping.isEmpty() && pending.isEmpty() ? null : this;
+    }
+  }
+
+  private final DiscoveredStates discovered;
+  private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+  SleepSets(DiscoveredStates discovered) {
+    this.discovered = discovered;
+  }
+
+  /**
+   * Adds the state to the discovered set, recording the sleep set it was reached with.
+   *
+   * @param state the state
+   * @param sleeping the events which need not be taken from the state
+   * @return what the caller should do with the state
+   */
+  Discovery discover(SearchState state, Set<Event> sleeping) {
+    final Discovery[] result = new Discovery[1];
+
+    // Adding to the discovered set inside compute makes it atomic with recording the sleep set
+    entries.compute(
+        discovered.key(state),
+        (key, entry) -> {
+          if (discovered.add(state)) {
+            result[0] = Discovery.NEW;
+            return sleeping.isEmpty() ? null : new Entry(sleeping);
+          }
+
+          result[0] = Discovery.DUPLICATE;
+          if (entry == null) {
+            // Its sleep set was already empty
+            return null;
+          }
+
+          final Set<Event> kept = new HashSet<>(entry.sleeping);
+          kept.retainAll(sleeping);
+
+          if (entry.expanded) {
+            final Set<Event> missing = new HashSet<>(entry.sleeping);
+            missing.removeAll(sleeping);
+            if (!missing.isEmpty()) {
+              if (entry.pending.isEmpty()) {
+                result[0] = Discovery.REEXPLORE;
+              }
+              entry.pending.addAll(missing);
+            }
+          }
+
+          entry.sleeping = kept;
+          return entry.orNullIfEmpty();
+        });
+
+    return result[0];
+  }
+
+  /** Writes the sleep sets to a checkpoint. Must not be called concurrently with other methods. */
+  void save(ObjectOutputStream out) throws IOException {
+    out.writeObject(new HashMap<>(entries));
+  }
+
+  /** Adds the sleep sets written by {@link #save(ObjectOutputStream)}. */
+  @SuppressWarnings("unchecked")
+  void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    entries.putAll((Map<Object, Entry>) in.readObject());
+  }
+
+  /**
+   * Drops the sleep set of a state which was discovered but will never be expanded (e.g., because
+   * it was pruned).
+   *
+   * @param state the state
+   */
+  void forget(SearchState state) {
+    entries.computeIfPresent(discovered.key(state), (key, entry) -> entry.expanded ? entry : null);
+  }
+
+  /**
+   * Begins expanding the state. Must be called once for each time the state is dequeued.
+   *
+   * @param state the state
+   * @return the expansion, which determines which events to take
+   */
+  Expansion expand(SearchState state) {
+    final Expansion[] result = new Expansion[1];
+
+    entries.computeIfPresent(
+        discovered.key(state),
+        (key, entry) -> {
+          if (!entry.expanded) {
+            entry.expanded = true;
+            result[0] = new Expansion(new HashSet<>(entry.sleeping), null);
+          } else {
+            result[0] = new Expansion(new HashSet<>(entry.sleeping), entry.pending);
+            entry.pending = new HashSet<>();
+          }
+          return entry.orNullIfEmpty();
+        });
+
+    return result[0] != null ? result[0] : new Expansion(Collections.emptySet(), null);
+  }
+
+  /** A single expansion of a state. Should only be used by a single thread. */
+  static final class Expansion {
+    private final Set<Event> sleeping;
+
+    /** If non-null, only these events should be taken (the state is being re-expanded). */
+    private final Set<Event> only;
+
+    private final List<Event> explored = new ArrayList<>();
+
+    private Expansion(Set<Event> sleeping, Set<Event> only) {
+      this.sleeping = sleeping;
+      this.only = only;
+    }
+
+    boolean shouldExplore(Event event) {
+      return !sleeping.contains(event) && (only == null || only.contains(event));
+    }
+
+    /**
+     * Records that the successor through the event has been or will be expanded, so later
+     * successors may skip the event. Must not be called for successors that are pruned.
+     */
+    void explored(Event event) {
+      explored.add(event);
+    }
+
+    /** The sleep set of the successor through the given event. */
+    Set<Event> successorSleepSet(Event event) {
+      final Set<Event> successorSleeping = new HashSet<>();
+      for (Event e : sleeping) {
+        if (!e.locationRootAddress().equals(event.locationRootAddress())) {
+          successorSleeping.add(e);
+        }
+      }
+      for (Event e : explored) {
+        if (!e.locationRootAddress().equals(event.locationRootAddress())) {
+          successorSleeping.add(e);
+        }
+      }
+      return successorSleeping;
+    }
+  }
+}
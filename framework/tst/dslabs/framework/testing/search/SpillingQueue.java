@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.DELETE_ON_CLOSE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.TimerEnvelope;
+import dslabs.framework.testing.utils.Cloning;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * A FIFO queue of {@link SearchState}s which keeps only a bounded number of states in memory. Once
+ * the in-memory portion fills up, newly added states are serialized and appended to memory-mapped
+ * segment files in a temporary directory; they are read back in order as the states ahead of them
+ * are polled.
+ *
+ * <p>The predecessor of each spilled state is kept in memory so that traces can still be
+ * reconstructed. Parents of frontier states are generally also referenced by the discovered set or
+ * by states that have been explored already, so this is usually cheap; the states themselves and
+ * their copies of each node are what is saved. States whose predecessors have been released keep
+ * only their {@link EventHistory} in memory instead.
+ *
+ * <p>Thread-safe. Does not support iteration. {@link #close()} should be called when the queue is
+ * no longer needed to delete the segment files.
+ */
+@Log
+final class SpillingQueue extends AbstractQueue<SearchState> {
+  private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+  private record SpilledState(
+      SearchState state,
+      Event previousEvent,
+      int depth,
+      Set<MessageEnvelope> newMessages,
+      Set<TimerEnvelope> newTimers)
+      implements Serializable {}
+
+  /**
+   * What is kept in memory for each spilled state: its predecessor, or its history if the
+   * predecessor was released. States which cannot be restored are kept themselves, and their
+   * records are empty.
+   */
+  private record Anchor(SearchState state, EventHistory history) {}
+
+  private static final class Segment {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int readPosition = 0;
+
+    private Segment(Path path, int size) throws IOException {
+      channel = FileChannel.open(path, CREATE_NEW, READ, WRITE, DELETE_ON_CLOSE);
+      buffer = channel.map(MapMode.READ_WRITE, 0, size);
+    }
+
+    private boolean drained() {
+      return readPosition == buffer.position();
+    }
+  }
+
+  private final int maxInMemory, spillBatchSize, refillBatchSize;
+
+  /*
+   * States are ordered: head, then the spilled states, then tail. New states go to the tail unless
+   * nothing has been spilled and there is still room in the head.
+   */
+  private final ArrayDeque<SearchState> head = new ArrayDeque<>();
+  private final ArrayDeque<SearchState> tail = new ArrayDeque<>();
+
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+  private final ArrayDeque<Anchor> anchors = new ArrayDeque<>();
+  private long numSpilled = 0;
+
+  private Path directory;
+  private int numSegmentsCreated = 0;
+
+  /**
+   * @param maxInMemory the (approximate) maximum number of states to keep in memory
+   */
+  SpillingQueue(int maxInMemory) {
+    this.maxInMemory = Math.max(0, maxInMemory);
+    spillBatchSize = Math.max(1, maxInMemory / 8);
+    refillBatchSize = Math.max(1, maxInMemory / 2);
+  }
+
+  @Override
+  public synchronized boolean offer(@NonNull SearchState state) {
+    if (numSpilled == 0 && tail.isEmpty() && head.size() < maxInMemory) {
+      head.add(state);
+      return true;
+    }
+
+    tail.add(state);
+    if (tail.size() >= spillBatchSize) {
+      spillTail();
+    }
+    return true;
+  }
+
+  @Override
+  public synchronized SearchState poll() {
+    refillHead();
+    return head.poll();
+  }
+
+  @Override
+  public synchronized SearchState peek() {
+    refillHead();
+    return head.peek();
+  }
+
+  @Override
+  public synchronized int size() {
+    return (int) Math.min(Integer.MAX_VALUE, head.size() + numSpilled + tail.size());
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return head.isEmpty() && numSpilled == 0 && tail.isEmpty();
+  }
+
+  /** The number of states currently stored on disk. */
+  synchronized long numSpilled() {
+    return numSpilled;
+  }
+
+  @Override
+  public Iterator<SearchState> iterator() {
+    throw new UnsupportedOperationException("Cannot iterate over a SpillingQueue");
+  }
+
+  /** Empties the queue and deletes all of its files. */
+  synchronized void close() {
+    head.clear();
+    tail.clear();
+    anchors.clear();
+    numSpilled = 0;
+
+    for (Segment segment : segments) {
+      try {
+        segment.channel.close();
+      } catch (IOException e) {
+        LOG.warning("Could not close frontier segment: " + e);
+      }
+    }
+    segments.clear();
+
+    if (directory != null) {
+      try {
+        Files.deleteIfExists(directory);
+      } catch (IOException e) {
+        directory.toFile().deleteOnExit();
+      }
+      directory = null;
+    }
+  }
+
+  private void spillTail() {
+    for (SearchState state : tail) {
+      final Anchor anchor = anchor(state);
+      if (anchor == null) {
+        // Nothing to restore the state from; keep it in memory instead of its predecessor
+        anchors.add(new Anchor(state, null));
+        write(new byte[0]);
+      } else {
+        anchors.add(anchor);
+        write(
+            Cloning.serialize(
+                new SpilledState(
+                    state,
+                    state.previousEvent(),
+                    state.depth(),
+                    state.newMessages(),
+                    state.newTimers())));
+      }
+      numSpilled++;
+    }
+    tail.clear();
+  }
+
+  private static Anchor anchor(SearchState state) {
+    final SearchState previous = state.retainedPrevious();
+    if (previous != null) {
+      return new Anchor(previous, null);
+    }
+    final EventHistory history = state.history();
+    if (history != null && history.parent() != null) {
+      return new Anchor(null, history);
+    }
+    return null;
+  }
+
+  private void refillHead() {
+    if (!head.isEmpty()) {
+      return;
+    }
+
+    if (numSpilled == 0) {
+      head.addAll(tail);
+      tail.clear();
+      return;
+    }
+
+    for (int i = 0; i < refillBatchSize && numSpilled > 0; i++) {
+      head.add(read());
+      numSpilled--;
+    }
+  }
+
+  private void write(byte[] record) {
+    Segment segment = segments.peekLast();
+    if (segment == null || segment.buffer.remaining() < Integer.BYTES + record.length) {
+      segment = newSegment(Math.max(SEGMENT_BYTES, Integer.BYTES + record.length));
+      segments.add(segment);
+    }
+    segment.buffer.putInt(record.length);
+    segment.buffer.put(record);
+  }
+
+  private SearchState read() {
+    final Segment segment = segments.peekFirst();
+    assert segment != null && !segment.drained();
+
+    final int length = segment.buffer.getInt(segment.readPosition);
+    final byte[] record = new byte[length];
+    segment.buffer.get(segment.readPosition + Integer.BYTES, record);
+    segment.readPosition += Integer.BYTES + length;
+
+    if (segment.drained()) {
+      if (segments.size() > 1) {
+        segments.removeFirst();
+        try {
+          segment.channel.close();
+        } catch (IOException e) {
+          LOG.warning("Could not close frontier segment: " + e);
+        }
+      } else {
+        // Reuse the last segment from the beginning
+        segment.readPosition = 0;
+        segment.buffer.clear();
+      }
+    }
+
+    final Anchor anchor = anchors.poll();
+    assert anchor != null;
+    if (length == 0) {
+      return anchor.state();
+    }
+
+    final SpilledState spilled = Cloning.deserialize(record);
+    if (anchor.state() == null) {
+      return SearchState.restore(
+          spilled.state(),
+          anchor.history(),
+          spilled.previousEvent(),
+          spilled.depth(),
+          spilled.newMessages(),
+          spilled.newTimers());
+    }
+    return SearchState.restore(
+        spilled.state(),
+        anchor.state(),
+        spilled.previousEvent(),
+        spilled.depth(),
+        spilled.newMessages(),
+        spilled.newTimers());
+  }
+
+  private Segment newSegment(int size) {
+    try {
+      if (directory == null) {
+        directory = Files.createTempDirectory("dslabs-frontier");
+      }
+      return new Segment(directory.resolve("segment-" + numSegmentsCreated++), size);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create frontier segment", e);
+    }
+  }
+}
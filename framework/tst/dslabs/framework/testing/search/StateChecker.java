@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.StatePredicate;
+import dslabs.framework.testing.StatePredicate.PredicateResult;
+import dslabs.framework.testing.search.Search.StateStatus;
+import dslabs.framework.testing.utils.CheckLogger;
+import dslabs.framework.testing.utils.GlobalSettings;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Checks states against a search's settings, recording any terminal state in the search's results.
+ * Used by {@link Search}, and on its own by the worker JVMs of {@link DistributedBFS}, which check
+ * states but do not run a search.
+ *
+ * <p>Safe for concurrent access.
+ */
+final class StateChecker {
+  private final SearchSettings settings;
+  private final SearchResults results;
+
+  StateChecker(SearchSettings settings, SearchResults results) {
+    this.settings = settings;
+    this.results = results;
+  }
+
+  /**
+   * Checks the state for thrown exceptions, invariant violations, goals, and whether it should be
+   * pruned, in that order.
+   *
+   * @param s the state to check
+   * @param shouldMinimize whether or not traces should be run through the minimizer
+   * @return whether the state ends the search, should not be expanded, or neither
+   */
+  StateStatus check(SearchState s, boolean shouldMinimize) {
+    if (s.thrownException() != null) {
+      if (shouldMinimize) {
+        // Log the exception to shut the other threads down
+        results.exceptionThrown(null);
+
+        // Minimize the trace and log the actual exception-causing state
+        s = TraceMinimizer.minimizeExceptionCausingTrace(s, settings.numThreads());
+      }
+      results.exceptionThrown(s);
+      return StateStatus.TERMINAL;
+    }
+
+    // Predicates which can't have changed since the previous state need not be evaluated again
+    final Predicate<StatePredicate> unaffected = s.unaffectedPredicates(this);
+
+    long predicatesStart = System.nanoTime();
+    PredicateResult r = settings.invariantViolated(s, unaffected);
+    results.statistics().predicates(System.nanoTime() - predicatesStart);
+    if (r != null) {
+      if (shouldMinimize) {
+        // Log the violation to shut the other threads down
+        results.invariantViolated(null, r);
+
+        // Minimize the trace and log the actual invariant-violating state
+        s = TraceMinimizer.minimizeTrace(s, r, settings.numThreads());
+      }
+      results.invariantViolated(s, r);
+      return StateStatus.TERMINAL;
+    }
+
+    predicatesStart = System.nanoTime();
+    r = settings.goalMatched(s, unaffected);
+    results.statistics().predicates(System.nanoTime() - predicatesStart);
+    if (r != null) {
+      if (shouldMinimize) {
+        // Log the goal to shut the other threads down
+        results.goalFound(null, r);
+
+        // Minimize the trace and log the actual goal-matching state
+        s = TraceMinimizer.minimizeTrace(s, r, settings.numThreads());
+      }
+      results.goalFound(s, r);
+      return StateStatus.TERMINAL;
+    }
+
+    if (GlobalSettings.doErrorChecks()) {
+      SearchState previous = s.previous();
+      Event e = s.previousEvent();
+
+      if (previous != null) {
+        assert e != null;
+        // Check if event is deterministic
+        if (!Objects.equals(s, previous.stepEvent(e, settings, true))) {
+          CheckLogger.notDeterministic(e, previous);
+        }
+
+        // Non-idempotence isn't necessarily an error
+        if (GlobalSettings.doAllChecks()) {
+          // Check if event is idempotent
+          if (e.isMessage() && !Objects.equals(s, s.stepEvent(e, settings, true))) {
+            CheckLogger.notIdempotent(e, previous);
+          }
+        }
+      }
+    }
+
+    predicatesStart = System.nanoTime();
+    final boolean prune = settings.shouldPrune(s, unaffected);
+    results.statistics().predicates(System.nanoTime() - predicatesStart);
+    if (prune) {
+      return StateStatus.PRUNED;
+    }
+    s.passedChecks(this);
+
+    if (settings.depthLimited() && s.depth() >= settings.maxDepth()) {
+      return StateStatus.PRUNED;
+    }
+
+    return StateStatus.VALID;
+  }
+}
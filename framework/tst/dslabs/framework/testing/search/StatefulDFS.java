@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import dslabs.framework.Node;
+import dslabs.framework.testing.Event;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An exhaustive depth-first search. Unlike {@link RandomDFS}, discovered states are remembered (as
+ * configured by {@link SearchSettings#visitedStates()}) and never explored twice, so the search can
+ * exhaust the state space. Only the unexplored successors of states on the current paths are kept
+ * in memory, so with {@link SearchSettings.VisitedStates#FINGERPRINT} it can search deep spaces
+ * whose breadth-first frontier would not fit in memory.
+ *
+ * <p>Each thread works on its own stack of states, exploring the most recently discovered state
+ * first. Once a thread's stack is empty, it steals from the bottom of another thread's stack,
+ * taking the shallowest (and likely largest) unexplored subtree. Workers explore a bounded number
+ * of states before returning, so the search can be paused for checkpoints.
+ *
+ * <p>With a {@link SearchSettings#maxDepth(int) maximum depth}, a state first reached on a long
+ * path may have descendants beyond the limit that a shorter path would reach. The shallowest depth
+ * each state was reached at is recorded (by fingerprint), and states reached again at a shallower
+ * depth are checked and explored again.
+ *
+ * <p>Traces found need not be the shortest, so they are minimized before being reported.
+ */
+class StatefulDFS extends Search {
+  /** How many states a worker explores before returning. */
+  private static final int STATES_PER_WORKER = 1000;
+
+  private final List<ConcurrentLinkedDeque<SearchState>> stacks;
+  private final Queue<Integer> idleStacks = new ConcurrentLinkedQueue<>();
+  private final DiscoveredStates discovered;
+
+  /** The shallowest depth each state was reached at, or null if the search is not depth-limited. */
+  private final FingerprintMap depths;
+
+  private final Interner<Node> interner;
+
+  private final AtomicLong states = new AtomicLong();
+  private final AtomicInteger depth = new AtomicInteger();
+
+  StatefulDFS(SearchSettings settings) {
+    super(settings);
+    final int numStacks = Math.max(1, settings.numThreads());
+    stacks = new ArrayList<>(numStacks);
+    for (int i = 0; i < numStacks; i++) {
+      stacks.add(new ConcurrentLinkedDeque<>());
+      idleStacks.add(i);
+    }
+    discovered = DiscoveredStates.create(settings);
+    depths = settings.depthLimited() ? new FingerprintMap() : null;
+    interner = settings.internNodes() ? Interners.newWeakInterner() : null;
+  }
+
+  @Override
+  protected String searchType() {
+    return "exhaustive depth-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Depth: %s (%.2fs, %.2fK states/s)",
+        explored, depth.get(), elapsedSecs, explored / elapsedSecs / 1000.0);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    discovered.add(initialState);
+    if (depths != null) {
+      depths.lower(discovered.fingerprint(initialState), initialState.depth());
+    }
+    states.set(1);
+    depth.set(initialState.depth());
+
+    // For now, don't consider PRUNED initial states
+    if (checkState(initialState, false).equals(StateStatus.TERMINAL)) {
+      return;
+    }
+    stacks.get(0).push(initialState);
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    for (ConcurrentLinkedDeque<SearchState> stack : stacks) {
+      if (!stack.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected boolean supportsCheckpoints() {
+    return true;
+  }
+
+  @Override
+  protected void saveCheckpoint(SearchState initialState, ObjectOutputStream out)
+      throws IOException {
+    out.writeLong(states.get());
+    out.writeInt(depth.get());
+    out.writeUTF(settings.visitedStates().name());
+    discovered.save(out);
+    out.writeBoolean(depths != null);
+    if (depths != null) {
+      depths.save(out);
+    }
+
+    final List<List<Event>> paths = new ArrayList<>();
+    for (ConcurrentLinkedDeque<SearchState> stack : stacks) {
+      for (SearchState s : stack) {
+        paths.add(Checkpoints.path(initialState, s));
+      }
+    }
+    out.writeObject(paths);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void resumeFromCheckpoint(SearchState initialState, ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    states.set(in.readLong());
+    depth.set(in.readInt());
+
+    final String visitedStates = in.readUTF();
+    if (!visitedStates.equals(settings.visitedStates().name())) {
+      throw new IllegalArgumentException(
+          "Checkpoint was saved by a search with visited states " + visitedStates);
+    }
+    discovered.load(in);
+    if (in.readBoolean() != (depths != null)) {
+      throw new IllegalArgumentException(
+          "Checkpoint was saved by a search with a different depth limit setting");
+    }
+    if (depths != null) {
+      depths.load(in);
+    }
+
+    final List<SearchState> restored =
+        Checkpoints.replay(initialState, (List<List<Event>>) in.readObject());
+    for (int i = 0; i < restored.size(); i++) {
+      stacks.get(i % stacks.size()).addLast(restored.get(i));
+    }
+  }
+
+  @Override
+  protected long frontierSize() {
+    long size = 0;
+    for (ConcurrentLinkedDeque<SearchState> stack : stacks) {
+      size += stack.size();
+    }
+    return size;
+  }
+
+  @Override
+  protected DiscoveredStates discoveredStates() {
+    return discovered;
+  }
+
+  @Override
+  protected double omissionProbability() {
+    return discovered.omissionProbability();
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    if (spaceExhausted()) {
+      return null;
+    }
+    final Integer id = idleStacks.poll();
+    if (id == null) {
+      return null;
+    }
+    return () -> {
+      try {
+        runWorker(id);
+      } finally {
+        idleStacks.add(id);
+      }
+    };
+  }
+
+  private void runWorker(int id) {
+    final ConcurrentLinkedDeque<SearchState> stack = stacks.get(id);
+    for (int i = 0; i < STATES_PER_WORKER && !Thread.currentThread().isInterrupted(); i++) {
+      final SearchState node = nextState(id);
+      if (node == null || !exploreNode(node, stack)) {
+        return;
+      }
+    }
+  }
+
+  /** Pop a state from this worker's own stack, or failing that, steal one from another's. */
+  private SearchState nextState(int id) {
+    SearchState s = stacks.get(id).pollFirst();
+    if (s != null) {
+      return s;
+    }
+
+    for (int i = 1; i < stacks.size(); i++) {
+      s = stacks.get((id + i) % stacks.size()).pollLast();
+      if (s != null) {
+        return s;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Explore all successors of the given node, pushing the new, valid ones onto the stack.
+   *
+   * @return {@code false} iff a terminal state was found
+   */
+  private boolean exploreNode(SearchState node, ConcurrentLinkedDeque<SearchState> stack) {
+    statistics().expanded(node.depth());
+    try (EventBuffer events = EventBuffer.acquire()) {
+      node.events(settings, events);
+      for (int i = 0; i < events.size(); i++) {
+        final Event event = events.get(i);
+        SearchState successor = step(node, event);
+
+        if (successor == null) {
+          continue;
+        }
+
+        final StateStatus status =
+            discoverAndCheck(successor, discovered, depths, interner, depth, states);
+        if (status == null || status.equals(StateStatus.PRUNED)) {
+          continue;
+        } else if (status.equals(StateStatus.TERMINAL)) {
+          return false;
+        }
+
+        stack.push(successor);
+      }
+    }
+    return true;
+  }
+}
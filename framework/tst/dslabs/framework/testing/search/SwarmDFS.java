@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import dslabs.framework.testing.Event;
+import dslabs.framework.testing.MessageEnvelope;
+import dslabs.framework.testing.TimerEnvelope;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Swarm verification: random depth-first probes split across many populations, each with its own
+ * probe policy (see {@link Configuration}). Rather than every probe choosing uniformly among
+ * enabled events, each population favors some kinds of events over others, and some populations
+ * never choose certain kinds of events unless nothing else is enabled. Such varied policies reach
+ * corners of the state space uniform random walks rarely visit.
+ *
+ * <p>Populations take turns running probes. The configurations of populations whose probes ended
+ * the search are recorded in {@link SearchResults#swarmFindings()}.
+ */
+class SwarmDFS extends Search {
+  /** Probe depth limit used when the search itself is not depth-limited. */
+  private static final int DEFAULT_MAX_PROBE_DEPTH = 100;
+
+  /** The chance that a population does not choose a given kind of event if it has alternatives. */
+  private static final double DISABLED_TYPE_PROBABILITY = 0.25;
+
+  /**
+   * A population's probe policy. Each message or timer class gets a weight drawn from the {@code
+   * seed} (possibly 0), scaled by {@code messageBias} for messages and {@code 1 - messageBias} for
+   * timers. Probes take events in a random order weighted accordingly, and stop after {@code
+   * maxDepth} steps.
+   */
+  record Configuration(int index, long seed, double messageBias, int maxDepth)
+      implements Serializable {
+    @Override
+    public String toString() {
+      return String.format(
+          "population %s (seed %s, message bias %.2f, max depth %s)",
+          index, seed, messageBias, maxDepth);
+    }
+  }
+
+  private SearchState initialState;
+  private List<Configuration> configurations;
+
+  /** Per-population weights of each message and timer class, computed on first use. */
+  private final Map<Class<?>, double[]> typeWeights = new ConcurrentHashMap<>();
+
+  private final AtomicLong states = new AtomicLong(), probes = new AtomicLong();
+  private AtomicLongArray populationProbes;
+
+  SwarmDFS(SearchSettings settings) {
+    super(settings);
+  }
+
+  @Override
+  protected String searchType() {
+    return "swarm random depth-first";
+  }
+
+  @Override
+  protected String status(double elapsedSecs) {
+    long explored = states.get();
+    return String.format(
+        "Explored: %s, Num Probes: %s, Populations: %s (%.2fs, %.2fK explored/s)",
+        explored,
+        probes.get(),
+        configurations.size(),
+        elapsedSecs,
+        explored / elapsedSecs / 1000.0);
+  }
+
+  @Override
+  protected void initSearch(SearchState initialState) {
+    final int maxProbeDepth =
+        settings.depthLimited()
+            ? Math.max(1, settings.maxDepth() - initialState.depth())
+            : DEFAULT_MAX_PROBE_DEPTH;
+
+    final SplittableRandom rand = new SplittableRandom();
+    final List<Configuration> configurations = new ArrayList<>();
+    for (int i = 0; i < settings.swarmPopulations(); i++) {
+      configurations.add(
+          new Configuration(
+              i,
+              rand.nextLong(),
+              rand.nextDouble(),
+              rand.nextInt(Math.max(1, maxProbeDepth / 4), maxProbeDepth + 1)));
+    }
+    initSearch(initialState, configurations);
+  }
+
+  private void initSearch(SearchState initialState, List<Configuration> configurations) {
+    this.initialState = initialState;
+    this.configurations = List.copyOf(configurations);
+    populationProbes = new AtomicLongArray(configurations.size());
+    probes.set(0);
+    states.set(0);
+  }
+
+  @Override
+  protected boolean supportsCheckpoints() {
+    return true;
+  }
+
+  @Override
+  protected void saveCheckpoint(SearchState initialState, ObjectOutputStream out)
+      throws IOException {
+    out.writeObject(new ArrayList<>(configurations));
+    out.writeLong(probes.get());
+    out.writeLong(states.get());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void resumeFromCheckpoint(SearchState initialState, ObjectInputStream in)
+      throws IOException, ClassNotFoundException {
+    initSearch(initialState, (List<Configuration>) in.readObject());
+    probes.set(in.readLong());
+    states.set(in.readLong());
+  }
+
+  @Override
+  protected boolean spaceExhausted() {
+    return false;
+  }
+
+  @Override
+  protected void finishSearch() {
+    if (settings.shouldOutputStatus()) {
+      for (int i = 0; i < configurations.size(); i++) {
+        System.out.printf("%s ran %s probes%n", configurations.get(i), populationProbes.get(i));
+      }
+      for (String finding : results().swarmFindings()) {
+        System.out.printf("Found by %s%n", finding);
+      }
+      System.out.println();
+    }
+  }
+
+  @Override
+  protected Runnable getWorker() {
+    // Called with the lock held
+    final Configuration configuration =
+        configurations.get((int) (probes.getAndIncrement() % configurations.size()));
+    return () -> runProbe(configuration);
+  }
+
+  private double weight(Configuration configuration, Event event) {
+    final Class<?> type =
+        switch (event) {
+          case MessageEnvelope me -> me.message().getClass();
+          case TimerEnvelope te -> te.timer().getClass();
+        };
+    final double typeWeight =
+        typeWeights.computeIfAbsent(type, this::typeWeights)[configuration.index()];
+    return event.isMessage()
+        ? typeWeight * configuration.messageBias()
+        : typeWeight * (1 - configuration.messageBias());
+  }
+
+  private double[] typeWeights(Class<?> type) {
+    final double[] weights = new double[configurations.size()];
+    for (Configuration c : configurations) {
+      final SplittableRandom rand = new SplittableRandom(c.seed() ^ type.getName().hashCode());
+      weights[c.index()] =
+          rand.nextDouble() < DISABLED_TYPE_PROBABILITY ? 0 : rand.nextDouble(Double.MIN_VALUE, 1);
+    }
+    return weights;
+  }
+
+  /**
+   * Orders the events by weighted random sampling without replacement: each event's key is drawn
+   * from an exponential distribution with rate equal to its weight, and smaller keys go first.
+   * Events with weight 0 go last, in random order.
+   */
+  private List<Event> weightedOrder(Configuration configuration, Collection<Event> events) {
+    final ThreadLocalRandom rand = ThreadLocalRandom.current();
+    final List<Pair<Double, Event>> keyed = new ArrayList<>(events.size());
+    for (Event e : events) {
+      final double w = weight(configuration, e);
+      keyed.add(
+          Pair.of(w > 0 ? -Math.log(1 - rand.nextDouble()) / w : Double.POSITIVE_INFINITY, e));
+    }
+    Collections.shuffle(keyed);
+    keyed.sort(Comparator.comparingDouble(Pair::getLeft));
+    return keyed.stream().map(Pair::getRight).toList();
+  }
+
+  private void runProbe(Configuration configuration) {
+    populationProbes.incrementAndGet(configuration.index());
+    states.incrementAndGet();
+
+    final int maxDepth = initialState.depth() + configuration.maxDepth();
+
+    for (SearchState current = initialState, next = null;
+        current != null && current.depth() < maxDepth;
+        current = next, next = null) {
+
+      for (Event event : weightedOrder(configuration, current.events(settings))) {
+        SearchState s = step(current, event);
+        if (s == null) {
+          continue;
+        }
+
+        states.incrementAndGet();
+        StateStatus status = checkState(s, true);
+
+        if (status.equals(StateStatus.TERMINAL)) {
+          results().swarmFinding(configuration.toString());
+          return;
+        } else if (status.equals(StateStatus.PRUNED)) {
+          continue;
+        }
+
+        next = s;
+        break;
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.search;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import dslabs.framework.Address;
+import dslabs.framework.testing.utils.Cloning;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Canonicalizes states under permutations of groups of interchangeable addresses (see {@link
+ * SearchSettings#addSymmetryGroup(Address...)}). A state's canonical representative is the
+ * permutation of it with the smallest fingerprint, so permuted states share a representative.
+ *
+ * <p>States are permuted by serializing them and reading them back with every occurrence of a
+ * symmetric root {@link Address} replaced, which also renames addresses inside nodes, messages, and
+ * timers (including sub-addresses). Canonicalization takes one deserialization per non-identity
+ * permutation: {@code n!} for a group of {@code n} addresses. Sorted collections are read back in
+ * their original order, so permuted states containing them may not compare equal to the states they
+ * should; this only costs reduction.
+ *
+ * <p>Symmetry reduction is only sound if the nodes in each group really are interchangeable, and if
+ * all invariants, goals, and prunes are invariant under the permutations.
+ */
+final class Symmetry {
+  private final List<Map<Address, Address>> permutations = new ArrayList<>();
+
+  Symmetry(Collection<? extends Collection<Address>> groups) {
+    final Set<Address> seen = new HashSet<>();
+    final List<List<List<Address>>> groupPermutations = new ArrayList<>();
+
+    for (Collection<Address> group : groups) {
+      for (Address a : group) {
+        if (!a.equals(a.rootAddress())) {
+          throw new IllegalArgumentException("Symmetric address is not a root address: " + a);
+        }
+        if (!seen.add(a)) {
+          throw new IllegalArgumentException("Address in multiple symmetry groups: " + a);
+        }
+      }
+      groupPermutations.add(
+          ImmutableList.copyOf(Collections2.permutations(ImmutableList.copyOf(group))));
+    }
+
+    final List<List<Address>> originals = new ArrayList<>();
+    for (Collection<Address> group : groups) {
+      originals.add(ImmutableList.copyOf(group));
+    }
+
+    for (List<List<Address>> choice : Lists.cartesianProduct(groupPermutations)) {
+      final Map<Address, Address> permutation = new HashMap<>();
+      for (int i = 0; i < choice.size(); i++) {
+        final List<Address> from = originals.get(i), to = choice.get(i);
+        for (int j = 0; j < from.size(); j++) {
+          if (!from.get(j).equals(to.get(j))) {
+            permutation.put(from.get(j), to.get(j));
+          }
+        }
+      }
+      if (!permutation.isEmpty()) {
+        permutations.add(permutation);
+      }
+    }
+  }
+
+  /**
+   * Returns the canonical representative of the state's equivalence class. The returned state is
+   * only suitable for comparison and hashing; it is missing all transient fields.
+   *
+   * @param state the state
+   * @return the representative, possibly the state itself
+   */
+  SearchState canonicalize(SearchState state) {
+    if (permutations.isEmpty()) {
+      return state;
+    }
+
+    final byte[] serialized = Cloning.serialize(state);
+
+    SearchState best = state;
+    long bestFingerprint = state.fingerprint();
+    for (Map<Address, Address> permutation : permutations) {
+      final SearchState permuted = permute(serialized, permutation);
+      final long fingerprint = permuted.fingerprint();
+      if (fingerprint < bestFingerprint) {
+        best = permuted;
+        bestFingerprint = fingerprint;
+      }
+    }
+    return best;
+  }
+
+  private static SearchState permute(byte[] serialized, Map<Address, Address> permutation) {
+    try (ObjectInputStream in =
+        new PermutingObjectInputStream(new ByteArrayInputStream(serialized), permutation)) {
+      return (SearchState) in.readObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class PermutingObjectInputStream extends ObjectInputStream {
+    private final Map<Address, Address> permutation;
+
+    private PermutingObjectInputStream(InputStream in, Map<Address, Address> permutation)
+        throws IOException {
+      super(in);
+      this.permutation = permutation;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) {
+      if (obj instanceof Address address) {
+        final Address replacement = permutation.get(address);
+        if (replacement != null) {
+          return replacement;
+        }
+      }
+      return obj;
+    }
+  }
+}
@@ -24,111 +24,229 @@ package dslabs.framework.testing.search;
 
 import dslabs.framework.testing.TimerEnvelope;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.NoSuchElementException;
 import javax.annotation.Nonnull;
-import lombok.EqualsAndHashCode;
 
 /**
  * Implements an abstract timer queue for a single node. In an asynchronous system, the only
  * restriction on timer delivery is the following: if a node sets timers t1, t2 in that order, and
  * t2.minTimerLength >= t1.maxTimerLength, then it must deliver t1 before t2.
  *
- * <p>This datastructure is not threadsafe.
+ * <p>The timers are kept in an array, in the order they were set, alongside the running minimum of
+ * their {@code maxTimerLengthMillis}. The timer at index {@code i} is deliverable iff its {@code
+ * minTimerLengthMillis} is less than the minimum over all timers before it, so checking a timer
+ * whose index is known takes constant time. Copies share their arrays until one of them changes.
  *
- * <p>TODO: make this datastructure more efficient? Better way of representing?
+ * <p>This datastructure is not threadsafe.
  *
  * <p>TODO: equality checking is definitely wrong now
  */
-@EqualsAndHashCode
 class TimerQueue implements Serializable, Iterable<TimerEnvelope> {
-  private final List<TimerEnvelope> timers;
+  private static final int INITIAL_CAPACITY = 4;
 
-  TimerQueue() {
-    this.timers = new LinkedList<>();
-  }
+  private TimerEnvelope[] timers;
 
   /**
-   * Creates a copy of the other TimerQueue.
-   *
-   * <p>TODO: maybe add in a delayed copy mechanism?
+   * {@code prefixMin[i]} is the minimum {@code maxTimerLengthMillis} of the first {@code i} timers,
+   * or {@link Integer#MAX_VALUE} for {@code i = 0}.
    */
+  private int[] prefixMin;
+
+  private int size;
+
+  /** Whether the arrays might be referenced by another queue and must be copied before writing. */
+  private boolean shared;
+
+  /** Cached by {@link #hashCode()}, cleared whenever the queue changes. */
+  private transient Integer hashCode;
+
+  TimerQueue() {
+    timers = new TimerEnvelope[INITIAL_CAPACITY];
+    prefixMin = new int[INITIAL_CAPACITY + 1];
+    prefixMin[0] = Integer.MAX_VALUE;
+    size = 0;
+    shared = false;
+  }
+
+  /** Creates a copy of the other TimerQueue. The arrays are only copied once either one changes. */
   TimerQueue(TimerQueue other) {
-    this.timers = new LinkedList<>(other.timers);
+    timers = other.timers;
+    prefixMin = other.prefixMin;
+    size = other.size;
+    shared = true;
+    other.shared = true;
+    hashCode = other.hashCode;
+  }
+
+  /** Gives this queue its own arrays, with room for at least {@code capacity} timers. */
+  private void prepareWrite(int capacity) {
+    if (shared || capacity > timers.length) {
+      final int length = Math.max(capacity, shared ? timers.length : 2 * timers.length);
+      timers = Arrays.copyOf(timers, length);
+      prefixMin = Arrays.copyOf(prefixMin, length + 1);
+      shared = false;
+    }
   }
 
   void add(TimerEnvelope timerEnvelope) {
-    timers.add(timerEnvelope);
+    prepareWrite(size + 1);
+    timers[size] = timerEnvelope;
+    prefixMin[size + 1] = Math.min(prefixMin[size], timerEnvelope.maxTimerLengthMillis());
+    size++;
+
+    // Extend the cached hash the same way List.hashCode would
+    if (hashCode != null) {
+      hashCode = 31 * hashCode + timerEnvelope.hashCode();
+    }
   }
 
   Iterable<TimerEnvelope> deliverable() {
-    return new Iterable<>() {
-      @Override
-      @Nonnull
-      public Iterator<TimerEnvelope> iterator() {
-        return new Iterator<>() {
-          Integer minMaxTime = null;
-          int i = 0;
-
-          private void skip() {
-            while (i < timers.size()
-                && minMaxTime != null
-                && timers.get(i).minTimerLengthMillis() >= minMaxTime) {
-              i++;
+    final TimerEnvelope[] timers = this.timers;
+    final int[] prefixMin = this.prefixMin;
+    final int size = this.size;
+
+    return () ->
+        new Iterator<>() {
+          int i = advance(0);
+
+          private int advance(int from) {
+            while (from < size && timers[from].minTimerLengthMillis() >= prefixMin[from]) {
+              from++;
             }
+            return from;
           }
 
           @Override
           public boolean hasNext() {
-            return i < timers.size();
+            return i < size;
           }
 
           @Override
           public TimerEnvelope next() throws NoSuchElementException {
-            if (hasNext()) {
-              TimerEnvelope next = timers.get(i);
-              i++;
-              if (minMaxTime == null || next.maxTimerLengthMillis() < minMaxTime) {
-                minMaxTime = next.maxTimerLengthMillis();
-              }
-              skip();
-              return next;
-            } else {
+            if (!hasNext()) {
               throw new NoSuchElementException();
             }
+            final TimerEnvelope next = timers[i];
+            i = advance(i + 1);
+            return next;
           }
         };
+  }
+
+  int size() {
+    return size;
+  }
+
+  TimerEnvelope get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return timers[index];
+  }
+
+  /**
+   * The index of the first occurrence of the timer in the queue.
+   *
+   * @param timerEnvelope the timer
+   * @return the index, or -1 if the timer is not in the queue
+   */
+  int indexOf(TimerEnvelope timerEnvelope) {
+    for (int i = 0; i < size; i++) {
+      if (timers[i].equals(timerEnvelope)) {
+        return i;
       }
-    };
+    }
+    return -1;
+  }
+
+  /**
+   * Whether the timer at the given index can be delivered.
+   *
+   * @param index the index, as returned by {@link #indexOf(TimerEnvelope)}
+   * @return whether it is deliverable
+   */
+  boolean isDeliverable(int index) {
+    return timers[index].minTimerLengthMillis() < prefixMin[index];
   }
 
   boolean isDeliverable(TimerEnvelope timerEnvelope) {
-    // TODO: quadratic
-    for (TimerEnvelope te : timers) {
-      if (te.equals(timerEnvelope)) {
+    // No timer after the running minimum drops to the timer's min length can be delivered
+    final int min = timerEnvelope.minTimerLengthMillis();
+    for (int i = 0; i < size && min < prefixMin[i]; i++) {
+      if (timers[i].equals(timerEnvelope)) {
         return true;
       }
-      if (timerEnvelope.minTimerLengthMillis() >= te.maxTimerLengthMillis()) {
-        return false;
-      }
     }
     return false;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof TimerQueue other)) {
+      return false;
+    }
+    if (size != other.size) {
+      return false;
+    }
+    if (hashCode != null && other.hashCode != null && !hashCode.equals(other.hashCode)) {
+      return false;
+    }
+    return timers == other.timers || Arrays.equals(timers, 0, size, other.timers, 0, size);
+  }
+
+  @Override
+  public int hashCode() {
+    Integer h = hashCode;
+    if (h == null) {
+      int hash = 1;
+      for (int i = 0; i < size; i++) {
+        hash = 31 * hash + timers[i].hashCode();
+      }
+      h = hash;
+      hashCode = h;
+    }
+    return h;
+  }
+
   @Override
   public String toString() {
-    return timers.toString();
+    return Arrays.toString(Arrays.copyOf(timers, size));
   }
 
   @Override
   @Nonnull
   public Iterator<TimerEnvelope> iterator() {
-    return timers.iterator();
+    return Arrays.asList(timers).subList(0, size).iterator();
+  }
+
+  /**
+   * Removes the timer at the given index.
+   *
+   * @param index the index, as returned by {@link #indexOf(TimerEnvelope)}
+   */
+  void remove(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    hashCode = null;
+    prepareWrite(size);
+    System.arraycopy(timers, index + 1, timers, index, size - index - 1);
+    size--;
+    timers[size] = null;
+    for (int i = index; i < size; i++) {
+      prefixMin[i + 1] = Math.min(prefixMin[i], timers[i].maxTimerLengthMillis());
+    }
   }
 
   void remove(TimerEnvelope timerEnvelope) {
-    timers.remove(timerEnvelope);
+    final int index = indexOf(timerEnvelope);
+    if (index >= 0) {
+      remove(index);
+    }
   }
 }
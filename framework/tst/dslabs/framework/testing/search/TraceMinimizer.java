@@ -25,28 +25,202 @@ package dslabs.framework.testing.search;
 import dslabs.framework.testing.Event;
 import dslabs.framework.testing.StatePredicate;
 import dslabs.framework.testing.StatePredicate.PredicateResult;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * Shortens the traces of states found by a search while preserving the result that made them
+ * interesting, using delta debugging (ddmin). Chunks of events are removed from the trace, starting
+ * with large chunks and shrinking them when no chunk can be removed. The resulting trace is
+ * 1-minimal: removing any single event from it no longer gives the expected result.
+ */
 abstract class TraceMinimizer {
   static SearchState minimizeTrace(SearchState state, final PredicateResult expectedResult) {
-    // TODO: maintain set of "bad" states so we don't have to unwind every time
-    boolean shortenedEventsList;
-    do {
-      shortenedEventsList = false;
-      LinkedList<Event> events = new LinkedList<>();
-      for (SearchState s = state; s.previous() != null; s = s.previous()) {
-        SearchState test = applyEvents(s.previous(), events);
-        if (stateMatches(test, expectedResult)) {
-          shortenedEventsList = true;
-          state = test;
-        } else {
-          events.addFirst(s.previousEvent());
+    return minimizeTrace(state, expectedResult, 1);
+  }
+
+  /**
+   * Returns a state with a possibly shorter trace matching the expected result. Candidate traces
+   * are replayed on the given number of threads, but the first candidate that succeeds in the order
+   * ddmin would try them is always taken, so the result does not depend on the parallelism.
+   *
+   * @param state the state whose trace should be minimized
+   * @param expectedResult the result the minimized state should have
+   * @param parallelism the number of candidate traces to replay at once
+   * @return the minimized state
+   */
+  static SearchState minimizeTrace(
+      SearchState state, final PredicateResult expectedResult, int parallelism) {
+    if (parallelism <= 1) {
+      return new DeltaDebugger(expectedResult, null, 1).minimize(state);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      return new DeltaDebugger(expectedResult, executor, parallelism).minimize(state);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class DeltaDebugger {
+    private final PredicateResult expectedResult;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    /** Candidate traces known not to give the expected result. */
+    private final Set<List<Event>> failed = new HashSet<>();
+
+    /** The current trace. */
+    private List<Event> events;
+
+    /**
+     * The states along the current trace: {@code prefixes.get(i)} is the state after the first
+     * {@code i} events. Candidates which share a prefix with the current trace replay from here.
+     */
+    private List<SearchState> prefixes;
+
+    SearchState minimize(SearchState state) {
+      setCurrent(state);
+
+      int n = 2;
+      while (!events.isEmpty()) {
+        n = Math.min(n, events.size());
+
+        final List<List<Event>> subsets = new ArrayList<>();
+        final List<List<Event>> complements = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+          final int start = i * events.size() / n, end = (i + 1) * events.size() / n;
+          subsets.add(new ArrayList<>(events.subList(start, end)));
+          final List<Event> complement = new ArrayList<>(events.subList(0, start));
+          complement.addAll(events.subList(end, events.size()));
+          complements.add(complement);
+        }
+
+        SearchState reduced = n > 1 ? firstMatching(subsets) : null;
+        if (reduced != null) {
+          setCurrent(reduced);
+          n = 2;
+          continue;
+        }
+
+        reduced = firstMatching(complements);
+        if (reduced != null) {
+          setCurrent(reduced);
+          n = Math.max(n - 1, 2);
+          continue;
+        }
+
+        if (n >= events.size()) {
+          break;
+        }
+        n = Math.min(2 * n, events.size());
+      }
+
+      return prefixes.get(prefixes.size() - 1);
+    }
+
+    private void setCurrent(SearchState state) {
+      final LinkedList<SearchState> states = new LinkedList<>();
+      final LinkedList<Event> es = new LinkedList<>();
+      // If the predecessors were released, previous() replays them all at once
+      for (SearchState s = state, p; s != null; s = p) {
+        states.addFirst(s);
+        p = s.previous();
+        if (p != null) {
+          es.addFirst(s.previousEvent());
+        }
+      }
+      prefixes = new ArrayList<>(states);
+      events = new ArrayList<>(es);
+    }
+
+    /**
+     * The state reached by the first candidate, in order, which gives the expected result, or
+     * {@code null} if none does.
+     */
+    private SearchState firstMatching(List<List<Event>> candidates) {
+      final List<List<Event>> untested = new ArrayList<>();
+      for (List<Event> candidate : candidates) {
+        if (!candidate.equals(events) && !failed.contains(candidate)) {
+          untested.add(candidate);
+        }
+      }
+
+      for (int i = 0; i < untested.size(); i += parallelism) {
+        final List<List<Event>> batch =
+            untested.subList(i, Math.min(i + parallelism, untested.size()));
+        final List<SearchState> results = replayAll(batch);
+        if (results == null) {
+          return null;
+        }
+
+        SearchState match = null;
+        for (int j = 0; j < batch.size(); j++) {
+          if (results.get(j) == null) {
+            failed.add(batch.get(j));
+          } else if (match == null) {
+            match = results.get(j);
+          }
+        }
+        if (match != null) {
+          return match;
         }
       }
-    } while (shortenedEventsList);
-    return state;
+      return null;
+    }
+
+    /** Replays the candidates, or returns {@code null} if interrupted. */
+    private List<SearchState> replayAll(List<List<Event>> batch) {
+      if (executor == null) {
+        final List<SearchState> results = new ArrayList<>();
+        for (List<Event> candidate : batch) {
+          results.add(replay(candidate));
+        }
+        return results;
+      }
+
+      final List<Callable<SearchState>> tasks = new ArrayList<>();
+      for (List<Event> candidate : batch) {
+        tasks.add(() -> replay(candidate));
+      }
+      try {
+        final List<SearchState> results = new ArrayList<>();
+        for (Future<SearchState> f : executor.invokeAll(tasks)) {
+          results.add(f.get());
+        }
+        return results;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+
+    /** The state reached by the candidate if it gives the expected result, {@code null} if not. */
+    private SearchState replay(List<Event> candidate) {
+      int shared = 0;
+      while (shared < candidate.size()
+          && shared < events.size()
+          && candidate.get(shared).equals(events.get(shared))) {
+        shared++;
+      }
+      final SearchState s =
+          applyEvents(prefixes.get(shared), candidate.subList(shared, candidate.size()));
+      return stateMatches(s, expectedResult) ? s : null;
+    }
   }
 
   private static boolean stateMatches(final SearchState s, final PredicateResult r) {
@@ -67,6 +241,14 @@ abstract class TraceMinimizer {
    * @return another state throwing the same type of exception
    */
   static SearchState minimizeExceptionCausingTrace(SearchState state) {
+    return minimizeExceptionCausingTrace(state, 1);
+  }
+
+  /**
+   * Like {@link #minimizeExceptionCausingTrace(SearchState)}, replaying candidate traces on the
+   * given number of threads.
+   */
+  static SearchState minimizeExceptionCausingTrace(SearchState state, int parallelism) {
     final Throwable exception = state.thrownException();
     assert exception != null;
 
@@ -89,13 +271,12 @@ abstract class TraceMinimizer {
     PredicateResult r = exceptionWasThrown.test(state);
     assert r.value();
 
-    return minimizeTrace(state, r);
+    return minimizeTrace(state, r, parallelism);
   }
 
   private static SearchState applyEvents(SearchState initialState, List<Event> events) {
     SearchState s = initialState;
     for (Event e : events) {
-      // TODO: don't use null settings here, it's re-initialized every time
       // TODO: do we need to use same settings as the search?
       SearchState next = s.stepEvent(e, null, false);
       if (next == null) {
@@ -54,6 +54,10 @@ import org.apache.commons.lang3.SerializationUtils;
  * transient} primitive</b> fields. These cannot be processed by the fast cloning library and will
  * instead be handled by slower serialization and deserialization.
  *
+ * <p>If {@link GlobalSettings#generatedCloners()} is set, the clone method first tries {@link
+ * GeneratedCloner}, which has the same behavior but copies each class with code specialized for it
+ * rather than through reflection. Classes it does not support use the library as before.
+ *
  * <p>The {@link com.rits.cloning.Immutable} annotation can let the fast cloning library know that a
  * particular class is completely immutable and therefore avoid cloning it. That class and all its
  * fields (and all their fields, etc.) must be immutable.
@@ -65,6 +69,8 @@ public final class Cloning {
   private static final Cloner jdclCloner = new Cloner();
   private static final Set<Class<?>> cannotClone =
       Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private static final Set<Class<?>> cannotGenerate =
+      Collections.newSetFromMap(new ConcurrentHashMap<>());
 
   static {
     jdclCloner.registerCloningStrategy(
@@ -106,27 +112,42 @@ public final class Cloning {
     return SerializationUtils.deserialize(object);
   }
 
+  /** Clones with the cloning library, falling back to serialization if it fails. */
+  private static <T extends Serializable> T libraryClone(T object) {
+    if (cannotClone.contains(object.getClass())) {
+      return defaultClone(object);
+    }
+    try {
+      return jdclClone(object);
+    } catch (Throwable ignored) {
+      if (GlobalSettings.doErrorChecks()) {
+        CheckLogger.notFastCloned(object);
+      }
+      cannotClone.add(object.getClass());
+      return defaultClone(object);
+    }
+  }
+
   public static <T extends Serializable> T clone(T object) {
     if (object == null) {
       return null;
     }
 
-    T ret;
+    T ret = null;
 
-    if (cannotClone.contains(object.getClass())) {
-      ret = defaultClone(object);
-    } else {
+    if (GlobalSettings.generatedCloners() && !cannotGenerate.contains(object.getClass())) {
       try {
-        ret = jdclClone(object);
+        ret = GeneratedCloner.deepClone(object);
       } catch (Throwable ignored) {
-        if (GlobalSettings.doErrorChecks()) {
-          CheckLogger.notFastCloned(object);
-        }
-        cannotClone.add(object.getClass());
-        ret = defaultClone(object);
+        // Like cannotClone, keyed by the top-level class even if the unsupported class is nested
+        cannotGenerate.add(object.getClass());
       }
     }
 
+    if (ret == null) {
+      ret = libraryClone(object);
+    }
+
     if (GlobalSettings.doErrorChecks()) {
       // Check equals and hashCode
       if (!Objects.deepEquals(ret, object) || !Objects.deepEquals(object, ret)) {
@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.utils;
+
+import com.rits.cloning.Immutable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+/**
+ * Deep cloning through copy code specialized for each class, built once from method handles and
+ * cached per {@link Class}. Intended to have the same behavior as the reflective cloning library
+ * {@link Cloning} uses:
+ *
+ * <ul>
+ *   <li>Known immutable classes, enums, and classes annotated with {@link Immutable} are shared
+ *       rather than cloned.
+ *   <li>Transient fields declared in {@code dslabs} packages are set to null; other transient
+ *       fields are cloned. Classes with transient primitive fields in {@code dslabs} packages are
+ *       not supported.
+ *   <li>The common JDK collections are copied element by element, so hash-based collections are
+ *       rebuilt using the cloned elements' hash codes. The JDK's immutable collections (e.g., those
+ *       returned by {@link List#of()}) are rebuilt from their cloned elements, and its unmodifiable
+ *       views (e.g., those returned by {@link Collections#unmodifiableList(List)}) wrap a clone of
+ *       the original's backing collection.
+ *   <li>Records are rebuilt through their canonical constructors. Other objects are instantiated
+ *       without running a constructor, and their fields are copied.
+ *   <li>Objects referenced more than once in the original graph are cloned once, so aliasing and
+ *       cycles are preserved (except for cycles through records and immutable collections).
+ * </ul>
+ *
+ * <p>The fields of each class are copied by a single method handle composed from the handles for
+ * the individual fields. Once it has been invoked enough times, the JVM specializes its code to
+ * that class, with the field accesses inlined.
+ *
+ * <p>Other JDK classes, hidden classes (e.g., lambdas), and classes whose fields cannot be accessed
+ * (including the unmodifiable views, unless {@code java.util} is opened to this module) are not
+ * supported. Cloning an object graph containing any of them throws {@link
+ * UnsupportedOperationException}, and the caller should fall back to another strategy.
+ *
+ * <p>Safe for concurrent use.
+ */
+final class GeneratedCloner {
+  private static final Set<Class<?>> immutableClasses =
+      Set.of(
+          String.class,
+          Boolean.class,
+          Byte.class,
+          Character.class,
+          Short.class,
+          Integer.class,
+          Long.class,
+          Float.class,
+          Double.class,
+          Void.class,
+          Class.class,
+          BigInteger.class,
+          BigDecimal.class,
+          URI.class,
+          UUID.class,
+          Pattern.class,
+          Instant.class,
+          Duration.class);
+
+  /** Copies the elements of the exactly matching collection classes. */
+  // Each copy must be exactly the original's class, including LinkedList
+  @SuppressWarnings("JdkObsolete")
+  private static final Map<Class<?>, Function<Object, Object>> collectionFactories =
+      Map.ofEntries(
+          Map.entry(ArrayList.class, o -> new ArrayList<>(((Collection<?>) o).size())),
+          Map.entry(LinkedList.class, o -> new LinkedList<>()),
+          Map.entry(ArrayDeque.class, o -> new ArrayDeque<>(((Collection<?>) o).size())),
+          Map.entry(HashSet.class, o -> new HashSet<>()),
+          Map.entry(LinkedHashSet.class, o -> new LinkedHashSet<>()),
+          Map.entry(TreeSet.class, o -> new TreeSet<>(((TreeSet<?>) o).comparator())),
+          Map.entry(HashMap.class, o -> new HashMap<>()),
+          Map.entry(LinkedHashMap.class, o -> new LinkedHashMap<>()),
+          Map.entry(TreeMap.class, o -> new TreeMap<>(((TreeMap<?, ?>) o).comparator())),
+          Map.entry(ConcurrentHashMap.class, o -> new ConcurrentHashMap<>()));
+
+  /**
+   * Rebuilds the exactly matching immutable collection classes from their cloned elements (or, for
+   * maps, entries). Lists from {@link Stream#toList()} share a class with those from {@link
+   * List#of()} but may contain null.
+   */
+  private static final Map<Class<?>, Function<Object[], Object>> immutableCollectionFactories =
+      Map.of(
+          List.of().getClass(), GeneratedCloner::immutableList,
+          List.of(0).getClass(), GeneratedCloner::immutableList,
+          Set.of().getClass(), Set::of,
+          Set.of(0).getClass(), Set::of,
+          Map.of().getClass(), entries -> Map.ofEntries((Map.Entry<?, ?>[]) entries),
+          Map.of(0, 0).getClass(), entries -> Map.ofEntries((Map.Entry<?, ?>[]) entries));
+
+  /** Stateless singletons, shared like immutable classes. */
+  private static final Set<Class<?>> emptyCollectionClasses =
+      Set.of(
+          Collections.emptyList().getClass(),
+          Collections.emptySet().getClass(),
+          Collections.emptyMap().getClass());
+
+  /**
+   * Prefix of the unmodifiable views in {@link Collections}. Their only fields are the collections
+   * they wrap and transient caches of other views.
+   */
+  private static final String UNMODIFIABLE_VIEW_PREFIX = "java.util.Collections$Unmodifiable";
+
+  private static final Objenesis objenesis = new ObjenesisStd(true);
+
+  /** {@code (Object original, IdentityHashMap clones) -> Object}, i.e., {@link #clone}. */
+  private static final MethodHandle CLONE;
+
+  static {
+    try {
+      CLONE =
+          MethodHandles.lookup()
+              .findStatic(
+                  GeneratedCloner.class,
+                  "clone",
+                  MethodType.methodType(Object.class, Object.class, IdentityHashMap.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** Marks a record whose components are still being cloned. */
+  private static final Object IN_PROGRESS = new Object();
+
+  private static final ClassValue<Copier> copiers =
+      new ClassValue<>() {
+        @Override
+        protected Copier computeValue(Class<?> type) {
+          try {
+            return compile(type);
+          } catch (ReflectiveOperationException | RuntimeException e) {
+            final String reason = String.format("cannot clone %s: %s", type.getName(), e);
+            return (original, clones) -> {
+              throw new UnsupportedOperationException(reason);
+            };
+          }
+        }
+      };
+
+  @FunctionalInterface
+  private interface Copier {
+    /**
+     * Copies an object of the class this copier was compiled for, recording it in {@code clones}
+     * before cloning anything it references.
+     */
+    Object copy(Object original, IdentityHashMap<Object, Object> clones) throws Throwable;
+  }
+
+  /** Shares the original; used for immutable classes. */
+  private static final Copier SHARED = (original, clones) -> original;
+
+  /**
+   * Deep clones the object.
+   *
+   * @param object the object to clone
+   * @return the clone
+   * @throws UnsupportedOperationException if the object graph contains an unsupported class
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T deepClone(T object) {
+    try {
+      return (T) clone(object, new IdentityHashMap<>());
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  private static Object clone(Object original, IdentityHashMap<Object, Object> clones)
+      throws Throwable {
+    if (original == null) {
+      return null;
+    }
+    final Copier copier = copiers.get(original.getClass());
+    if (copier == SHARED) {
+      return original;
+    }
+    final Object existing = clones.get(original);
+    if (existing == IN_PROGRESS) {
+      throw new UnsupportedOperationException("cannot clone a cycle through a record");
+    }
+    if (existing != null) {
+      return existing;
+    }
+    return copier.copy(original, clones);
+  }
+
+  private static Copier compile(Class<?> type) throws ReflectiveOperationException {
+    if (isImmutable(type)) {
+      return SHARED;
+    }
+    if (type.isArray()) {
+      return compileArray(type);
+    }
+    final Function<Object, Object> collectionFactory = collectionFactories.get(type);
+    if (collectionFactory != null) {
+      return Map.class.isAssignableFrom(type)
+          ? compileMap(collectionFactory)
+          : compileCollection(collectionFactory);
+    }
+    final Function<Object[], Object> immutableCollectionFactory =
+        immutableCollectionFactories.get(type);
+    if (immutableCollectionFactory != null) {
+      return compileImmutableCollection(immutableCollectionFactory);
+    }
+    if (type.isHidden() || (isJdkClass(type) && !isUnmodifiableView(type))) {
+      throw new UnsupportedOperationException("no copier for " + type.getName());
+    }
+    if (type.isRecord()) {
+      return compileRecord(type);
+    }
+    return compileObject(type);
+  }
+
+  private static boolean isImmutable(Class<?> type) {
+    if (immutableClasses.contains(type)
+        || emptyCollectionClasses.contains(type)
+        || Enum.class.isAssignableFrom(type)) {
+      return true;
+    }
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      final Immutable annotation = c.getAnnotation(Immutable.class);
+      if (annotation != null && (c == type || annotation.subClass())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isJdkClass(Class<?> type) {
+    final String name = type.getName();
+    return name.startsWith("java.")
+        || name.startsWith("javax.")
+        || name.startsWith("jdk.")
+        || name.startsWith("sun.")
+        || name.startsWith("com.sun.");
+  }
+
+  private static boolean isUnmodifiableView(Class<?> type) {
+    return type.getName().startsWith(UNMODIFIABLE_VIEW_PREFIX);
+  }
+
+  private static Object immutableList(Object[] elements) {
+    return Arrays.asList(elements).contains(null)
+        ? Arrays.stream(elements).toList()
+        : List.of(elements);
+  }
+
+  private static Copier compileArray(Class<?> type) {
+    final Class<?> component = type.getComponentType();
+    if (component.isPrimitive()) {
+      return (original, clones) -> {
+        final int length = Array.getLength(original);
+        final Object copy = Array.newInstance(component, length);
+        System.arraycopy(original, 0, copy, 0, length);
+        clones.put(original, copy);
+        return copy;
+      };
+    }
+    return (original, clones) -> {
+      final Object[] array = (Object[]) original;
+      final Object[] copy = (Object[]) Array.newInstance(component, array.length);
+      clones.put(original, copy);
+      for (int i = 0; i < array.length; i++) {
+        copy[i] = clone(array[i], clones);
+      }
+      return copy;
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Copier compileCollection(Function<Object, Object> factory) {
+    return (original, clones) -> {
+      final Collection<Object> copy = (Collection<Object>) factory.apply(original);
+      clones.put(original, copy);
+      for (Object element : (Collection<?>) original) {
+        copy.add(clone(element, clones));
+      }
+      return copy;
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Copier compileMap(Function<Object, Object> factory) {
+    return (original, clones) -> {
+      final Map<Object, Object> copy = (Map<Object, Object>) factory.apply(original);
+      clones.put(original, copy);
+      for (Map.Entry<?, ?> e : ((Map<?, ?>) original).entrySet()) {
+        copy.put(clone(e.getKey(), clones), clone(e.getValue(), clones));
+      }
+      return copy;
+    };
+  }
+
+  private static Copier compileImmutableCollection(Function<Object[], Object> factory) {
+    return (original, clones) -> {
+      // The elements must be cloned before the collection can be built
+      clones.put(original, IN_PROGRESS);
+      final Object[] elements;
+      if (original instanceof Map<?, ?> map) {
+        elements = new Map.Entry<?, ?>[map.size()];
+        int i = 0;
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+          elements[i++] = Map.entry(clone(e.getKey(), clones), clone(e.getValue(), clones));
+        }
+      } else {
+        elements = ((Collection<?>) original).toArray();
+        for (int i = 0; i < elements.length; i++) {
+          elements[i] = clone(elements[i], clones);
+        }
+      }
+      final Object copy = factory.apply(elements);
+      clones.put(original, copy);
+      return copy;
+    };
+  }
+
+  private static Copier compileRecord(Class<?> type) throws ReflectiveOperationException {
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    final RecordComponent[] components = type.getRecordComponents();
+    final Class<?>[] componentTypes = new Class<?>[components.length];
+    for (int i = 0; i < components.length; i++) {
+      componentTypes[i] = components[i].getType();
+    }
+    final Constructor<?> canonical = type.getDeclaredConstructor(componentTypes);
+    canonical.setAccessible(true);
+
+    // Replace each of the constructor's parameters with (Object original, IdentityHashMap clones)
+    // and the code computing it, then merge those into a single pair
+    MethodHandle build =
+        lookup
+            .unreflectConstructor(canonical)
+            .asType(MethodType.methodType(Object.class, componentTypes));
+    for (int i = 0; i < components.length; i++) {
+      components[i].getAccessor().setAccessible(true);
+      final MethodHandle accessor =
+          lookup
+              .unreflect(components[i].getAccessor())
+              .asType(MethodType.methodType(componentTypes[i], Object.class));
+      build = MethodHandles.collectArguments(build, 2 * i, cloned(accessor));
+    }
+    final int[] reorder = new int[2 * components.length];
+    for (int i = 0; i < reorder.length; i++) {
+      reorder[i] = i % 2;
+    }
+    final MethodHandle copyRecord =
+        MethodHandles.permuteArguments(
+            build,
+            MethodType.methodType(Object.class, Object.class, IdentityHashMap.class),
+            reorder);
+
+    return (original, clones) -> {
+      clones.put(original, IN_PROGRESS);
+      final Object copy = (Object) copyRecord.invokeExact(original, clones);
+      clones.put(original, copy);
+      return copy;
+    };
+  }
+
+  private static Copier compileObject(Class<?> type) throws ReflectiveOperationException {
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    final ObjectInstantiator<?> instantiator = objenesis.getInstantiatorOf(type);
+    final boolean unmodifiableView = isUnmodifiableView(type);
+
+    // (Object copy, Object original, IdentityHashMap clones) -> void
+    final MethodType copyType =
+        MethodType.methodType(void.class, Object.class, Object.class, IdentityHashMap.class);
+    MethodHandle copyFields = MethodHandles.empty(copyType);
+
+    for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+      if (isJdkClass(c) && !(unmodifiableView && isUnmodifiableView(c))) {
+        throw new UnsupportedOperationException("cannot copy fields of " + c.getName());
+      }
+      for (Field field : c.getDeclaredFields()) {
+        final int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers)) {
+          continue;
+        }
+
+        // The transient fields of unmodifiable views only cache other views
+        final boolean nulled =
+            Modifier.isTransient(modifiers)
+                && (c.getPackageName().startsWith("dslabs") || unmodifiableView);
+        if (nulled && field.getType().isPrimitive()) {
+          throw new UnsupportedOperationException("transient primitive field " + field);
+        }
+        if (nulled) {
+          // Fields of a new instance are already null
+          continue;
+        }
+
+        field.setAccessible(true);
+        final MethodHandle getter =
+            lookup
+                .unreflectGetter(field)
+                .asType(MethodType.methodType(field.getType(), Object.class));
+        final MethodHandle setter =
+            lookup
+                .unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, field.getType()));
+        // (Object copy, Object original, IdentityHashMap clones) -> void
+        final MethodHandle copyField = MethodHandles.collectArguments(setter, 1, cloned(getter));
+        copyFields = MethodHandles.foldArguments(copyField, copyFields);
+      }
+    }
+
+    final MethodHandle copyAll = copyFields;
+    return (original, clones) -> {
+      final Object copy = instantiator.newInstance();
+      clones.put(original, copy);
+      copyAll.invokeExact(copy, original, clones);
+      return copy;
+    };
+  }
+
+  /**
+   * Takes a handle reading a value from an original object, {@code (Object original) -> T}, to one
+   * computing the value's clone, {@code (Object original, IdentityHashMap clones) -> T}. Primitive
+   * values are copied as they are.
+   */
+  private static MethodHandle cloned(MethodHandle read) {
+    final Class<?> type = read.type().returnType();
+    if (type.isPrimitive()) {
+      return MethodHandles.dropArguments(read, 1, IdentityHashMap.class);
+    }
+    return MethodHandles.filterArguments(
+            CLONE, 0, read.asType(MethodType.methodType(Object.class, Object.class)))
+        .asType(MethodType.methodType(type, Object.class, IdentityHashMap.class));
+  }
+
+  private GeneratedCloner() {
+    // Uninstantiable utility class
+    throw new UnsupportedOperationException();
+  }
+}
@@ -55,6 +55,14 @@ public final class GlobalSettings {
   private static boolean saveTraces =
       Boolean.parseBoolean(lookupWithDefault("saveTraces", "false"));
 
+  /**
+   * Whether {@link Cloning} should first try copy code generated for each class (see {@link
+   * GeneratedCloner}) before the reflective cloning library.
+   */
+  @Getter @Setter
+  private static boolean generatedCloners =
+      Boolean.parseBoolean(lookupWithDefault("generatedCloners", "false"));
+
   private static final boolean doChecks =
       Boolean.parseBoolean(lookupWithDefault("doChecks", "false"));
 
@@ -76,6 +84,14 @@ public final class GlobalSettings {
   private static final int maximumStdOutErrLogSize =
       Integer.parseInt(lookupWithDefault("maxLogSize", "-1"));
 
+  /**
+   * The default size (in megabytes) of the bit array used by searches with bitstate hashing
+   * enabled.
+   */
+  @Getter
+  private static final int searchBitstateMB =
+      Integer.parseInt(lookupWithDefault("searchBitstateMB", "256"));
+
   static {
     System.setProperty(
         "java.util.logging.SimpleFormatter.format",
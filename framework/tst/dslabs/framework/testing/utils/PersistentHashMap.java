@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2026 Ellis Michael (emichael@cs.washington.edu)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dslabs.framework.testing.utils;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A hash map which can be copied in constant time. Entries are stored in a hash array mapped trie;
+ * a {@link #copy()} shares the whole trie with the original, and afterwards each modification only
+ * copies the nodes on the path to the changed entry, i.e., {@code O(log n)} of them. Nodes created
+ * since a map was last copied belong to that map alone and are modified in place, so building up a
+ * map is not much more expensive than building a {@link java.util.HashMap}.
+ *
+ * <p>Null keys are not permitted. Iteration order is unspecified. The collection views do not
+ * support removal.
+ *
+ * <p>This class is not thread-safe. Copying a map counts as modifying it. Copies of a map are
+ * independent and may be used by different threads.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+  private static final int BITS = 5, MASK = (1 << BITS) - 1;
+
+  private static final Object NOT_FOUND = new Object();
+
+  /** Identifies the nodes a map may modify in place. */
+  private static final class Owner {}
+
+  private Owner owner = new Owner();
+  private Node root = null;
+  private int size = 0;
+
+  public PersistentHashMap() {}
+
+  public PersistentHashMap(Map<? extends K, ? extends V> m) {
+    putAll(m);
+  }
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Creates a copy of this map in constant time.
+   *
+   * @return the copy
+   */
+  public PersistentHashMap<K, V> copy() {
+    // Neither map may modify the shared nodes from now on
+    owner = new Owner();
+    return new PersistentHashMap<>(root, size);
+  }
+
+  private static int hash(Object key) {
+    final int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && root != null && root.get(key, hash(key), 0) != NOT_FOUND;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null || root == null) {
+      return null;
+    }
+    final Object value = root.get(key, hash(key), 0);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    Objects.requireNonNull(key);
+    final Change change = new Change();
+    final int hash = hash(key);
+    if (root == null) {
+      root = new BitmapNode(owner, 0, new Object[0]);
+    }
+    root = root.put(owner, key, value, hash, 0, change);
+    if (change.added) {
+      size++;
+      return null;
+    }
+    return (V) change.oldValue;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    if (key == null || root == null) {
+      return null;
+    }
+    final Change change = new Change();
+    root = root.remove(owner, key, hash(key), 0, change);
+    if (change.removed) {
+      size--;
+      return (V) change.oldValue;
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /** Side results of a modification. */
+  private static final class Change {
+    private boolean added, removed;
+    private Object oldValue;
+  }
+
+  /**
+   * A trie node. Its array holds key-value pairs; a {@code null} key means the value is a child
+   * node.
+   */
+  private abstract static class Node {
+    final Owner owner;
+    Object[] array;
+
+    Node(Owner owner, Object[] array) {
+      this.owner = owner;
+      this.array = array;
+    }
+
+    abstract Object get(Object key, int hash, int shift);
+
+    abstract Node put(Owner owner, Object key, Object value, int hash, int shift, Change change);
+
+    /** Returns the node without the key, or {@code null} if it would be empty. */
+    abstract Node remove(Owner owner, Object key, int hash, int shift, Change change);
+  }
+
+  private static final class BitmapNode extends Node {
+    private int bitmap;
+
+    BitmapNode(Owner owner, int bitmap, Object[] array) {
+      super(owner, array);
+      this.bitmap = bitmap;
+    }
+
+    private static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode editable(Owner owner) {
+      return this.owner == owner ? this : new BitmapNode(owner, bitmap, array.clone());
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      final int i = 2 * index(bit);
+      final Object k = array[i], v = array[i + 1];
+      if (k == null) {
+        return ((Node) v).get(key, hash, shift + BITS);
+      }
+      return key.equals(k) ? v : NOT_FOUND;
+    }
+
+    @Override
+    Node put(Owner owner, Object key, Object value, int hash, int shift, Change change) {
+      final int bit = bit(hash, shift);
+      final int i = 2 * index(bit);
+
+      if ((bitmap & bit) == 0) {
+        change.added = true;
+        final Object[] newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, i);
+        newArray[i] = key;
+        newArray[i + 1] = value;
+        System.arraycopy(array, i, newArray, i + 2, array.length - i);
+
+        if (this.owner == owner) {
+          array = newArray;
+          bitmap |= bit;
+          return this;
+        }
+        return new BitmapNode(owner, bitmap | bit, newArray);
+      }
+
+      final Object k = array[i], v = array[i + 1];
+      final BitmapNode edited;
+
+      if (k == null) {
+        final Node child = ((Node) v).put(owner, key, value, hash, shift + BITS, change);
+        if (child == v) {
+          return this;
+        }
+        edited = editable(owner);
+        edited.array[i + 1] = child;
+      } else if (key.equals(k)) {
+        change.oldValue = v;
+        if (v == value) {
+          return this;
+        }
+        edited = editable(owner);
+        edited.array[i + 1] = value;
+      } else {
+        change.added = true;
+        final Node child = createNode(owner, shift + BITS, k, v, hash(k), key, value, hash);
+        edited = editable(owner);
+        edited.array[i] = null;
+        edited.array[i + 1] = child;
+      }
+      return edited;
+    }
+
+    private static Node createNode(
+        Owner owner, int shift, Object k1, Object v1, int h1, Object k2, Object v2, int h2) {
+      if (h1 == h2) {
+        return new CollisionNode(owner, h1, new Object[] {k1, v1, k2, v2});
+      }
+      final Change ignored = new Change();
+      return new BitmapNode(owner, 0, new Object[0])
+          .put(owner, k1, v1, h1, shift, ignored)
+          .put(owner, k2, v2, h2, shift, ignored);
+    }
+
+    @Override
+    Node remove(Owner owner, Object key, int hash, int shift, Change change) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      final int i = 2 * index(bit);
+      final Object k = array[i], v = array[i + 1];
+
+      if (k == null) {
+        final Node child = ((Node) v).remove(owner, key, hash, shift + BITS, change);
+        if (child == v) {
+          return this;
+        }
+        if (child != null) {
+          final BitmapNode edited = editable(owner);
+          if (child.array.length == 2 && child.array[0] != null) {
+            // Pull a lone entry up into this node
+            edited.array[i] = child.array[0];
+            edited.array[i + 1] = child.array[1];
+          } else {
+            edited.array[i + 1] = child;
+          }
+          return edited;
+        }
+      } else if (key.equals(k)) {
+        change.removed = true;
+        change.oldValue = v;
+      } else {
+        return this;
+      }
+
+      if (bitmap == bit) {
+        return null;
+      }
+      final Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+      if (this.owner == owner) {
+        array = newArray;
+        bitmap &= ~bit;
+        return this;
+      }
+      return new BitmapNode(owner, bitmap & ~bit, newArray);
+    }
+  }
+
+  /** Holds entries whose keys have the same full hash. */
+  private static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(Owner owner, int hash, Object[] array) {
+      super(owner, array);
+      this.hash = hash;
+    }
+
+    private int find(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      final int i = find(key);
+      return i < 0 ? NOT_FOUND : array[i + 1];
+    }
+
+    @Override
+    Node put(Owner owner, Object key, Object value, int hash, int shift, Change change) {
+      if (hash != this.hash) {
+        // Nest this node in a bitmap node so the new key can go beside it
+        return new BitmapNode(owner, BitmapNode.bit(this.hash, shift), new Object[] {null, this})
+            .put(owner, key, value, hash, shift, change);
+      }
+
+      final int i = find(key);
+      final Object[] newArray;
+      if (i >= 0) {
+        change.oldValue = array[i + 1];
+        if (array[i + 1] == value) {
+          return this;
+        }
+        newArray = array.clone();
+        newArray[i + 1] = value;
+      } else {
+        change.added = true;
+        newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        newArray[array.length] = key;
+        newArray[array.length + 1] = value;
+      }
+
+      if (this.owner == owner) {
+        array = newArray;
+        return this;
+      }
+      return new CollisionNode(owner, hash, newArray);
+    }
+
+    @Override
+    Node remove(Owner owner, Object key, int hash, int shift, Change change) {
+      final int i = find(key);
+      if (i < 0) {
+        return this;
+      }
+      change.removed = true;
+      change.oldValue = array[i + 1];
+      if (array.length == 2) {
+        return null;
+      }
+
+      final Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+      if (this.owner == owner) {
+        array = newArray;
+        return this;
+      }
+      return new CollisionNode(owner, hash, newArray);
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Entry<K, V>> {
+    // Deep enough for 32-bit hashes plus a collision node
+    private final Object[][] arrays = new Object[9][];
+    private final int[] positions = new int[9];
+    private int depth = -1;
+    private Entry<K, V> next;
+
+    private EntryIterator() {
+      if (root != null) {
+        arrays[0] = root.array;
+        depth = 0;
+      }
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      while (depth >= 0) {
+        final Object[] array = arrays[depth];
+        final int i = positions[depth];
+        if (i >= array.length) {
+          depth--;
+          continue;
+        }
+        positions[depth] += 2;
+
+        if (array[i] != null) {
+          next = new SimpleImmutableEntry<>((K) array[i], (V) array[i + 1]);
+          return;
+        }
+        depth++;
+        arrays[depth] = ((Node) array[i + 1]).array;
+        positions[depth] = 0;
+      }
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final Entry<K, V> result = next;
+      advance();
+      return result;
+    }
+  }
+
+  /*
+   * The trie's layout depends on the keys' hash codes, which might differ after deserialization
+   * (and objects may be substituted while deserializing). Only the entries are serialized, and the
+   * map is rebuilt when read.
+   */
+  private Object writeReplace() {
+    // Keys and values alternate
+    final List<Object> entries = new ArrayList<>(2 * size);
+    for (Entry<K, V> e : entrySet()) {
+      entries.add(e.getKey());
+      entries.add(e.getValue());
+    }
+    return new SerializedForm(entries);
+  }
+
+  private record SerializedForm(List<Object> entries) implements Serializable {
+    private Object readResolve() {
+      final PersistentHashMap<Object, Object> map = new PersistentHashMap<>();
+      for (int i = 0; i < entries.size(); i += 2) {
+        map.put(entries.get(i), entries.get(i + 1));
+      }
+      return map;
+    }
+  }
+}